@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Shared benchmark state providing a synthetic GeTa document set
+ * (EA, TEA, DEA, NEA, MetaEA) of a given size on disk.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+@State(Scope.Benchmark)
+public class GeTaBenchmarkState {
+
+	/**
+	 * The input sizes benchmarks are run against.
+	 */
+	public enum Size {
+		/** 100 fidalwords */
+		SMALL(100),
+		/** 10,000 fidalwords */
+		MEDIUM(10000),
+		/** 200,000 fidalwords, i.e., > 1M LL objects */
+		HUGE(200000);
+
+		private final int words;
+
+		private Size(int words) {
+			this.words = words;
+		}
+
+		/**
+		 * @return the number of fidalwords
+		 */
+		public int getWords() {
+			return words;
+		}
+	}
+
+	@Param({ "SMALL", "MEDIUM", "HUGE" })
+	public Size size;
+
+	protected File directory;
+	protected File eaFile;
+	protected File teaFile;
+	protected File deaFile;
+	protected File neaFile;
+	protected File metaeaFile;
+
+	/**
+	 * Writes the document set to a temporary directory.
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	@Setup
+	public void writeDocument() throws IOException {
+		directory = Files.createTempDirectory("geta-jmh").toFile();
+		String stem = "bench";
+		GeTaCorpusGenerator generator = new GeTaCorpusGenerator();
+		generator.setWordCount(size.getWords());
+		eaFile = generator.write(directory, stem);
+		teaFile = new File(directory, stem + "TEA.ann");
+		deaFile = new File(directory, stem + "DEA.ann");
+		neaFile = new File(directory, stem + "NEA.ann");
+		metaeaFile = new File(directory, stem + "MetaEA.ann");
+	}
+
+	/**
+	 * Deletes the document set.
+	 */
+	@TearDown
+	public void deleteDocument() {
+		for (File file : new File[] { eaFile, teaFile, deaFile, neaFile, metaeaFile }) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	/**
+	 * Creates a new mapper for the document set with an empty document.
+	 *
+	 * @return The mapper
+	 */
+	protected GeTaMapper createMapper() {
+		GeTaMapper mapper = new GeTaMapper();
+		mapper.setResourceURI(URI.createFileURI(eaFile.getAbsolutePath()));
+		mapper.setDocument(SaltFactory.createSDocument());
+		mapper.setProperties(new GeTaImporterProperties());
+		return mapper;
+	}
+
+}
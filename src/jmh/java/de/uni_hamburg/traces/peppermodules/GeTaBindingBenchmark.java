@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.metaea.GeTaMetaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Benchmarks JSON binding of the single model packages from
+ * in-memory file contents, i.e., without file I/O.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeTaBindingBenchmark extends GeTaBenchmarkState {
+
+	private byte[] ea;
+	private byte[] tea;
+	private byte[] dea;
+	private byte[] nea;
+	private byte[] metaea;
+
+	/**
+	 * Reads the document set into memory.
+	 *
+	 * @throws IOException if the files cannot be read
+	 */
+	@Setup
+	public void readDocument() throws IOException {
+		ea = Files.readAllBytes(eaFile.toPath());
+		tea = Files.readAllBytes(teaFile.toPath());
+		dea = Files.readAllBytes(deaFile.toPath());
+		nea = Files.readAllBytes(neaFile.toPath());
+		metaea = Files.readAllBytes(metaeaFile.toPath());
+	}
+
+	@Benchmark
+	public GeTaEA bindEA() throws IOException {
+		return GeTaReaders.getEAReader().readValue(ea);
+	}
+
+	@Benchmark
+	public List<GeTaTEA> bindTEA() throws IOException {
+		return GeTaReaders.getTEAReader().readValue(tea);
+	}
+
+	@Benchmark
+	public List<GeTaDEA> bindDEA() throws IOException {
+		return GeTaReaders.getDEAReader().readValue(dea);
+	}
+
+	@Benchmark
+	public List<GeTaNEA> bindNEA() throws IOException {
+		return GeTaReaders.getNEAReader().readValue(nea);
+	}
+
+	@Benchmark
+	public GeTaMetaEA bindMetaEA() throws IOException {
+		return GeTaReaders.getMetaEAReader().readValue(metaea);
+	}
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+
+/**
+ * Benchmarks the fidalword &rarr; token/span loop of {@link GeTaMapper}
+ * on pre-bound fidalwords.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GeTaFidalwordMappingBenchmark extends GeTaBenchmarkState {
+
+	private GeTaEA ea;
+
+	/**
+	 * Binds the EA file.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Setup
+	public void bindDocument() throws IOException {
+		ea = GeTaReaders.getEAReader().readValue(eaFile);
+	}
+
+	@Benchmark
+	public SDocumentGraph mapFidalwords() {
+		GeTaMapper mapper = createMapper();
+		mapper.initGraph();
+		mapper.mapFidalwords(ea.getFidalwords());
+		return mapper.getDocument().getDocumentGraph();
+	}
+
+}
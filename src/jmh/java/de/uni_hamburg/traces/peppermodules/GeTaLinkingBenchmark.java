@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Benchmarks the TEA, DEA and NEA linking passes of {@link GeTaMapper}
+ * separately. Each pass runs against a freshly mapped set of
+ * fidalwords, so the benchmarks run in single-shot mode: each
+ * iteration maps the fidalwords in an iteration-level setup and
+ * then measures exactly one linking pass. The setup's allocations
+ * thus stay out of the measured time and of the GC profiler's
+ * per-operation allocation rate.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GeTaLinkingBenchmark extends GeTaBenchmarkState {
+
+	private GeTaEA ea;
+	private List<GeTaTEA> tea;
+	private List<GeTaDEA> dea;
+	private List<GeTaNEA> nea;
+	private GeTaMapper mapper;
+
+	/**
+	 * Binds all files of the document set.
+	 *
+	 * @throws IOException if a file cannot be read
+	 */
+	@Setup
+	public void bindDocument() throws IOException {
+		ea = GeTaReaders.getEAReader().readValue(eaFile);
+		tea = GeTaReaders.getTEAReader().readValue(teaFile);
+		dea = GeTaReaders.getDEAReader().readValue(deaFile);
+		nea = GeTaReaders.getNEAReader().readValue(neaFile);
+	}
+
+	/**
+	 * Maps the fidalwords the linking pass of the next iteration
+	 * operates on.
+	 */
+	@Setup(Level.Iteration)
+	public void mapFidalwords() {
+		mapper = createMapper();
+		mapper.initGraph();
+		mapper.mapFidalwords(ea.getFidalwords());
+	}
+
+	@Benchmark
+	public SDocumentGraph linkTEA() {
+		mapper.mapTEA(tea);
+		return mapper.getDocument().getDocumentGraph();
+	}
+
+	@Benchmark
+	public SDocumentGraph linkDEA() {
+		mapper.mapDEA(dea);
+		return mapper.getDocument().getDocumentGraph();
+	}
+
+	@Benchmark
+	public SDocumentGraph linkNEA() {
+		mapper.mapNEA(nea);
+		return mapper.getDocument().getDocumentGraph();
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.STextualDS;
+import org.corpus_tools.salt.common.SToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
+
+/**
+ * Compares the memory use of creating the fidalword, TR and FC spans
+ * of a document from per-span token lists with creating them from
+ * token ranges via {@link GeTaSpanBuilder}. Both benchmarks create
+ * the same tokens and spans, so the difference in
+ * <code>gc.alloc.rate.norm</code> (run with <code>-prof gc</code>)
+ * is the cost of the token lists.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GeTaSpanBuilderBenchmark extends GeTaBenchmarkState {
+
+	private GeTaEA ea;
+
+	/**
+	 * Binds the EA file.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	@Setup
+	public void bindDocument() throws IOException {
+		ea = GeTaReaders.getEAReader().readValue(eaFile);
+	}
+
+	@Benchmark
+	public SDocumentGraph listSpans() {
+		SDocumentGraph graph = SaltFactory.createSDocumentGraph();
+		STextualDS text = SaltFactory.createSTextualDS();
+		graph.addNode(text);
+		int offset = 0;
+		for (GeTaFidalword fidalword : ea.getFidalwords()) {
+			List<SToken> fidalwordTokens = new ArrayList<>();
+			for (GeTaFC fc : fidalword.getFc()) {
+				List<SToken> fcTokens = new ArrayList<>();
+				for (GeTaLL ll : fc.getLl()) {
+					int end = offset + ll.getLat().length();
+					SToken tok = graph.createToken(text, offset, end);
+					offset = end;
+					fcTokens.add(tok);
+					fidalwordTokens.add(tok);
+				}
+				graph.createSpan(fcTokens);
+			}
+			graph.createSpan(fidalwordTokens);
+			graph.createSpan(fidalwordTokens);
+		}
+		return graph;
+	}
+
+	@Benchmark
+	public SDocumentGraph rangeSpans() {
+		SDocumentGraph graph = SaltFactory.createSDocumentGraph();
+		STextualDS text = SaltFactory.createSTextualDS();
+		graph.addNode(text);
+		List<SToken> tokens = new ArrayList<>();
+		GeTaSpanBuilder spanBuilder = new GeTaSpanBuilder(graph, tokens);
+		int offset = 0;
+		for (GeTaFidalword fidalword : ea.getFidalwords()) {
+			int fidalwordStart = tokens.size();
+			for (GeTaFC fc : fidalword.getFc()) {
+				int fcStart = tokens.size();
+				for (GeTaLL ll : fc.getLl()) {
+					int end = offset + ll.getLat().length();
+					tokens.add(graph.createToken(text, offset, end));
+					offset = end;
+				}
+				spanBuilder.createSpan(fcStart, tokens.size());
+			}
+			spanBuilder.createSpans(fidalwordStart, tokens.size(), 2);
+		}
+		return graph;
+	}
+
+}
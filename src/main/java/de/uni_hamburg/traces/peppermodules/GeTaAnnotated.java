@@ -0,0 +1,51 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+/**
+ * An object carrying a fixed set of annotations, which can be
+ * iterated by index without creating a map or map entries.
+ * 
+ * Keys are normalised annotation names, i.e., contain no whitespace.
+ * Values may be `null` or empty for annotations which are not set.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public interface GeTaAnnotated {
+
+	/**
+	 * @return the number of annotation slots
+	 */
+	int getAnnotationCount();
+
+	/**
+	 * @param index The index of the slot, `0 <= index < getAnnotationCount()`
+	 * @return the annotation key of the slot
+	 */
+	String getAnnotationKey(int index);
+
+	/**
+	 * @param index The index of the slot, `0 <= index < getAnnotationCount()`
+	 * @return the annotation value of the slot, may be `null`
+	 */
+	Object getAnnotationValue(int index);
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A base class for model beans which carry their annotations in
+ * fixed slots, i.e., a shared array of keys and an array of values
+ * in the same order.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ * @param <V> The type of the annotation values
+ */
+public abstract class GeTaAnnotatedBase<V> implements GeTaAnnotated {
+
+	private final String[] annotationKeys;
+	private final V[] annotationValues;
+
+	/**
+	 * Constructor setting the annotation slots.
+	 *
+	 * @param annotationKeys The keys of the slots, shared by all instances of a class
+	 * @param annotationValues The values of the slots, in the order of the keys
+	 */
+	protected GeTaAnnotatedBase(String[] annotationKeys, V[] annotationValues) {
+		this.annotationKeys = annotationKeys;
+		this.annotationValues = annotationValues;
+	}
+
+	/**
+	 * Creates a map view of the annotation slots. This is a convenience
+	 * for callers outside of the mapping hot path, which should iterate
+	 * the slots via {@link GeTaAnnotated} instead.
+	 * 
+	 * @return a new map of the annotations, including unset (`null`) ones
+	 */
+	public final Map<String, V> getAnnotations() {
+		Map<String, V> annotations = new HashMap<>();
+		for (int i = 0; i < annotationKeys.length; i++) {
+			annotations.put(annotationKeys[i], annotationValues[i]);
+		}
+		return annotations;
+	}
+
+	@Override
+	public final int getAnnotationCount() {
+		return annotationKeys.length;
+	}
+
+	@Override
+	public final String getAnnotationKey(int index) {
+		return annotationKeys[index];
+	}
+
+	@Override
+	public final V getAnnotationValue(int index) {
+		return annotationValues[index];
+	}
+
+}
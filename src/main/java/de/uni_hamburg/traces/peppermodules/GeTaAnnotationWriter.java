@@ -0,0 +1,219 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.Locale;
+
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.core.SAnnotation;
+
+/**
+ * Writes the span annotations of a document and counts them.
+ * 
+ * Spans which may already carry an annotation with the same
+ * qualified name, e.g., the NET annotation of a fidalword linked
+ * from several named entities, or the NT and AL annotations of a
+ * TEA span with several LT objects, are annotated via
+ * {@link #annotate(SSpan, String, String, Object)}. Existing
+ * annotations are looked up before an annotation is created,
+ * rather than relying on Salt rejecting the duplicate, and the
+ * duplicate is merged according to a {@link MergePolicy}. New
+ * spans are annotated via the `create` methods without a lookup.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaAnnotationWriter {
+
+	/**
+	 * The separator between the values of a concatenated annotation.
+	 */
+	public static final String SEPARATOR = "; ";
+
+	/**
+	 * The suffix of the name of the annotation holding the number of
+	 * values of a counted annotation.
+	 */
+	public static final String COUNT_SUFFIX = "_count";
+
+	/**
+	 * The ways of merging a value into an existing annotation.
+	 */
+	public enum MergePolicy {
+		/** Keep the existing value */
+		SKIP,
+		/** Append values not yet contained, separated by {@link GeTaAnnotationWriter#SEPARATOR} */
+		CONCATENATE,
+		/**
+		 * Keep the existing value, and record the number of values
+		 * in an annotation suffixed with {@link GeTaAnnotationWriter#COUNT_SUFFIX}
+		 */
+		COUNT;
+
+		/**
+		 * @param name The name of a policy, case-insensitive, or `null` for {@link #SKIP}
+		 * @return The policy
+		 * @throws PepperModuleException if there is no policy with the given name
+		 */
+		public static MergePolicy forName(String name) {
+			if (name == null || name.trim().isEmpty()) {
+				return SKIP;
+			}
+			try {
+				return valueOf(name.trim().toUpperCase(Locale.ROOT));
+			}
+			catch (IllegalArgumentException e) {
+				throw new PepperModuleException("Unknown policy for duplicate annotations '" + name
+						+ "', expected one of skip, concatenate, count.", e);
+			}
+		}
+	}
+
+	private final MergePolicy policy;
+	private int duplicateCount = 0;
+	private long annotationCount = 0;
+
+	/**
+	 * Constructor setting the policy for merging duplicate annotations.
+	 *
+	 * @param policy The policy
+	 */
+	public GeTaAnnotationWriter(MergePolicy policy) {
+		this.policy = policy;
+	}
+
+	/**
+	 * Annotates a new span with the passed annotations, skipping
+	 * values which are `null` or empty. Keys are used as they are,
+	 * as {@link GeTaAnnotated} guarantees them to be normalised and
+	 * unique, so existing annotations aren't looked up.
+	 *
+	 * @param annotated The annotations to apply to the span
+	 * @param span The span to be annotated
+	 * @param namespace The Salt annotation namespace to be used for the annotations
+	 */
+	public void create(GeTaAnnotated annotated, SSpan span, String namespace) {
+		for (int i = 0; i < annotated.getAnnotationCount(); i++) {
+			Object value = annotated.getAnnotationValue(i);
+			if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+				continue;
+			}
+			create(span, namespace, annotated.getAnnotationKey(i), value);
+		}
+	}
+
+	/**
+	 * Creates an annotation which doesn't exist on the span yet.
+	 *
+	 * @param span The span to be annotated
+	 * @param namespace The Salt annotation namespace
+	 * @param name The annotation name
+	 * @param value The annotation value
+	 */
+	public void create(SSpan span, String namespace, String name, Object value) {
+		span.createAnnotation(namespace, name, value);
+		annotationCount++;
+	}
+
+	/**
+	 * Annotates a span with the passed annotations, skipping values
+	 * which are `null` or empty, see {@link #annotate(SSpan, String, String, Object)}.
+	 *
+	 * @param annotated The annotations to apply to the span
+	 * @param span The span to be annotated
+	 * @param namespace The Salt annotation namespace to be used for the annotations
+	 */
+	public void annotate(GeTaAnnotated annotated, SSpan span, String namespace) {
+		for (int i = 0; i < annotated.getAnnotationCount(); i++) {
+			Object value = annotated.getAnnotationValue(i);
+			if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+				continue;
+			}
+			annotate(span, namespace, annotated.getAnnotationKey(i), value);
+		}
+	}
+
+	/**
+	 * Creates an annotation on a span, or merges the value into the
+	 * span's existing annotation with the same qualified name.
+	 *
+	 * @param span The span to be annotated
+	 * @param namespace The Salt annotation namespace
+	 * @param name The annotation name
+	 * @param value The annotation value
+	 */
+	public void annotate(SSpan span, String namespace, String name, Object value) {
+		SAnnotation existing = span.getAnnotation(namespace, name);
+		if (existing == null) {
+			create(span, namespace, name, value);
+			return;
+		}
+		duplicateCount++;
+		switch (policy) {
+		case CONCATENATE:
+			String current = String.valueOf(existing.getValue());
+			String added = String.valueOf(value);
+			if (!containsValue(current, added)) {
+				existing.setValue(current + SEPARATOR + added);
+			}
+			break;
+		case COUNT:
+			String countName = name + COUNT_SUFFIX;
+			SAnnotation count = span.getAnnotation(namespace, countName);
+			if (count == null) {
+				create(span, namespace, countName, 2);
+			}
+			else if (count.getValue() instanceof Integer) {
+				count.setValue((Integer) count.getValue() + 1);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static boolean containsValue(String values, String value) {
+		return values.equals(value) || values.startsWith(value + SEPARATOR) || values.endsWith(SEPARATOR + value)
+				|| values.contains(SEPARATOR + value + SEPARATOR);
+	}
+
+	/**
+	 * @return the policy for merging duplicate annotations
+	 */
+	public MergePolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return the number of annotations created
+	 */
+	public long getAnnotationCount() {
+		return annotationCount;
+	}
+
+	/**
+	 * @return the number of values merged into existing annotations
+	 */
+	public int getDuplicateCount() {
+		return duplicateCount;
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An immutable bundle of annotations, i.e., key-value pairs,
+ * with pre-normalised keys.
+ * 
+ * Bundles are built once from the annotation map of a model object:
+ * entries with `null` or empty keys or values are dropped, and keys
+ * are normalised with {@link GeTaUtil#normaliseKey(String)}. The
+ * bundle can then be applied to any number of spans without any
+ * further checks, and compared by content, so that identical bundles
+ * can be shared.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaAnnotations implements GeTaAnnotated {
+
+	/**
+	 * The empty bundle.
+	 */
+	public static final GeTaAnnotations EMPTY = new GeTaAnnotations(new String[0], new Object[0]);
+
+	private final String[] keys;
+	private final Object[] values;
+	private final int hash;
+
+	private GeTaAnnotations(String[] keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+		this.hash = 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+	}
+
+	/**
+	 * Creates a bundle from an annotation map. Entries whose key is
+	 * `null` or empty, or whose value is `null` or an empty String,
+	 * are dropped.
+	 *
+	 * @param annotations The annotation map
+	 * @return The bundle
+	 */
+	public static GeTaAnnotations of(Map<String, ?> annotations) {
+		String[] keys = new String[annotations.size()];
+		Object[] values = new Object[annotations.size()];
+		int size = 0;
+		for (Entry<String, ?> annotation : annotations.entrySet()) {
+			String key = annotation.getKey();
+			Object value = annotation.getValue();
+			if (key == null || key.isEmpty() || value == null || "".equals(value)) {
+				continue;
+			}
+			keys[size] = GeTaUtil.normaliseKey(key);
+			values[size] = value;
+			size++;
+		}
+		if (size == 0) {
+			return EMPTY;
+		}
+		if (size < keys.length) {
+			keys = Arrays.copyOf(keys, size);
+			values = Arrays.copyOf(values, size);
+		}
+		return new GeTaAnnotations(keys, values);
+	}
+
+	@Override
+	public int getAnnotationCount() {
+		return keys.length;
+	}
+
+	@Override
+	public String getAnnotationKey(int index) {
+		return keys[index];
+	}
+
+	@Override
+	public Object getAnnotationValue(int index) {
+		return values[index];
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GeTaAnnotations)) {
+			return false;
+		}
+		GeTaAnnotations other = (GeTaAnnotations) obj;
+		return hash == other.hash && Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+	}
+
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.salt.SALT_TYPE;
+import org.eclipse.emf.common.util.URI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Discovers the corpus structure of a GeTa corpus, i.e., the
+ * directories which become corpora and the *EA.json files which
+ * become documents.
+ * 
+ * Directories are listed with {@link DirectoryStream}s, and
+ * subdirectories are scanned in parallel on a {@link ForkJoinPool}.
+ * Entries in the list of ignored names and the *TEA.json, *DEA.json,
+ * *NEA.json, *QEA.json and *MetaEA.json companions are skipped by
+ * their name. All other entries are typed by a {@link ResourceClassifier},
+ * i.e., by the importer's {@link org.corpus_tools.pepper.modules.PepperImporter#setTypeOfResource(URI)},
+ * so that directories may be documents as well. Paths are
+ * canonicalized once per directory rather than once per file, and
+ * only symbolic links are resolved individually.
+ * 
+ * The result is a tree of {@link Entry}s in listing order, from
+ * which the corpus graph is built on a single thread. Documents
+ * carry the {@link GeTaSiblingIndex} of their directory, which is
+ * filled from the same listing.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaCorpusScanner {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaCorpusScanner.class);
+
+	// The suffix shared by the main file and its companions
+	private static final String EA_FILE_SUFFIX = "EA.json";
+	// The prefixes of EA_FILE_SUFFIX which mark companions, e.g., "T" for *TEA.json
+	private static final String[] COMPANION_PREFIXES = { "T", "D", "N", "Q", "Meta" };
+
+	private final ResourceClassifier classifier;
+	private final Set<String> ignoredNames;
+	private final int parallelism;
+
+	/**
+	 * Determines whether a resource is a corpus, a document or
+	 * neither. Called concurrently from the scanning threads.
+	 */
+	public interface ResourceClassifier {
+
+		/**
+		 * @param uri The canonical location of a file or directory
+		 * @return {@link SALT_TYPE#SCORPUS}, {@link SALT_TYPE#SDOCUMENT}, or `null` if the resource is to be ignored
+		 */
+		SALT_TYPE classify(URI uri);
+
+	}
+
+	/**
+	 * Constructor for a scanner.
+	 *
+	 * @param classifier The classifier for files and directories
+	 * @param ignoredNames The names of files and directories to ignore
+	 * @param parallelism The number of threads to scan directories with
+	 */
+	public GeTaCorpusScanner(ResourceClassifier classifier, Collection<String> ignoredNames, int parallelism) {
+		this.classifier = classifier;
+		this.ignoredNames = new HashSet<>(ignoredNames);
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Scans a corpus.
+	 *
+	 * @param uri The root of the corpus, a directory or a single document
+	 * @return The root entry, or `null` if the root is neither a corpus nor a document
+	 */
+	public Entry scan(URI uri) {
+		if (isIgnored(uri)) {
+			return null;
+		}
+		SALT_TYPE type = classifier.classify(uri);
+		Path path = Paths.get(uri.toFileString());
+		if (SALT_TYPE.SCORPUS.equals(type) && Files.isDirectory(path)) {
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				return pool.invoke(new ScanTask(uri, path));
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+		return createEntry(uri, type, null);
+	}
+
+	/**
+	 * Classifies an entry by its name.
+	 *
+	 * @return whether the entry is in the list of ignored names or is the companion of a document
+	 */
+	private boolean isIgnored(URI uri) {
+		String name = uri.lastSegment();
+		if (name == null || ignoredNames.contains(name)) {
+			return true;
+		}
+		if (!name.endsWith(EA_FILE_SUFFIX)) {
+			return false;
+		}
+		int end = name.length() - EA_FILE_SUFFIX.length();
+		for (String prefix : COMPANION_PREFIXES) {
+			if (name.startsWith(prefix, end - prefix.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the entry for a resource which isn't scanned, i.e.,
+	 * a document, or a corpus which isn't a directory and thus has
+	 * no children.
+	 *
+	 * @return The entry, or `null` if the resource has no type
+	 */
+	private static Entry createEntry(URI uri, SALT_TYPE type, GeTaSiblingIndex siblingIndex) {
+		if (type == null) {
+			return null;
+		}
+		return new Entry(uri, type, Collections.<Entry> emptyList(), SALT_TYPE.SDOCUMENT.equals(type) ? siblingIndex : null);
+	}
+
+	/**
+	 * Lists a directory and classifies its entries, scanning its
+	 * subdirectories in parallel.
+	 */
+	private final class ScanTask extends RecursiveTask<Entry> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final URI uri;
+		private final Path directory;
+
+		private ScanTask(URI uri, Path directory) {
+			this.uri = uri;
+			this.directory = directory;
+		}
+
+		@Override
+		protected Entry compute() {
+			// Children in listing order, either entries or pending scans of subdirectories
+			List<Object> children = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				Path canonicalDirectory = directory.toRealPath();
+				GeTaSiblingIndex siblingIndex = new GeTaSiblingIndex(canonicalDirectory.toFile());
+				for (Path child : stream) {
+					String name = child.getFileName().toString();
+					Path canonical = canonicalDirectory.resolve(name);
+					BasicFileAttributes attributes = Files.readAttributes(canonical, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+					boolean isLink = attributes.isSymbolicLink();
+					if (isLink) {
+						canonical = resolveLink(canonical);
+						attributes = readAttributes(canonical, attributes);
+					}
+					if (attributes.isRegularFile()) {
+						// Siblings are opened by their name in this directory, links included
+						siblingIndex.add(name, attributes.size());
+					}
+					URI childURI = URI.createFileURI(canonical.toString());
+					if (isIgnored(childURI)) {
+						continue;
+					}
+					SALT_TYPE type = classifier.classify(childURI);
+					if (SALT_TYPE.SCORPUS.equals(type) && attributes.isDirectory()) {
+						ScanTask scan = new ScanTask(childURI, canonical);
+						scan.fork();
+						children.add(scan);
+					}
+					else if (type != null) {
+						// Linked documents are mapped from their target's directory, which isn't indexed here
+						children.add(createEntry(childURI, type, isLink || !attributes.isRegularFile() ? null : siblingIndex));
+					}
+				}
+			}
+			catch (IOException e) {
+				// Unreadable directories are skipped, like with File#listFiles()
+				logger.warn("Cannot list the directory {}.", directory, e);
+			}
+			List<Entry> entries = new ArrayList<>(children.size());
+			for (Object child : children) {
+				entries.add(child instanceof ScanTask ? ((ScanTask) child).join() : (Entry) child);
+			}
+			return new Entry(uri, SALT_TYPE.SCORPUS, entries, null);
+		}
+
+		/**
+		 * Reads the attributes of the target of a resolved link.
+		 *
+		 * @return The attributes of the target, or the attributes of the link if it is dangling
+		 */
+		private BasicFileAttributes readAttributes(Path target, BasicFileAttributes linkAttributes) {
+			try {
+				return Files.readAttributes(target, BasicFileAttributes.class);
+			}
+			catch (IOException e) {
+				return linkAttributes;
+			}
+		}
+
+		/**
+		 * Resolves a symbolic link like {@link java.io.File#getCanonicalPath()},
+		 * i.e., leaves dangling links unresolved.
+		 */
+		private Path resolveLink(Path link) {
+			try {
+				return link.toRealPath();
+			}
+			catch (NoSuchFileException e) {
+				return link;
+			}
+			catch (IOException e) {
+				throw new PepperModuleException("Cannot import corpus structure, because cannot resolve the link '" + link + "'. ", e);
+			}
+		}
+
+	}
+
+	/**
+	 * A corpus or document found by the scanner.
+	 */
+	public static final class Entry {
+
+		private final URI uri;
+		private final SALT_TYPE type;
+		private final List<Entry> children;
+		private final GeTaSiblingIndex siblingIndex;
+
+		private Entry(URI uri, SALT_TYPE type, List<Entry> children, GeTaSiblingIndex siblingIndex) {
+			this.uri = uri;
+			this.type = type;
+			this.children = Collections.unmodifiableList(children);
+			this.siblingIndex = siblingIndex;
+		}
+
+		/**
+		 * @return the canonical location of the corpus or document
+		 */
+		public URI getURI() {
+			return uri;
+		}
+
+		/**
+		 * @return {@link SALT_TYPE#SCORPUS} for corpora, {@link SALT_TYPE#SDOCUMENT} for documents, which may be directories
+		 */
+		public SALT_TYPE getType() {
+			return type;
+		}
+
+		/**
+		 * @return the corpora and documents in a directory in listing order, empty for documents
+		 */
+		public List<Entry> getChildren() {
+			return children;
+		}
+
+		/**
+		 * @return the index of the directory containing a document file, or `null` if the document's siblings haven't been indexed
+		 */
+		public GeTaSiblingIndex getSiblingIndex() {
+			return siblingIndex;
+		}
+
+	}
+
+}
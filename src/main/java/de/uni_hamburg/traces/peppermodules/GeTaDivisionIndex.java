@@ -0,0 +1,261 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.corpus_tools.salt.common.SToken;
+
+import com.google.common.collect.Maps;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+
+/**
+ * Resolves the divisions of a DEA file to ranges in the token list.
+ * 
+ * Each fidalword is registered with its range of token positions
+ * once it has been mapped. A division is resolved to the tokens
+ * from its first (`WB`) to its last (`WE`) fidalword. Divisions
+ * without (resolvable) `WB`/`WE` cover the range of their child
+ * divisions, taken from `DP` and `DC`. The hierarchy is built and
+ * traversed once, so resolving is linear in the number of divisions.
+ * 
+ * Divisions which can be resolved neither way fall back to the
+ * tokens of the fidalwords listing them in their `Sid`. These are
+ * recorded per fidalword rather than per token.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaDivisionIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NONE = -1;
+
+	// The tokens of each Sid, for divisions which can't be resolved otherwise
+	private final GeTaTokenIndex sidIndex;
+	private final Map<String, Integer> wordIndices;
+	// Per word, the first token position and the position after its last token
+	private int[] wordStarts;
+	private int[] wordEnds;
+	private int wordCount = 0;
+	// Per division, the resolved range of token positions, or NONE
+	private int[] divisionStarts = new int[0];
+	private int[] divisionEnds = new int[0];
+
+	/**
+	 * Constructor setting the token list whose positions are indexed.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 */
+	public GeTaDivisionIndex(List<SToken> tokens) {
+		this(tokens, INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor setting the token list whose positions are indexed,
+	 * and pre-sizing the index for an expected number of fidalwords
+	 * and Sids, e.g., from a {@link GeTaPreScan}. The index still grows
+	 * beyond the expected sizes if necessary.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 * @param expectedWords The expected number of fidalwords
+	 * @param expectedSids The expected number of distinct Sids
+	 */
+	public GeTaDivisionIndex(List<SToken> tokens, int expectedWords, int expectedSids) {
+		int wordCapacity = Math.max(expectedWords, INITIAL_CAPACITY);
+		this.sidIndex = new GeTaTokenIndex(tokens, expectedSids, expectedSids);
+		this.wordIndices = Maps.newHashMapWithExpectedSize(wordCapacity);
+		this.wordStarts = new int[wordCapacity];
+		this.wordEnds = new int[wordCapacity];
+	}
+
+	/**
+	 * Adds a mapped fidalword. Fidalwords must be added in text order.
+	 *
+	 * @param wordId The `Id` of the fidalword
+	 * @param sids The `Sid` list of the fidalword, may be `null`
+	 * @param start The position of the first token of the fidalword
+	 * @param end The position after the last token of the fidalword
+	 */
+	public void addWord(String wordId, List<String> sids, int start, int end) {
+		if (wordId != null && !wordIndices.containsKey(wordId)) {
+			if (wordCount == wordStarts.length) {
+				wordStarts = Arrays.copyOf(wordStarts, wordCount * 2);
+				wordEnds = Arrays.copyOf(wordEnds, wordCount * 2);
+			}
+			wordStarts[wordCount] = start;
+			wordEnds[wordCount] = end;
+			wordIndices.put(wordId, wordCount++);
+		}
+		if (sids != null && start < end) {
+			for (String sid : sids) {
+				sidIndex.add(sidIndex.getId(sid), start, end);
+			}
+		}
+	}
+
+	/**
+	 * Resolves a list of divisions to ranges of token positions, see
+	 * {@link #getStart(int)} and {@link #getEnd(int)}. All fidalwords
+	 * must have been added before.
+	 *
+	 * @param divisions The DEA objects
+	 */
+	public void resolve(List<GeTaDEA> divisions) {
+		int count = divisions.size();
+		Map<String, Integer> positions = Maps.newHashMapWithExpectedSize(count);
+		for (int i = 0; i < count; i++) {
+			String id = divisions.get(i).getId();
+			if (id != null && !positions.containsKey(id)) {
+				positions.put(id, i);
+			}
+		}
+		divisionStarts = new int[count];
+		divisionEnds = new int[count];
+		boolean[] fromWords = new boolean[count];
+		int[] parents = new int[count];
+		Arrays.fill(divisionStarts, NONE);
+		Arrays.fill(divisionEnds, NONE);
+		Arrays.fill(parents, NONE);
+		for (int i = 0; i < count; i++) {
+			GeTaDEA division = divisions.get(i);
+			int first = findWord(division.getWb());
+			int last = findWord(division.getWe());
+			if (first != NONE && last != NONE && first <= last) {
+				divisionStarts[i] = wordStarts[first];
+				divisionEnds[i] = wordEnds[last];
+				fromWords[i] = true;
+			}
+			int parent = find(positions, division.getDp());
+			if (parent != NONE && parent != i) {
+				parents[i] = parent;
+			}
+		}
+		// Children listed in DC only
+		for (int i = 0; i < count; i++) {
+			List<String> dc = divisions.get(i).getDc();
+			if (dc != null) {
+				for (String childId : dc) {
+					int child = find(positions, childId);
+					if (child != NONE && child != i && parents[child] == NONE) {
+						parents[child] = i;
+					}
+				}
+			}
+		}
+		/*
+		 * Order the hierarchy from the roots down, so that iterating
+		 * the order backwards visits all children before their parent.
+		 * Divisions in a DP/DC cycle aren't reachable from a root and
+		 * are left out.
+		 */
+		int[] firstChildren = new int[count];
+		int[] nextSiblings = new int[count];
+		Arrays.fill(firstChildren, NONE);
+		for (int i = count - 1; i >= 0; i--) {
+			if (parents[i] != NONE) {
+				nextSiblings[i] = firstChildren[parents[i]];
+				firstChildren[parents[i]] = i;
+			}
+		}
+		int[] order = new int[count];
+		int ordered = 0;
+		int[] stack = new int[count];
+		for (int root = 0; root < count; root++) {
+			if (parents[root] != NONE) {
+				continue;
+			}
+			int size = 0;
+			stack[size++] = root;
+			while (size > 0) {
+				int division = stack[--size];
+				order[ordered++] = division;
+				for (int child = firstChildren[division]; child != NONE; child = nextSiblings[child]) {
+					stack[size++] = child;
+				}
+			}
+		}
+		for (int i = ordered - 1; i >= 0; i--) {
+			int division = order[i];
+			int parent = parents[division];
+			if (parent == NONE || fromWords[parent] || divisionStarts[division] == NONE) {
+				continue;
+			}
+			if (divisionStarts[parent] == NONE || divisionStarts[division] < divisionStarts[parent]) {
+				divisionStarts[parent] = divisionStarts[division];
+			}
+			if (divisionEnds[division] > divisionEnds[parent]) {
+				divisionEnds[parent] = divisionEnds[division];
+			}
+		}
+	}
+
+	/**
+	 * @param division The position of a division in the list passed to {@link #resolve(List)}
+	 * @return Whether the division has been resolved to a non-empty range of tokens
+	 */
+	public boolean isResolved(int division) {
+		return divisionStarts[division] != NONE && divisionStarts[division] < divisionEnds[division];
+	}
+
+	/**
+	 * @param division The position of a resolved division
+	 * @return The position of the first token of the division
+	 */
+	public int getStart(int division) {
+		return divisionStarts[division];
+	}
+
+	/**
+	 * @param division The position of a resolved division
+	 * @return The position after the last token of the division
+	 */
+	public int getEnd(int division) {
+		return divisionEnds[division];
+	}
+
+	/**
+	 * Returns the tokens of the fidalwords listing a Sid, for
+	 * divisions which couldn't be resolved to a range.
+	 *
+	 * @param sid The Sid, i.e., the `Id` of a division
+	 * @return A new list of the tokens, or `null` if the Sid is unknown
+	 */
+	public ArrayList<SToken> getTokens(String sid) {
+		return sidIndex.getTokens(sid);
+	}
+
+	private int findWord(String wordId) {
+		return find(wordIndices, wordId);
+	}
+
+	private static int find(Map<String, Integer> indices, String id) {
+		if (id == null) {
+			return NONE;
+		}
+		Integer index = indices.get(id);
+		return index == null ? NONE : index;
+	}
+
+}
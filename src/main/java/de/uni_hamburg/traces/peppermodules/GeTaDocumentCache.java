@@ -0,0 +1,405 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.core.SMetaAnnotation;
+import org.corpus_tools.salt.util.SaltUtil;
+import org.eclipse.emf.common.util.URI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of mapped documents for incremental imports.
+ * 
+ * For each document, the cache keeps a fingerprint, i.e., a
+ * content hash of the *EA.json file and its *TEA.ann, *DEA.ann,
+ * *NEA.ann and *MetaEA.ann siblings together with the mapping
+ * settings, and the mapped result: the document graph, saved
+ * with {@link SaltUtil#saveDocumentGraph(SDocumentGraph, URI)}, and
+ * the document's meta annotations. A document whose fingerprint
+ * is unchanged is restored from the cache instead of being mapped.
+ * 
+ * Fingerprints are kept in a manifest in the cache directory, which
+ * is a journal of `fingerprint TAB path` lines that is only ever
+ * appended to, the last line for a path being valid. The journal is
+ * compacted when the cache is opened. The mapped result is written
+ * before its manifest line, so that an interrupted import never
+ * leaves a fingerprint without a result.
+ * 
+ * Caches are thread-safe and can be shared by all mappers of an
+ * importer.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaDocumentCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaDocumentCache.class);
+
+	/** The name of the manifest file in the cache directory */
+	public static final String MANIFEST = "manifest.txt";
+
+	// Change when the mapping or the cached format changes, to invalidate existing caches
+	private static final int FORMAT_VERSION = 2;
+	private static final String GRAPH_SUFFIX = "." + SaltUtil.FILE_ENDING_SALT_XML;
+	private static final String META_SUFFIX = ".meta";
+	private static final char SEPARATOR = '\t';
+	// Type tags of cached meta annotation values
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte INTEGER = 3;
+	private static final byte LONG = 4;
+	private static final byte FLOAT = 5;
+	private static final byte DOUBLE = 6;
+	private static final byte BIG_INTEGER = 7;
+	private static final byte BIG_DECIMAL = 8;
+
+	private final File directory;
+	private final File manifestFile;
+	private final Map<String, String> manifest = new HashMap<>();
+
+	/**
+	 * Opens the cache in a directory, creating the directory if
+	 * necessary, and reads the manifest.
+	 *
+	 * @param directory The cache directory
+	 * @throws IOException if the directory cannot be created or the manifest cannot be read
+	 */
+	public GeTaDocumentCache(File directory) throws IOException {
+		this.directory = directory;
+		this.manifestFile = new File(directory, MANIFEST);
+		Files.createDirectories(directory.toPath());
+		int lines = readManifest();
+		if (lines > manifest.size()) {
+			compactManifest();
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of a document.
+	 *
+	 * @param inputs The input files of the document, in a fixed order
+	 * @param settings The mapping settings which affect the mapped result
+	 * @return The fingerprint as a hex string
+	 * @throws IOException if one of the files cannot be read
+	 */
+	public static String fingerprint(List<GeTaInput> inputs, String settings) throws IOException {
+		MessageDigest digest = createDigest("SHA-256");
+		digest.update(utf8(FORMAT_VERSION + "|" + settings));
+		for (GeTaInput input : inputs) {
+			digest.update(utf8("|" + input.getFile().getName() + "|" + input.exists() + "|" + input.length() + "|"));
+			input.digest(digest);
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Restores a document from the cache if its fingerprint is
+	 * unchanged, i.e., sets its document graph and creates its
+	 * meta annotations. Meta annotation values are restored with
+	 * the type they have been stored with.
+	 *
+	 * @param eaFile The *EA.json file of the document
+	 * @param fingerprint The current fingerprint of the document
+	 * @param document The document to restore
+	 * @return `true` if the document has been restored, `false` if it must be mapped
+	 */
+	public boolean restore(File eaFile, String fingerprint, SDocument document) {
+		String key = key(eaFile);
+		synchronized (this) {
+			if (!fingerprint.equals(manifest.get(key))) {
+				return false;
+			}
+		}
+		File graphFile = getGraphFile(key);
+		File metaFile = getMetaFile(key);
+		if (!graphFile.isFile() || !metaFile.isFile()) {
+			return false;
+		}
+		try {
+			List<Object[]> metaAnnotations = readMetaAnnotations(metaFile);
+			SDocumentGraph graph = SaltUtil.loadDocumentGraph(URI.createFileURI(graphFile.getAbsolutePath()));
+			document.setDocumentGraph(graph);
+			for (Object[] meta : metaAnnotations) {
+				document.createMetaAnnotation((String) meta[0], (String) meta[1], meta[2]);
+			}
+			return true;
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Could not restore {} from the cache, mapping it instead.", eaFile.getName(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * Stores a mapped document in the cache. Failures, including
+	 * meta annotation values of a type other than {@link String},
+	 * {@link Boolean} or a {@link Number} from `java.lang` or
+	 * `java.math`, are logged and leave the document uncached.
+	 *
+	 * @param eaFile The *EA.json file of the document
+	 * @param fingerprint The fingerprint the document has been mapped from
+	 * @param document The mapped document
+	 */
+	public void store(File eaFile, String fingerprint, SDocument document) {
+		String key = key(eaFile);
+		try {
+			// Encoded first, so that unsupported values leave the cached files untouched
+			byte[] metaAnnotations = encodeMetaAnnotations(document.getMetaAnnotations());
+			SaltUtil.saveDocumentGraph(document.getDocumentGraph(), URI.createFileURI(getGraphFile(key).getAbsolutePath()));
+			Files.write(getMetaFile(key).toPath(), metaAnnotations);
+			synchronized (this) {
+				try (Writer writer = new OutputStreamWriter(new FileOutputStream(manifestFile, true), StandardCharsets.UTF_8)) {
+					writer.write(fingerprint + SEPARATOR + key + "\n");
+				}
+				manifest.put(key, fingerprint);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Could not store {} in the cache.", eaFile.getName(), e);
+		}
+	}
+
+	/**
+	 * @param eaFile The *EA.json file of a document
+	 * @return the fingerprint of the document in the manifest, or `null`
+	 */
+	synchronized String getFingerprint(File eaFile) {
+		return manifest.get(key(eaFile));
+	}
+
+	/**
+	 * Reads the manifest journal.
+	 *
+	 * @return The number of lines read
+	 * @throws IOException if the manifest cannot be read
+	 */
+	private int readManifest() throws IOException {
+		if (!manifestFile.isFile()) {
+			return 0;
+		}
+		int lines = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(manifestFile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separator = line.indexOf(SEPARATOR);
+				if (separator > 0) {
+					manifest.put(line.substring(separator + 1), line.substring(0, separator));
+					lines++;
+				}
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Rewrites the manifest journal with one line per document.
+	 *
+	 * @throws IOException if the manifest cannot be written
+	 */
+	private void compactManifest() throws IOException {
+		File temp = new File(directory, MANIFEST + ".tmp");
+		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+			for (Map.Entry<String, String> entry : manifest.entrySet()) {
+				writer.write(entry.getValue() + SEPARATOR + entry.getKey() + "\n");
+			}
+		}
+		Files.move(temp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static List<Object[]> readMetaAnnotations(File metaFile) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(metaFile)))) {
+			int count = in.readInt();
+			List<Object[]> metaAnnotations = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				metaAnnotations.add(new Object[] { readString(in), readString(in), readValue(in) });
+			}
+			return metaAnnotations;
+		}
+	}
+
+	private static byte[] encodeMetaAnnotations(Set<SMetaAnnotation> metaAnnotations) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(metaAnnotations.size());
+			for (SMetaAnnotation meta : metaAnnotations) {
+				writeString(out, meta.getNamespace());
+				writeString(out, meta.getName());
+				writeValue(out, meta.getValue());
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(in);
+		case BOOLEAN:
+			return in.readBoolean();
+		case INTEGER:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case FLOAT:
+			return in.readFloat();
+		case DOUBLE:
+			return in.readDouble();
+		case BIG_INTEGER:
+			return new BigInteger(readString(in));
+		case BIG_DECIMAL:
+			return new BigDecimal(readString(in));
+		default:
+			throw new IOException("Unknown meta annotation value type " + type + ".");
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, (String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof BigInteger) {
+			out.writeByte(BIG_INTEGER);
+			writeString(out, value.toString());
+		}
+		else if (value instanceof BigDecimal) {
+			out.writeByte(BIG_DECIMAL);
+			writeString(out, value.toString());
+		}
+		else {
+			throw new IOException("Cannot cache meta annotation values of type " + value.getClass().getName() + ".");
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = utf8(value);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * @param eaFile The *EA.json file of a document
+	 * @return the key of the document in the manifest, i.e., its absolute path
+	 */
+	private static String key(File eaFile) {
+		return eaFile.getAbsolutePath();
+	}
+
+	private File getGraphFile(String key) {
+		return new File(directory, toHex(createDigest("SHA-1").digest(utf8(key))) + GRAPH_SUFFIX);
+	}
+
+	private File getMetaFile(String key) {
+		return new File(directory, toHex(createDigest("SHA-1").digest(utf8(key))) + META_SUFFIX);
+	}
+
+	private static MessageDigest createDigest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-1 and SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] utf8(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+
+/**
+ * A streaming parser for GeTa *EA.json files.
+ * 
+ * Instead of binding the complete file to a {@link GeTaEA}
+ * object tree, the parser reads the `FIDALWORDS` array one
+ * element at a time and passes each {@link GeTaFidalword} to a
+ * {@link FidalwordHandler}. Peak memory usage is thus bound by the
+ * largest fidalword rather than the whole document.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaEAStreamParser {
+
+	private final ObjectReader fidalwordReader;
+	private final TokenFilter filter;
+
+	/**
+	 * Callback receiving fidalwords as they are parsed.
+	 */
+	public interface FidalwordHandler {
+
+		/**
+		 * Handles a single fidalword. The fidalword is not
+		 * referenced by the parser after this method returns.
+		 *
+		 * @param fidalword The fidalword that has been parsed
+		 */
+		void handle(GeTaFidalword fidalword);
+
+	}
+
+	/**
+	 * Constructor setting the {@link ObjectReader} used to bind
+	 * the single fidalwords.
+	 * 
+	 * @param fidalwordReader The reader to bind fidalwords with, see {@link GeTaReaders#getFidalwordReader()}
+	 */
+	public GeTaEAStreamParser(ObjectReader fidalwordReader) {
+		this(fidalwordReader, null);
+	}
+
+	/**
+	 * Constructor setting the {@link ObjectReader} used to bind
+	 * the single fidalwords, and a filter removing subtrees from
+	 * the input before they are bound.
+	 * 
+	 * @param fidalwordReader The reader to bind fidalwords with, see {@link GeTaReaders#getFidalwordReader()}
+	 * @param filter The filter to apply to files and inputs, or `null`, see {@link GeTaLayerFilter}
+	 */
+	public GeTaEAStreamParser(ObjectReader fidalwordReader, TokenFilter filter) {
+		this.fidalwordReader = fidalwordReader;
+		this.filter = filter;
+	}
+
+	/**
+	 * Parses an *EA.json file, passing each fidalword to the handler
+	 * in document order.
+	 *
+	 * @param eaFile The file to parse
+	 * @param handler The handler to pass fidalwords to
+	 * @return A {@link GeTaEA} holding the document-level values (`TR`, `SCR`)
+	 * and an empty list of fidalwords
+	 * @throws IOException if the file cannot be read or is not a valid EA file
+	 */
+	public GeTaEA parse(File eaFile, FidalwordHandler handler) throws IOException {
+		try (JsonParser parser = GeTaLayerFilter.filter(fidalwordReader.getFactory().createParser(eaFile), filter)) {
+			return parse(parser, handler);
+		}
+	}
+
+	/**
+	 * Parses an *EA.json input, passing each fidalword
+	 * to the handler in document order.
+	 *
+	 * @param eaInput The input to parse
+	 * @param handler The handler to pass fidalwords to
+	 * @return A {@link GeTaEA} holding the document-level values (`TR`, `SCR`)
+	 * and an empty list of fidalwords
+	 * @throws IOException if the input cannot be read or is not a valid EA file
+	 */
+	public GeTaEA parse(GeTaInput eaInput, FidalwordHandler handler) throws IOException {
+		try (JsonParser parser = GeTaLayerFilter.filter(eaInput.createParser(fidalwordReader.getFactory()), filter)) {
+			return parse(parser, handler);
+		}
+	}
+
+	/**
+	 * Parses an EA JSON object from an existing parser, passing each
+	 * fidalword to the handler in document order. The parser is used
+	 * as is, i.e., the filter is not applied to it.
+	 *
+	 * @param parser The parser positioned before the EA object
+	 * @param handler The handler to pass fidalwords to
+	 * @return A {@link GeTaEA} holding the document-level values (`TR`, `SCR`)
+	 * and an empty list of fidalwords
+	 * @throws IOException if the input cannot be read or is not a valid EA object
+	 */
+	public GeTaEA parse(JsonParser parser, FidalwordHandler handler) throws IOException {
+		Integer tr = null;
+		Integer scr = null;
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected an EA object.");
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (GeTaMapper.FIDALWORDS.equals(name) && value == JsonToken.START_ARRAY) {
+				JsonToken element;
+				while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+					if (element == JsonToken.START_OBJECT) {
+						GeTaFidalword fidalword = fidalwordReader.readValue(parser);
+						handler.handle(fidalword);
+					}
+					// Null fidalwords are skipped, as in a bound GeTaEA
+					else if (element != JsonToken.VALUE_NULL) {
+						throw new JsonParseException(parser, "Expected a fidalword object, but found " + element + ".");
+					}
+				}
+			}
+			else if (GeTaMapper.TR.equals(name)) {
+				tr = readInteger(parser);
+			}
+			else if (GeTaMapper.SCR.equals(name)) {
+				scr = readInteger(parser);
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		return new GeTaEA(tr, scr, Collections.<GeTaFidalword> emptyList());
+	}
+
+	/**
+	 * Reads the current value as an {@link Integer}.
+	 *
+	 * @param parser The parser positioned on the value
+	 * @return The value, or `null` if the value is `null`
+	 * @throws IOException if the value cannot be read
+	 */
+	private static Integer readInteger(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		return parser.getValueAsInt();
+	}
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import org.jsoup.Jsoup;
+
+/**
+ * Strips the markup from FIDED values, i.e., returns the same
+ * text as `Jsoup.parse(fided).text()` without building a DOM.
+ * 
+ * GeTa only emits `<font ...>` and `</font>` tags in FIDED values,
+ * e.g., `በስመ<font color='black'>፡</font><font color='blue'></font>`.
+ * These are removed in a single pass, and whitespace is collapsed
+ * and trimmed the way Jsoup does it. Any other markup (other tags,
+ * comments, character references, control characters) is left to
+ * Jsoup as a fallback.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaFidedSanitizer {
+
+	private static final String FONT_START_TAG = "<font";
+	private static final String FONT_END_TAG = "</font>";
+	private static final char NO_BREAK_SPACE = '\u00A0';
+	private static final char ZERO_WIDTH_SPACE = '\u200B';
+	private static final char SOFT_HYPHEN = '\u00AD';
+
+	private GeTaFidedSanitizer() {
+		// Static utility class
+	}
+
+	/**
+	 * Returns the text of a FIDED value, i.e., the value without
+	 * markup and with whitespace normalized.
+	 *
+	 * @param fided The FIDED value
+	 * @return The text of the FIDED value
+	 */
+	public static String sanitize(String fided) {
+		String text = strip(fided);
+		return text != null ? text : Jsoup.parse(fided).text();
+	}
+
+	/**
+	 * Strips the GeTa FIDED markup from a value in a single pass.
+	 *
+	 * @param fided The FIDED value
+	 * @return The text of the value, or `null` if the value contains
+	 * markup which is not part of the GeTa FIDED vocabulary
+	 */
+	static String strip(String fided) {
+		if (fided == null) {
+			return null;
+		}
+		int length = fided.length();
+		StringBuilder text = new StringBuilder(length);
+		boolean lastWasWhitespace = false;
+		int i = 0;
+		while (i < length) {
+			char c = fided.charAt(i);
+			if (c == '<') {
+				i = skipFontTag(fided, i);
+				if (i < 0) {
+					return null;
+				}
+				continue;
+			}
+			if (isWhitespace(c)) {
+				if (!lastWasWhitespace) {
+					text.append(' ');
+					lastWasWhitespace = true;
+				}
+			}
+			else if (c == ZERO_WIDTH_SPACE || c == SOFT_HYPHEN) {
+				// Dropped by Jsoup as invisible
+			}
+			else if (c < ' ' || c == '&') {
+				// Control characters and character references are left to Jsoup
+				return null;
+			}
+			else {
+				text.append(c);
+				lastWasWhitespace = false;
+			}
+			i++;
+		}
+		return text.toString().trim();
+	}
+
+	/**
+	 * Skips a `<font ...>` or `</font>` tag.
+	 *
+	 * @param fided The FIDED value
+	 * @param start The index of the `<` starting the tag
+	 * @return The index after the tag, or `-1` if there is no font tag at start
+	 */
+	private static int skipFontTag(String fided, int start) {
+		int length = fided.length();
+		if (fided.regionMatches(true, start, FONT_END_TAG, 0, FONT_END_TAG.length())) {
+			return start + FONT_END_TAG.length();
+		}
+		int i = start + FONT_START_TAG.length();
+		if (i >= length || !fided.regionMatches(true, start, FONT_START_TAG, 0, FONT_START_TAG.length())) {
+			return -1;
+		}
+		char c = fided.charAt(i);
+		if (!isWhitespace(c) && c != '>' && c != '/') {
+			return -1;
+		}
+		// Attributes, i.e., names optionally followed by = and a (quoted) value
+		while (i < length) {
+			c = fided.charAt(i);
+			if (c == '>') {
+				return i + 1;
+			}
+			else if (c == '=') {
+				i++;
+				while (i < length && isWhitespace(fided.charAt(i))) {
+					i++;
+				}
+				if (i >= length) {
+					return -1;
+				}
+				char quote = fided.charAt(i);
+				if (quote == '\'' || quote == '"') {
+					int end = fided.indexOf(quote, i + 1);
+					if (end < 0) {
+						return -1;
+					}
+					i = end + 1;
+				}
+				continue;
+			}
+			else if (c == '\'' || c == '"' || c == '<' || c == '&' || c == '`') {
+				return -1;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param c The character to check
+	 * @return Whether Jsoup collapses the character as whitespace
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == NO_BREAK_SPACE;
+	}
+
+}
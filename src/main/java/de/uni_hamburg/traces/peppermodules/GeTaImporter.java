@@ -21,6 +21,15 @@ package de.uni_hamburg.traces.peppermodules;
 
 import java.io.File; 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.corpus_tools.pepper.impl.PepperImporterImpl;
 import org.corpus_tools.pepper.modules.PepperImporter;
 import org.corpus_tools.pepper.modules.PepperMapper;
@@ -30,7 +39,10 @@ import org.corpus_tools.salt.common.SCorpus;
 import org.corpus_tools.salt.common.SDocument;
 import org.corpus_tools.salt.graph.Identifier;
 import org.eclipse.emf.common.util.URI;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 
 /**
  * The main importer class which is responsible for setting up
@@ -42,6 +54,39 @@ import org.osgi.service.component.annotations.Component;
 @Component(name = "GeTaImporterComponent", factory = "PepperImporterComponentFactory")
 public class GeTaImporter extends PepperImporterImpl implements PepperImporter{
 	
+	/**
+	 * Idle time in seconds after which parser threads are released.
+	 */
+	private static final long PARSER_KEEP_ALIVE = 30;
+
+	/**
+	 * Bounded executor for parsing the files of a document
+	 * concurrently, shared between all mappers of this importer.
+	 */
+	private ExecutorService parseExecutor = null;
+
+	/**
+	 * Counter for naming the metrics MBeans of importer instances.
+	 */
+	private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+	/**
+	 * Metrics aggregated over all mappers of this importer.
+	 */
+	private GeTaImporterMetrics metrics = null;
+
+	/**
+	 * Cache of mapped documents shared by all mappers of this
+	 * importer in incremental mode.
+	 */
+	private GeTaDocumentCache documentCache = null;
+
+	/**
+	 * Indices of the files in the directories of the documents,
+	 * filled during corpus structure discovery.
+	 */
+	private final Map<Identifier, GeTaSiblingIndex> siblingIndices = new ConcurrentHashMap<>();
+
 	/**
 	 * No-args constructor setting some basic values.
 	 */
@@ -53,8 +98,41 @@ public class GeTaImporter extends PepperImporterImpl implements PepperImporter{
 		setDesc("An importer for the custom JSON-based format used by the GeTa research project (https://www.traces.uni-hamburg.de/).");
 		addSupportedFormat("traces-json", "1.0", null);
 		getDocumentEndings().add("json");
+		setProperties(new GeTaImporterProperties());
 	}
 	
+	/**
+	 * Overrides org.corpus_tools.pepper.impl.PepperModuleImpl#activate(org.osgi.service.component.ComponentContext)
+	 * to initialize the shared {@link GeTaReaders} when the component is activated,
+	 * so that no document pays for building the JSON deserializers.
+	 */
+	@Activate
+	@Override
+	protected void activate(ComponentContext componentContext) {
+		super.activate(componentContext);
+		GeTaReaders.warmUp();
+	}
+
+	/**
+	 * Overrides org.corpus_tools.pepper.impl.PepperModuleImpl#end()
+	 * to remove the metrics MBeans of this importer once all
+	 * documents have been imported.
+	 */
+	@Override
+	public void end() {
+		super.end();
+		releaseMetrics();
+	}
+
+	/**
+	 * Removes the metrics MBeans of this importer when the component
+	 * is deactivated without having ended its import.
+	 */
+	@Deactivate
+	protected void deactivate() {
+		releaseMetrics();
+	}
+
 	/* 
 	 * @copydoc @see org.corpus_tools.pepper.impl.PepperModuleImpl#createPepperMapper(org.corpus_tools.salt.graph.Identifier)
 	 */
@@ -62,88 +140,179 @@ public class GeTaImporter extends PepperImporterImpl implements PepperImporter{
 	public PepperMapper createPepperMapper(Identifier identifier) {
 		GeTaMapper mapper = new GeTaMapper();
 		mapper.setResourceURI(getIdentifier2ResourceTable().get(identifier));
+		mapper.setProperties(getProperties());
+		mapper.setParseExecutor(getParseExecutor());
+		mapper.setMetrics(getMetrics());
+		mapper.setDocumentCache(getDocumentCache());
+		mapper.setSiblingIndex(siblingIndices.get(identifier));
 		return (mapper);
 	}
 
+	/**
+	 * Returns the executor for parsing the files of a document
+	 * concurrently, creating it on first use. The executor is
+	 * bounded by the property {@link GeTaImporterProperties#PROP_PARSE_THREADS}
+	 * and uses daemon threads which are released when idle, so
+	 * that it never needs to be shut down explicitly.
+	 *
+	 * @return The executor, or `null` if files should be parsed one after another
+	 */
+	synchronized ExecutorService getParseExecutor() {
+		int threads = 1;
+		if (getProperties() instanceof GeTaImporterProperties) {
+			threads = ((GeTaImporterProperties) getProperties()).getParseThreads();
+		}
+		if (threads < 2) {
+			return null;
+		}
+		if (parseExecutor == null) {
+			final AtomicInteger count = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, PARSER_KEEP_ALIVE, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "GeTaImporter-parser-" + count.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			parseExecutor = executor;
+		}
+		return parseExecutor;
+	}
+
+	/**
+	 * Returns the metrics aggregated over all mappers of this
+	 * importer, creating them and publishing them as MBeans on
+	 * first use, see {@link GeTaImporterMetrics#register(String)}.
+	 *
+	 * @return The metrics of this importer
+	 */
+	synchronized GeTaImporterMetrics getMetrics() {
+		if (metrics == null) {
+			metrics = new GeTaImporterMetrics();
+			metrics.register(getName() + "-" + INSTANCES.incrementAndGet());
+		}
+		return metrics;
+	}
+
+	/**
+	 * Unregisters the metrics of this importer from the platform
+	 * MBean server, see {@link GeTaImporterMetrics#unregister()}.
+	 * Later imports create and register new metrics.
+	 */
+	synchronized void releaseMetrics() {
+		if (metrics != null) {
+			metrics.unregister();
+			metrics = null;
+		}
+	}
+
+	/**
+	 * Returns the cache of mapped documents for incremental imports,
+	 * opening it on first use in the directory set by the property
+	 * {@link GeTaImporterProperties#PROP_CACHE_DIR}.
+	 *
+	 * @return The cache, or `null` if imports are not incremental
+	 */
+	synchronized GeTaDocumentCache getDocumentCache() {
+		String cacheDir = null;
+		if (getProperties() instanceof GeTaImporterProperties) {
+			cacheDir = ((GeTaImporterProperties) getProperties()).getCacheDir();
+		}
+		if (cacheDir == null || cacheDir.trim().isEmpty()) {
+			return null;
+		}
+		if (documentCache == null) {
+			try {
+				documentCache = new GeTaDocumentCache(new File(cacheDir.trim()));
+			}
+			catch (IOException e) {
+				throw new PepperModuleException("Cannot open the document cache in " + cacheDir + "!", e);
+			}
+		}
+		return documentCache;
+	}
+
 	/* 
 	 * @copydoc @see org.corpus_tools.pepper.impl.PepperImporterImpl#importCorpusStructureRec(org.eclipse.emf.common.util.URI, org.corpus_tools.salt.common.SCorpus)
 	 */
 	/**
 	 * Overrides org.corpus_tools.pepper.impl.PepperImporterImpl#importCorpusStructureRec(org.eclipse.emf.common.util.URI, org.corpus_tools.salt.common.SCorpus)
 	 * to add specific files to ignore, i.e., all GeTa annotation files
-	 * that aren't the base annotation file. 
+	 * that aren't the base annotation file.
+	 * 
+	 * The directory tree is scanned in parallel by a {@link GeTaCorpusScanner},
+	 * bounded by the property {@link GeTaImporterProperties#PROP_SCAN_THREADS},
+	 * before the corpora and documents are created in listing order.
+	 * Resources are typed with {@link #setTypeOfResource(URI)}.
 	 */
 	@Override
 	protected Boolean importCorpusStructureRec(URI currURI, SCorpus parent) {
-		Boolean retVal = false;
-
 		// set name for corpus graph
 		if ((this.getCorpusGraph().getName() == null) || (this.getCorpusGraph().getName().isEmpty())) {
 			this.getCorpusGraph().setName(currURI.lastSegment());
 		}
+		int threads = 1;
+		if (getProperties() instanceof GeTaImporterProperties) {
+			threads = ((GeTaImporterProperties) getProperties()).getScanThreads();
+		}
+		GeTaCorpusScanner.ResourceClassifier classifier = new GeTaCorpusScanner.ResourceClassifier() {
+			@Override
+			public SALT_TYPE classify(URI uri) {
+				return setTypeOfResource(uri);
+			}
+		};
+		GeTaCorpusScanner.Entry entry = new GeTaCorpusScanner(classifier, getIgnoreEndings(), threads).scan(currURI);
+		return entry != null && importCorpusStructure(entry, parent);
+	}
 
-		boolean ignoreAnnotationFile = currURI.toString().endsWith("TEA.json")
-				|| currURI.toString().endsWith("DEA.json")
-				|| currURI.toString().endsWith("NEA.json")
-				|| currURI.toString().endsWith("QEA.json")
-				|| currURI.toString().endsWith("MetaEA.json");
-		
-		if ((currURI.lastSegment() != null) && (!this.getIgnoreEndings().contains(currURI.lastSegment())) && !ignoreAnnotationFile) {// if
-			SALT_TYPE type = this.setTypeOfResource(currURI);
-			if (type != null) {
-				// do not ignore resource create new id
-				File currFile = new File(currURI.toFileString());
-
-				if (SALT_TYPE.SCORPUS.equals(type)) {
-					// resource is a SCorpus create corpus
-					SCorpus sCorpus = getCorpusGraph().createCorpus(parent, currURI.lastSegment());
-					this.getIdentifier2ResourceTable().put(sCorpus.getIdentifier(), currURI);
-					if (currFile.isDirectory()) {
-						File[] files = currFile.listFiles();
-						if (files != null) {
-							for (File file : files) {
-								try {
-									// if retval is true or returned value is
-									// true
-									// set retVal to true
-									Boolean containsDocuments = importCorpusStructureRec(
-											URI.createFileURI(file.getCanonicalPath()), sCorpus);
-									retVal = (retVal || containsDocuments);
-								} catch (IOException e) {
-									throw new PepperModuleException(
-											"Cannot import corpus structure, because cannot create a URI out of file '"
-													+ file + "'. ",
-											e);
-								}
-							}
-						}
-					}
-				} // resource is a SCorpus
-				else if (SALT_TYPE.SDOCUMENT.equals(type)) {
-					retVal = true;
-					// resource is a SDocument
-					if (parent == null) {
-						// if there is no corpus given, create one with name of
-						// document
-						parent = getCorpusGraph().createCorpus(null,
-								currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
-
-						this.getIdentifier2ResourceTable().put(parent.getIdentifier(), currURI);
-					}
-					File docFile = new File(currURI.toFileString());
-					SDocument sDocument = null;
-					if (docFile.isDirectory()) {
-						sDocument = getCorpusGraph().createDocument(parent, currURI.lastSegment());
-					} else {
-						// if uri is a file, cut off file ending
-						sDocument = getCorpusGraph().createDocument(parent,
-								currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
-					}
-					// link documentId with resource
-					this.getIdentifier2ResourceTable().put(sDocument.getIdentifier(), currURI);
-				} // resource is a SDocument
-			} // do not ignore resource
-		} // if file is not part of ignore list
+	/**
+	 * Creates the corpus or document for a scanned entry and,
+	 * for corpora, for all entries below it.
+	 *
+	 * @param entry The scanned entry
+	 * @param parent The parent corpus, or `null`
+	 * @return whether the entry is or contains a document
+	 */
+	private boolean importCorpusStructure(GeTaCorpusScanner.Entry entry, SCorpus parent) {
+		URI currURI = entry.getURI();
+		boolean retVal = false;
+		if (SALT_TYPE.SCORPUS.equals(entry.getType())) {
+			// resource is a SCorpus create corpus
+			SCorpus sCorpus = getCorpusGraph().createCorpus(parent, currURI.lastSegment());
+			this.getIdentifier2ResourceTable().put(sCorpus.getIdentifier(), currURI);
+			for (GeTaCorpusScanner.Entry child : entry.getChildren()) {
+				boolean containsDocuments = importCorpusStructure(child, sCorpus);
+				retVal = (retVal || containsDocuments);
+			}
+		} // resource is a SCorpus
+		else {
+			retVal = true;
+			// resource is a SDocument
+			if (parent == null) {
+				// if there is no corpus given, create one with name of
+				// document
+				parent = getCorpusGraph().createCorpus(null,
+						currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
+
+				this.getIdentifier2ResourceTable().put(parent.getIdentifier(), currURI);
+			}
+			SDocument sDocument = null;
+			if (new File(currURI.toFileString()).isDirectory()) {
+				sDocument = getCorpusGraph().createDocument(parent, currURI.lastSegment());
+			} else {
+				// if uri is a file, cut off file ending
+				sDocument = getCorpusGraph().createDocument(parent,
+						currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
+			}
+			// link documentId with resource
+			this.getIdentifier2ResourceTable().put(sDocument.getIdentifier(), currURI);
+			if (entry.getSiblingIndex() != null) {
+				siblingIndices.put(sDocument.getIdentifier(), entry.getSiblingIndex());
+			}
+		} // resource is a SDocument
 		return (retVal);
 	}
 
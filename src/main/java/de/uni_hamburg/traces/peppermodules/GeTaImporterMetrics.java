@@ -0,0 +1,291 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics of a {@link GeTaImporter}, aggregated over all documents
+ * mapped by its mappers: per-stage latencies (see {@link GeTaStageMetrics}),
+ * counts of created tokens, spans and annotations, and bytes read.
+ * 
+ * The metrics can be published as MBeans on the platform
+ * {@link MBeanServer} via {@link #register(String)}, so that long
+ * imports can be watched live, e.g., with JConsole. The importer
+ * metrics are registered as
+ * `de.uni_hamburg.traces.peppermodules:type=GeTaImporter,name=<name>`,
+ * the stage metrics with an additional key `stage=<stage>`.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaImporterMetrics implements GeTaImporterMetricsMBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaImporterMetrics.class);
+
+	/** The JMX domain of all GeTa MBeans */
+	public static final String DOMAIN = "de.uni_hamburg.traces.peppermodules";
+
+	/**
+	 * The stages of mapping a document.
+	 */
+	public enum Stage {
+		/** Parsing the JSON files, excluding streamed fidalwords */
+		PARSE,
+		/** Mapping the fidalwords, including parsing them in streaming mode */
+		FIDALWORDS,
+		/** Linking the TEA annotations */
+		TEA,
+		/** Linking the DEA annotations */
+		DEA,
+		/** Linking the NEA annotations */
+		NEA,
+		/** Mapping the complete document */
+		DOCUMENT;
+
+		/**
+		 * @return the name of the stage used in MBean names
+		 */
+		public String getKey() {
+			return name().toLowerCase(Locale.ENGLISH);
+		}
+	}
+
+	private final GeTaStageMetrics[] stages = new GeTaStageMetrics[Stage.values().length];
+	private final AtomicLong documents = new AtomicLong();
+	private final AtomicLong failedDocuments = new AtomicLong();
+	private final AtomicLong restoredDocuments = new AtomicLong();
+	private final AtomicLong tokens = new AtomicLong();
+	private final AtomicLong spans = new AtomicLong();
+	private final AtomicLong annotations = new AtomicLong();
+	private final AtomicLong bytesRead = new AtomicLong();
+	private final AtomicLong unresolvedReferences = new AtomicLong();
+	private final long created = System.nanoTime();
+	private final List<ObjectName> registered = new ArrayList<>();
+
+	/**
+	 * Constructor creating empty metrics for all stages.
+	 */
+	public GeTaImporterMetrics() {
+		for (int i = 0; i < stages.length; i++) {
+			stages[i] = new GeTaStageMetrics();
+		}
+	}
+
+	/**
+	 * @param stage The stage
+	 * @return the metrics of the stage
+	 */
+	public GeTaStageMetrics getStage(Stage stage) {
+		return stages[stage.ordinal()];
+	}
+
+	/**
+	 * Records a single run of a stage.
+	 *
+	 * @param stage The stage
+	 * @param nanos The run time of the stage in nanoseconds
+	 */
+	public void record(Stage stage, long nanos) {
+		stages[stage.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Records the output of a completely mapped document.
+	 *
+	 * @param tokenCount The number of tokens created for the document
+	 * @param spanCount The number of spans created for the document
+	 * @param annotationCount The number of span annotations created for the document
+	 */
+	public void recordDocument(long tokenCount, long spanCount, long annotationCount) {
+		documents.incrementAndGet();
+		tokens.addAndGet(tokenCount);
+		spans.addAndGet(spanCount);
+		annotations.addAndGet(annotationCount);
+	}
+
+	/**
+	 * Records a document which failed to map.
+	 */
+	public void recordFailure() {
+		failedDocuments.incrementAndGet();
+	}
+
+	/**
+	 * Records a document which has been restored from the
+	 * document cache rather than mapped.
+	 */
+	public void recordRestoredDocument() {
+		restoredDocuments.incrementAndGet();
+	}
+
+	/**
+	 * Records bytes read from an input file.
+	 *
+	 * @param bytes The number of bytes read
+	 */
+	public void recordBytesRead(long bytes) {
+		bytesRead.addAndGet(bytes);
+	}
+
+	/**
+	 * Records references in an annotation file which couldn't be
+	 * resolved and have been skipped.
+	 *
+	 * @param count The number of unresolved references
+	 */
+	public void recordUnresolvedReferences(long count) {
+		unresolvedReferences.addAndGet(count);
+	}
+
+	/**
+	 * Registers the importer and stage metrics with the platform
+	 * {@link MBeanServer}. Failures are logged, the metrics are
+	 * still collected in this case.
+	 *
+	 * @param name The name of the importer instance, unique within the JVM
+	 */
+	public synchronized void register(String name) {
+		if (!registered.isEmpty()) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		String base = DOMAIN + ":type=GeTaImporter,name=" + ObjectName.quote(name);
+		try {
+			ObjectName objectName = new ObjectName(base);
+			server.registerMBean(this, objectName);
+			registered.add(objectName);
+			for (Stage stage : Stage.values()) {
+				ObjectName stageName = new ObjectName(base + ",stage=" + stage.getKey());
+				server.registerMBean(getStage(stage), stageName);
+				registered.add(stageName);
+			}
+		}
+		catch (JMException | SecurityException e) {
+			logger.warn("Could not register the metrics MBeans for importer {}.", name, e);
+		}
+	}
+
+	/**
+	 * Removes all MBeans registered via {@link #register(String)}
+	 * from the platform {@link MBeanServer}.
+	 */
+	public synchronized void unregister() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName objectName : registered) {
+			try {
+				server.unregisterMBean(objectName);
+			}
+			catch (JMException | SecurityException e) {
+				logger.warn("Could not unregister the metrics MBean {}.", objectName, e);
+			}
+		}
+		registered.clear();
+	}
+
+	/**
+	 * @return the names of the currently registered MBeans
+	 */
+	synchronized List<ObjectName> getRegisteredNames() {
+		return new ArrayList<>(registered);
+	}
+
+	/**
+	 * @param count A count
+	 * @return the count per second since the metrics were created
+	 */
+	private double perSecond(long count) {
+		double seconds = (System.nanoTime() - created) / (double) TimeUnit.SECONDS.toNanos(1);
+		return seconds <= 0 ? 0 : count / seconds;
+	}
+
+	@Override
+	public long getDocumentCount() {
+		return documents.get();
+	}
+
+	@Override
+	public long getFailedDocumentCount() {
+		return failedDocuments.get();
+	}
+
+	@Override
+	public long getRestoredDocumentCount() {
+		return restoredDocuments.get();
+	}
+
+	@Override
+	public long getTokenCount() {
+		return tokens.get();
+	}
+
+	@Override
+	public long getSpanCount() {
+		return spans.get();
+	}
+
+	@Override
+	public long getAnnotationCount() {
+		return annotations.get();
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.get();
+	}
+
+	@Override
+	public long getUnresolvedReferenceCount() {
+		return unresolvedReferences.get();
+	}
+
+	@Override
+	public double getTokensPerSecond() {
+		return perSecond(tokens.get());
+	}
+
+	@Override
+	public double getSpansPerSecond() {
+		return perSecond(spans.get());
+	}
+
+	@Override
+	public double getAnnotationsPerSecond() {
+		return perSecond(annotations.get());
+	}
+
+	@Override
+	public double getBytesReadPerSecond() {
+		return perSecond(bytesRead.get());
+	}
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+/**
+ * Management interface of {@link GeTaImporterMetrics}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public interface GeTaImporterMetricsMBean {
+
+	/**
+	 * @return the number of documents which have been mapped completely
+	 */
+	long getDocumentCount();
+
+	/**
+	 * @return the number of documents which failed to map
+	 */
+	long getFailedDocumentCount();
+
+	/**
+	 * @return the number of documents which have been restored from the document cache
+	 */
+	long getRestoredDocumentCount();
+
+	/**
+	 * @return the number of tokens created
+	 */
+	long getTokenCount();
+
+	/**
+	 * @return the number of spans created
+	 */
+	long getSpanCount();
+
+	/**
+	 * @return the number of span annotations created
+	 */
+	long getAnnotationCount();
+
+	/**
+	 * @return the number of bytes read from input files
+	 */
+	long getBytesRead();
+
+	/**
+	 * @return the number of references in annotation files which couldn't be resolved and have been skipped
+	 */
+	long getUnresolvedReferenceCount();
+
+	/**
+	 * @return the number of tokens created per second since the metrics were created
+	 */
+	double getTokensPerSecond();
+
+	/**
+	 * @return the number of spans created per second since the metrics were created
+	 */
+	double getSpansPerSecond();
+
+	/**
+	 * @return the number of span annotations created per second since the metrics were created
+	 */
+	double getAnnotationsPerSecond();
+
+	/**
+	 * @return the number of bytes read per second since the metrics were created
+	 */
+	double getBytesReadPerSecond();
+
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import org.corpus_tools.pepper.modules.PepperModuleProperties;
+import org.corpus_tools.pepper.modules.PepperModuleProperty;
+
+/**
+ * Properties for the {@link GeTaImporter}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaImporterProperties extends PepperModuleProperties {
+
+	/** Prefix for all GeTa property names */
+	public static final String PREFIX = "geta.";
+
+	/** Whether to stream the fidalwords of the main file */
+	public static final String PROP_STREAM_EA = PREFIX + "streamEA";
+
+	/** The number of threads for parsing the files of a document */
+	public static final String PROP_PARSE_THREADS = PREFIX + "parseThreads";
+
+	/** Whether to create spans for FC objects */
+	public static final String PROP_MAP_FC = PREFIX + "mapFC";
+
+	/** Whether to create spans for the LT objects of Ed objects */
+	public static final String PROP_MAP_ED = PREFIX + "mapEd";
+
+	/** Whether to create TR spans for fidalwords */
+	public static final String PROP_MAP_TR = PREFIX + "mapTR";
+
+	/** Whether to annotate fidalwords with the unsanitized FIDED value */
+	public static final String PROP_MAP_FIDEDH = PREFIX + "mapFIDEDh";
+
+	/** Whether to pre-size the mapping structures from a counting pass over the main file */
+	public static final String PROP_PRE_SCAN = PREFIX + "preScan";
+
+	/** The directory for caching mapped documents in incremental mode */
+	public static final String PROP_CACHE_DIR = PREFIX + "cacheDir";
+
+	/** Whether to keep binary snapshots of the parsed models next to the source files */
+	public static final String PROP_MODEL_SNAPSHOT = PREFIX + "modelSnapshot";
+
+	/** The number of threads used for discovering the corpus structure */
+	public static final String PROP_SCAN_THREADS = PREFIX + "scanThreads";
+
+	/** How to merge annotations whose qualified name already exists on a span */
+	public static final String PROP_DUPLICATE_ANNOTATIONS = PREFIX + "duplicateAnnotations";
+
+	/**
+	 * Constructor adding all properties with their default values.
+	 */
+	public GeTaImporterProperties() {
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_STREAM_EA, Boolean.class,
+				"Whether to parse the *EA.json file in streaming mode, i.e., map each fidalword as soon as it has been read instead of building the complete fidalword object tree first. Reduces peak memory usage for large documents.",
+				false, false));
+		this.addProperty(new PepperModuleProperty<Integer>(PROP_PARSE_THREADS, Integer.class,
+				"The number of threads used for parsing the *EA.json, *TEA.ann, *DEA.ann, *NEA.ann and *MetaEA.ann files of a document concurrently. The threads are shared between all documents of an import. Values < 2 parse the files one after another.",
+				1, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_MAP_FC, Boolean.class,
+				"Whether to create a span with the FC-level annotations (FIDLET, FIDLETED, TRFID, pLB, pPB) for each FC object. If false, these values are skipped when parsing the *EA.json file.",
+				true, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_MAP_ED, Boolean.class,
+				"Whether to create a span for each LT object of an FC's Ed object. If false, Ed objects are skipped when parsing the *EA.json file.",
+				true, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_MAP_TR, Boolean.class,
+				"Whether to create a separate span with the TR annotation for each fidalword. If false, fidalword TR values are skipped when parsing the *EA.json file.",
+				true, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_MAP_FIDEDH, Boolean.class,
+				"Whether to annotate each fidalword span with the unsanitized FIDED value (FIDEDh) in addition to the sanitized FIDED value.",
+				true, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_PRE_SCAN, Boolean.class,
+				"Whether to run a fast counting pass over the *EA.json file before mapping it, which counts fidalwords, LL objects, Tids and Sids in order to pre-size the token list, linking indices and primary text. Avoids repeated resizing for large documents at the cost of tokenizing the file twice.",
+				false, false));
+		this.addProperty(new PepperModuleProperty<String>(PROP_CACHE_DIR, String.class,
+				"A directory in which mapped documents are cached for incremental imports. If set, documents whose *EA.json, *TEA.ann, *DEA.ann, *NEA.ann and *MetaEA.ann files and mapping properties are unchanged since they were last mapped are restored from the cache instead of being mapped again.",
+				null, false));
+		this.addProperty(new PepperModuleProperty<Boolean>(PROP_MODEL_SNAPSHOT, Boolean.class,
+				"Whether to write a compact binary snapshot of the parsed *EA.json, *TEA.ann, *DEA.ann, *NEA.ann and *MetaEA.ann files next to them, and to load the parsed files from the snapshot instead of parsing them again in later imports, as long as their timestamps and contents are unchanged.",
+				false, false));
+		this.addProperty(new PepperModuleProperty<Integer>(PROP_SCAN_THREADS, Integer.class,
+				"The number of threads used for scanning the directories of the corpus when discovering its structure. Values < 2 scan the directories one after another.",
+				4, false));
+		this.addProperty(new PepperModuleProperty<String>(PROP_DUPLICATE_ANNOTATIONS, String.class,
+				"How to handle an annotation whose qualified name already exists on a span, e.g., the NET annotation of a fidalword which is part of several named entities, or the NT and AL annotations of a TEA object with several LT objects. 'skip' keeps the existing value, 'concatenate' appends new values separated by '; ', and 'count' keeps the existing value and records the number of values in an annotation suffixed with '_count'.",
+				"skip", false));
+	}
+
+	/**
+	 * @return whether to stream the fidalwords of the main file
+	 */
+	public Boolean isStreamEA() {
+		return (Boolean) this.getProperty(PROP_STREAM_EA).getValue();
+	}
+
+	/**
+	 * @return the number of threads for parsing the files of a document
+	 */
+	public Integer getParseThreads() {
+		return (Integer) this.getProperty(PROP_PARSE_THREADS).getValue();
+	}
+
+	/**
+	 * @return whether to create spans for FC objects
+	 */
+	public Boolean isMapFC() {
+		return (Boolean) this.getProperty(PROP_MAP_FC).getValue();
+	}
+
+	/**
+	 * @return whether to create spans for the LT objects of Ed objects
+	 */
+	public Boolean isMapEd() {
+		return (Boolean) this.getProperty(PROP_MAP_ED).getValue();
+	}
+
+	/**
+	 * @return whether to create TR spans for fidalwords
+	 */
+	public Boolean isMapTR() {
+		return (Boolean) this.getProperty(PROP_MAP_TR).getValue();
+	}
+
+	/**
+	 * @return whether to annotate fidalwords with the unsanitized FIDED value
+	 */
+	public Boolean isMapFIDEDh() {
+		return (Boolean) this.getProperty(PROP_MAP_FIDEDH).getValue();
+	}
+
+	/**
+	 * @return whether to pre-size the mapping structures from a counting pass over the main file
+	 */
+	public Boolean isPreScan() {
+		return (Boolean) this.getProperty(PROP_PRE_SCAN).getValue();
+	}
+
+	/**
+	 * @return the directory for caching mapped documents, or `null` if imports are not incremental
+	 */
+	public String getCacheDir() {
+		return (String) this.getProperty(PROP_CACHE_DIR).getValue();
+	}
+
+	/**
+	 * @return whether to keep binary snapshots of the parsed models
+	 */
+	public Boolean isModelSnapshot() {
+		return (Boolean) this.getProperty(PROP_MODEL_SNAPSHOT).getValue();
+	}
+
+	/**
+	 * @return the number of threads for discovering the corpus structure
+	 */
+	public Integer getScanThreads() {
+		return (Integer) this.getProperty(PROP_SCAN_THREADS).getValue();
+	}
+
+	/**
+	 * @return the policy for merging duplicate annotations
+	 */
+	public GeTaAnnotationWriter.MergePolicy getDuplicateAnnotations() {
+		return GeTaAnnotationWriter.MergePolicy.forName((String) this.getProperty(PROP_DUPLICATE_ANNOTATIONS).getValue());
+	}
+
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * An input file of a GeTa document, read into memory once on
+ * first use.
+ * 
+ * The same contents are used to check whether the file has
+ * content, to hash it and to parse it, so that each file is read
+ * only once. Jackson parses directly from the byte array, without
+ * an additional stream or buffer copy. The contents are kept until
+ * {@link #release()} is called, e.g., after the document's files
+ * have been parsed.
+ * 
+ * Files which are too large for a byte array, and streaming inputs,
+ * i.e., *EA.json files which are parsed in streaming mode, fall back
+ * to plain stream I/O and are never held in memory as a whole.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaInput {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaInput.class);
+
+	// The largest array size which is safe to allocate on all VMs
+	private static final long MAX_CONTENTS_SIZE = Integer.MAX_VALUE - 8;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final File file;
+	private final long size;
+	private volatile boolean exists;
+	private boolean streaming;
+	// The contents of the file once read, or null
+	private byte[] contents;
+
+	private GeTaInput(File file, boolean exists, long size) {
+		this.file = file;
+		this.exists = exists;
+		this.size = size;
+	}
+
+	/**
+	 * Creates the input for a file. Never fails: if the file doesn't
+	 * exist the returned input reports so via {@link #exists()}. The
+	 * file isn't read until its contents are needed.
+	 *
+	 * @param file The file
+	 * @return The input for the file
+	 */
+	public static GeTaInput open(File file) {
+		if (!file.isFile()) {
+			return absent(file);
+		}
+		return open(file, -1);
+	}
+
+	/**
+	 * Creates the input for a file which is known to exist, e.g., from
+	 * a directory listing, without checking for it first. Files which
+	 * are known to be empty are never opened.
+	 *
+	 * @param file The file
+	 * @param size The known size of the file, or -1 if it is unknown
+	 * @return The input for the file, which reports the file as missing once it turns out to have been deleted
+	 */
+	public static GeTaInput open(File file, long size) {
+		GeTaInput input = new GeTaInput(file, true, size);
+		if (size == 0) {
+			input.contents = EMPTY;
+		}
+		return input;
+	}
+
+	/**
+	 * @param file A file which is known not to exist
+	 * @return The input for the missing file
+	 */
+	public static GeTaInput absent(File file) {
+		return new GeTaInput(file, false, -1);
+	}
+
+	/**
+	 * @return the file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return whether the file exists
+	 */
+	public boolean exists() {
+		return exists;
+	}
+
+	/**
+	 * @return whether the contents of the file are held in memory
+	 */
+	public synchronized boolean isLoaded() {
+		return contents != null;
+	}
+
+	/**
+	 * Drops the contents of the file held in memory. Later reads
+	 * read the file again.
+	 */
+	public synchronized void release() {
+		if (contents != EMPTY) {
+			contents = null;
+		}
+	}
+
+	/**
+	 * Sets whether the file is only ever read as a stream, so that
+	 * hashing and parsing it never hold its contents in memory.
+	 * Contents which are already held in memory are released.
+	 *
+	 * @param streaming Whether the file is read as a stream
+	 */
+	public synchronized void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+		if (streaming) {
+			release();
+		}
+	}
+
+	/**
+	 * Returns the contents of the file, reading them on first use.
+	 *
+	 * @return The contents, or `null` if the file doesn't exist, is too large for an array or is streaming
+	 * @throws IOException if the file cannot be read
+	 */
+	private synchronized byte[] getContents() throws IOException {
+		if (contents != null || !exists || streaming) {
+			return contents;
+		}
+		if ((size < 0 ? file.length() : size) > MAX_CONTENTS_SIZE) {
+			logger.debug("{} is too large to be read into memory, falling back to stream I/O.", file.getName());
+			return null;
+		}
+		try {
+			contents = Files.readAllBytes(file.toPath());
+		}
+		catch (NoSuchFileException e) {
+			exists = false;
+		}
+		return contents;
+	}
+
+	/**
+	 * Returns the first byte of the file. Reads the contents of the
+	 * file unless it is streaming, which are then parsed or hashed
+	 * without reading the file again.
+	 *
+	 * @return The first byte of the file, or `-1` if the file is empty or doesn't exist
+	 * @throws IOException if the file cannot be read
+	 */
+	public int getFirstByte() throws IOException {
+		byte[] bytes = getContents();
+		if (!exists) {
+			return -1;
+		}
+		if (bytes != null) {
+			return bytes.length == 0 ? -1 : bytes[0] & 0xff;
+		}
+		try (InputStream stream = new FileInputStream(file)) {
+			return stream.read();
+		}
+		catch (FileNotFoundException e) {
+			exists = false;
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the length of the file in bytes, or 0 if it doesn't exist
+	 */
+	public long length() {
+		if (!exists) {
+			return 0;
+		}
+		return size < 0 ? file.length() : size;
+	}
+
+	/**
+	 * Updates a digest with the contents of the file.
+	 *
+	 * @param digest The digest to update
+	 * @throws IOException if the file cannot be read
+	 */
+	public void digest(MessageDigest digest) throws IOException {
+		byte[] bytes = getContents();
+		if (bytes != null) {
+			digest.update(bytes);
+			return;
+		}
+		if (!exists) {
+			return;
+		}
+		byte[] buffer = new byte[8192];
+		try (InputStream stream = new FileInputStream(file)) {
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+	}
+
+	/**
+	 * Binds the contents of the file with the given reader.
+	 *
+	 * @param reader The reader to bind the contents with
+	 * @return The bound object
+	 * @throws IOException if the file cannot be read or bound
+	 */
+	public <T> T read(ObjectReader reader) throws IOException {
+		byte[] bytes = getContents();
+		if (bytes != null) {
+			return reader.readValue(bytes);
+		}
+		try (InputStream stream = new FileInputStream(file)) {
+			return reader.readValue(stream);
+		}
+	}
+
+	/**
+	 * Creates a streaming parser over the contents of the file.
+	 *
+	 * @param factory The factory to create the parser with
+	 * @return The parser, owning the underlying stream if any
+	 * @throws IOException if the file cannot be opened
+	 */
+	public JsonParser createParser(JsonFactory factory) throws IOException {
+		byte[] bytes = getContents();
+		if (bytes != null) {
+			return factory.createParser(bytes);
+		}
+		return factory.createParser(new FileInputStream(file));
+	}
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A corpus-wide interner for canonical instances of immutable
+ * model beans, keyed by the values the beans are created from.
+ * 
+ * Lookups don't lock: each lookup fills a small {@link Key} via
+ * {@link #newKey()}, which a miss adds to the map as is. Keys are
+ * not kept per thread, so that pooled threads never hold on to
+ * the interner's classes after an import. The interner is bounded
+ * via {@link GeTaUtil#putIfAbsent(ConcurrentMap, int, Object, Object)}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ * @param <V> The type of the canonical instances
+ */
+public final class GeTaInterner<V> {
+
+	private final ConcurrentMap<Key, V> canonical = new ConcurrentHashMap<>();
+	private final int arity;
+	private final int capacity;
+
+	/**
+	 * Constructor setting the number of values per key and the
+	 * maximum number of canonical instances.
+	 *
+	 * @param arity The number of values each key consists of
+	 * @param capacity The maximum number of canonical instances
+	 */
+	public GeTaInterner(int arity, int capacity) {
+		this.arity = arity;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @return a new key for a single lookup, to be filled via {@link Key#set(int, Object)}
+	 */
+	public Key newKey() {
+		return new Key(new Object[arity]);
+	}
+
+	/**
+	 * Returns the canonical instance for the values of a key.
+	 *
+	 * @param key The filled key
+	 * @return The canonical instance, or `null` if there is none yet
+	 */
+	public V get(Key key) {
+		key.rehash();
+		return canonical.get(key);
+	}
+
+	/**
+	 * Adds an instance for the values of a key unless another
+	 * thread has added one in the meantime. The key must not be
+	 * changed afterwards.
+	 *
+	 * @param key The key passed to {@link #get(Key)} before
+	 * @param value The new instance
+	 * @return The canonical instance
+	 */
+	public V intern(Key key, V value) {
+		return GeTaUtil.putIfAbsent(canonical, capacity, key, value);
+	}
+
+	/**
+	 * @return the number of canonical instances
+	 */
+	public int size() {
+		return canonical.size();
+	}
+
+	/**
+	 * A key consisting of a fixed number of values.
+	 */
+	public static final class Key {
+
+		private final Object[] values;
+		private int hash;
+
+		private Key(Object[] values) {
+			this.values = values;
+		}
+
+		/**
+		 * Sets a value of this key.
+		 *
+		 * @param index The index of the value
+		 * @param value The value
+		 * @return this key
+		 */
+		public Key set(int index, Object value) {
+			values[index] = value;
+			return this;
+		}
+
+		private void rehash() {
+			hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(values, other.values);
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+/**
+ * A {@link TokenFilter} for *EA.json files, which removes the
+ * JSON subtrees of span layers that have been switched off
+ * from the token stream, so that they are skipped by the parser
+ * rather than bound and discarded.
+ * 
+ * The filter follows the structure of the EA object: the
+ * document-level values are passed through, as are all values
+ * of a fidalword and its FC objects except for
+ * 
+ * - the fidalword's `TR` value, if the TR layer is off;
+ * - the FC-level values `FIDLET`, `FIDLETED`, `TRFID`, `pLB` and
+ * `pPB`, if the FC layer is off;
+ * - the FC's `Ed` object, if the Ed layer is off.
+ * 
+ * `LL` objects are always passed through, as they make up the
+ * tokens and primary text.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaLayerFilter extends TokenFilter {
+
+	private final boolean mapFC;
+	private final boolean mapEd;
+	private final boolean mapTR;
+	private final TokenFilter fidalwordFilter;
+	private final TokenFilter fcFilter;
+
+	private GeTaLayerFilter(boolean mapFC, boolean mapEd, boolean mapTR) {
+		this.mapFC = mapFC;
+		this.mapEd = mapEd;
+		this.mapTR = mapTR;
+		this.fidalwordFilter = new FidalwordFilter();
+		this.fcFilter = new FCFilter();
+	}
+
+	/**
+	 * Creates a filter for the given layers.
+	 *
+	 * @param mapFC Whether the FC layer is mapped
+	 * @param mapEd Whether the Ed/LT layer is mapped
+	 * @param mapTR Whether the TR layer is mapped
+	 * @return the filter, or `null` if all layers are mapped and nothing is to be skipped
+	 */
+	public static GeTaLayerFilter create(boolean mapFC, boolean mapEd, boolean mapTR) {
+		if (mapFC && mapEd && mapTR) {
+			return null;
+		}
+		return new GeTaLayerFilter(mapFC, mapEd, mapTR);
+	}
+
+	/**
+	 * Wraps a parser so that it skips the subtrees removed
+	 * by the filter.
+	 *
+	 * @param parser The parser positioned before the EA object
+	 * @param filter The filter, may be `null`
+	 * @return the filtering parser, or the passed parser if the filter is `null`
+	 */
+	public static JsonParser filter(JsonParser parser, TokenFilter filter) {
+		if (filter == null) {
+			return parser;
+		}
+		return new FilteringParserDelegate(parser, filter, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+	}
+
+	/*
+	 * @copydoc @see com.fasterxml.jackson.core.filter.TokenFilter#includeProperty(java.lang.String)
+	 */
+	@Override
+	public TokenFilter includeProperty(String name) {
+		if (GeTaMapper.FIDALWORDS.equals(name)) {
+			return this;
+		}
+		return TokenFilter.INCLUDE_ALL;
+	}
+
+	/*
+	 * @copydoc @see com.fasterxml.jackson.core.filter.TokenFilter#includeElement(int)
+	 */
+	@Override
+	public TokenFilter includeElement(int index) {
+		// Elements of the FIDALWORDS array
+		return fidalwordFilter;
+	}
+
+	/**
+	 * Filter for the values of a single fidalword.
+	 */
+	private final class FidalwordFilter extends TokenFilter {
+
+		@Override
+		public TokenFilter includeProperty(String name) {
+			if (GeTaMapper.FC.equals(name)) {
+				return this;
+			}
+			if (!mapTR && GeTaMapper.TR.equals(name)) {
+				return null;
+			}
+			return TokenFilter.INCLUDE_ALL;
+		}
+
+		@Override
+		public TokenFilter includeElement(int index) {
+			// Elements of the FC array
+			return fcFilter;
+		}
+
+	}
+
+	/**
+	 * Filter for the values of a single FC object.
+	 */
+	private final class FCFilter extends TokenFilter {
+
+		@Override
+		public TokenFilter includeProperty(String name) {
+			if (GeTaMapper.Ed.equals(name)) {
+				return mapEd ? TokenFilter.INCLUDE_ALL : null;
+			}
+			if (GeTaMapper.LL.equals(name)) {
+				return TokenFilter.INCLUDE_ALL;
+			}
+			return mapFC ? TokenFilter.INCLUDE_ALL : null;
+		}
+
+	}
+
+}
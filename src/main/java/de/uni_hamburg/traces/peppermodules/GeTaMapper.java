@@ -19,16 +19,19 @@
  */
 package de.uni_hamburg.traces.peppermodules;
 
-import java.io.BufferedReader;    
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
 import org.corpus_tools.pepper.impl.PepperMapperImpl;
 import org.corpus_tools.pepper.modules.PepperMapper;
@@ -39,18 +42,20 @@ import org.corpus_tools.salt.common.SSpan;
 import org.corpus_tools.salt.common.STextualDS;
 import org.corpus_tools.salt.common.SToken;
 import org.corpus_tools.salt.core.SAnnotation;
-import org.corpus_tools.salt.exceptions.SaltInsertionException;
 import org.eclipse.emf.common.util.URI;
-import org.jsoup.Jsoup;
 import org.jsoup.helper.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.Maps;
 
+import de.uni_hamburg.traces.peppermodules.GeTaImporterMetrics.Stage;
+import de.uni_hamburg.traces.peppermodules.GeTaSiblingIndex.Sibling;
 import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
 import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
 import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
@@ -256,19 +261,10 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 	/*
 	 * FILES
 	 */
-	// Main file
+	// Main file, the annotation files are resolved via GeTaSiblingIndex.Sibling
 	private static final String JSON_FILE_SUFFIX = "EA";
-	// Token file
-	private static final String TEA_FILE_SUFFIX = "TEA";
-	// Divisions file
-	private static final String DEA_FILE_SUFFIX = "DEA";
-	// Named Entities file
-	private static final String NEA_FILE_SUFFIX = "NEA";
 	// TODO Quotations file
 	// private static final String QEA_FILE_SUFFIX = "QEA";
-	// Metadata file
-	private static final String MetaEA_FILE_SUFFIX = "MetaEA";
-	private static final String ANN_FILE_ENDING = "ann";
 	private static final String JSON_FILE_ENDING = ".json";
 
 	/*
@@ -280,6 +276,43 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 	// TODO To implement
 	// private boolean mapQEA = true;
 	private boolean mapMetaEA = true;
+	// Span layers, see GeTaImporterProperties
+	private boolean mapFC = true;
+	private boolean mapEd = true;
+	private boolean mapTR = true;
+	private boolean mapFIDEDh = true;
+
+	/*
+	 * GRAPH
+	 */
+	private SDocumentGraph graph;
+	private STextualDS text;
+	// The offset in the primary text at which the next token starts
+	private int offset;
+	// A map mapping fidalword ids to spans spanning that fidalword
+	private Map<String, SSpan> fidalwordSpanIndex;
+	// All tokens in document order, indexed by the token indices below
+	private List<SToken> tokens;
+	// Creates spans over ranges of the tokens above
+	private GeTaSpanBuilder spanBuilder;
+	// An index mapping GeTa Token Ids from Graphical Units (words) to STokens
+	private GeTaTidIndex tidIndex;
+	// An index resolving GeTa Divisions to ranges of STokens
+	private GeTaDivisionIndex divisionIndex;
+	// The number of Tids and WIds in NEA refs which couldn't be resolved
+	private int unresolvedReferences;
+	// Writes annotations which may already exist on a span
+	private GeTaAnnotationWriter annotationWriter = new GeTaAnnotationWriter(GeTaAnnotationWriter.MergePolicy.SKIP);
+	// The expected length of the primary text
+	private int textCapacity = 16;
+	// An executor for parsing the annotation files concurrently, or null
+	private ExecutorService parseExecutor = null;
+	// Metrics of the importer, may be null
+	private GeTaImporterMetrics metrics = null;
+	// Cache of mapped documents in incremental mode, may be null
+	private GeTaDocumentCache documentCache = null;
+	// Index of the files in the document's directory, may be null
+	private GeTaSiblingIndex siblingIndex = null;
 
 	// NAMESPACES
 	private static final String GETA_NAMESPACE = "GeTa";
@@ -305,6 +338,8 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 	private static final String SOUTH_ARABIAN = "SouthArabian";
 	// Token-based Named Entity annotation
 	private static final String NET = "NET";
+	// Separator between fidalwords in the primary text
+	static final String WORD_SEPARATOR = " ";
 
 
 
@@ -321,52 +356,80 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 	 */
 	@Override
 	public DOCUMENT_STATUS mapSDocument() {
-		SDocumentGraph graph = SaltFactory.createSDocumentGraph();
-		getDocument().setDocumentGraph(graph);
-		STextualDS text = SaltFactory.createSTextualDS();
-		text.setText("");
-		graph.addNode(text);
+		long start = System.nanoTime();
+		GeTaImporterProperties properties = getGeTaProperties();
+		boolean streamEA = properties.isStreamEA();
+		mapFC = properties.isMapFC();
+		mapEd = properties.isMapEd();
+		mapTR = properties.isMapTR();
+		mapFIDEDh = properties.isMapFIDEDh();
+		annotationWriter = new GeTaAnnotationWriter(properties.getDuplicateAnnotations());
+		// Skip the JSON of switched-off layers while parsing
+		GeTaLayerFilter layerFilter = GeTaLayerFilter.create(mapFC, mapEd, mapTR);
 
 		// Create a parseable String from file
 		URI resource = getResourceURI();
 		String eaPath = resource.toFileString();
-		String teaPath = eaPath.split(JSON_FILE_SUFFIX + JSON_FILE_ENDING)[0].concat(TEA_FILE_SUFFIX + "." + ANN_FILE_ENDING);
-		String deaPath = eaPath.split(JSON_FILE_SUFFIX + JSON_FILE_ENDING)[0].concat(DEA_FILE_SUFFIX + "." + ANN_FILE_ENDING);
-		String neaPath = eaPath.split(JSON_FILE_SUFFIX + JSON_FILE_ENDING)[0].concat(NEA_FILE_SUFFIX + "." + ANN_FILE_ENDING);
+		// The path of the document without the suffix of the main file
+		String stemPath = eaPath.split(JSON_FILE_SUFFIX + JSON_FILE_ENDING)[0];
+		// The stem in the index of the document's directory, if it has been indexed
+		String stem = getIndexedStem(stemPath);
 		// TODO: Implement later
-		// String qeaPath = eaPath.split(JSON_FILE_SUFFIX +
-		// ".json")[0].concat(QEA_FILE_SUFFIX + "." + ANN_FILE_ENDING);
-		String metaeaPath = eaPath.split(JSON_FILE_SUFFIX + JSON_FILE_ENDING)[0]
-				.concat(MetaEA_FILE_SUFFIX + "." + ANN_FILE_ENDING);
+		// String qeaPath = stemPath.concat(QEA_FILE_SUFFIX + ".ann");
 		File eaFile = new File(eaPath);
+		GeTaInput eaInput = stem != null ? siblingIndex.open(stem, Sibling.EA) : GeTaInput.open(eaFile);
+		// A streamed *EA.json file is never read into memory as a whole
+		eaInput.setStreaming(streamEA);
 
 		// Check what files to map
-		File teaFile = new File(teaPath);
-		mapTEA = checkFileExists(teaFile, teaPath);
+		GeTaInput teaInput = mapSibling(stem, stemPath, Sibling.TEA);
+		mapTEA = checkFileExists(teaInput);
 
-		File deaFile = new File(deaPath);
-		mapDEA = checkFileExists(deaFile, deaPath);
+		GeTaInput deaInput = mapSibling(stem, stemPath, Sibling.DEA);
+		mapDEA = checkFileExists(deaInput);
 
-		File neaFile = new File(neaPath);
-		mapNEA = checkFileExists(neaFile, neaPath);
+		GeTaInput neaInput = mapSibling(stem, stemPath, Sibling.NEA);
+		mapNEA = checkFileExists(neaInput);
 
-		File metaeaFile = new File(metaeaPath);
-		mapMetaEA = checkFileExists(metaeaFile, metaeaPath);
+		GeTaInput metaeaInput = mapSibling(stem, stemPath, Sibling.METAEA);
+		mapMetaEA = checkFileExists(metaeaInput);
 
 		// TODO: Implement
-		// File qeaFile = new File(qeaPath);
-		// mapQEA = checkFileExists(qeaFile, qeaPath);
+		// GeTaInput qeaInput = GeTaInput.open(new File(qeaPath));
+		// mapQEA = checkFileExists(qeaInput);
 		//
 
+		List<GeTaInput> sources = Arrays.asList(eaInput, teaInput, deaInput, neaInput, metaeaInput);
+
+		// In incremental mode, restore the document if none of its files has changed
+		String fingerprint = null;
+		if (documentCache != null) {
+			fingerprint = fingerprint(sources);
+			if (fingerprint != null && documentCache.restore(eaFile, fingerprint, getDocument())) {
+				if (metrics != null) {
+					metrics.recordRestoredDocument();
+					metrics.record(Stage.DOCUMENT, System.nanoTime() - start);
+				}
+				return DOCUMENT_STATUS.COMPLETED;
+			}
+		}
+
+		// Load the parsed models from a valid snapshot if requested
+		File snapshotFile = null;
+		GeTaModelSnapshot snapshot = null;
+		if (properties.isModelSnapshot()) {
+			snapshotFile = new File(stemPath.concat(JSON_FILE_SUFFIX + "." + GeTaModelSnapshot.FILE_ENDING));
+			snapshot = GeTaModelSnapshot.read(snapshotFile, sources, layerSettings());
+			// A snapshot holds all fidalwords, which are mapped in one go
+			streamEA = streamEA && snapshot == null;
+		}
+
+		// Pre-size the graph structures from a counting pass if requested
+		initGraph(properties.isPreScan() ? preScan(eaInput) : null);
+
 		// Initiate the mapping process for .json and .ann files
+		long streamNanos = 0;
 		try {
-			ObjectMapper eaMapper = new ObjectMapper();
-			ObjectMapper teaMapper = new ObjectMapper();
-			ObjectMapper dEAMapper = new ObjectMapper();
-			ObjectMapper neaMapper = new ObjectMapper();
-			ObjectMapper metaeaMapper = new ObjectMapper();
-			// TODO: Implement
-			// ObjectMapper qeaMapper = new ObjectMapper();
 			GeTaEA ea;
 			List<GeTaTEA> tea = null;
 			List<GeTaDEA> dea = null;
@@ -374,32 +437,95 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 			metaea = null;
 			// TODO: Implement
 			// List<GeTaQEA> qea = null;
+			/*
+			 * The annotation files are independent of each other until
+			 * linking, so they are parsed on the parse executor (if any)
+			 * while the main file is parsed on this thread.
+			 */
+			long parseStart = System.nanoTime();
+			List<Future<?>> parses = new ArrayList<>();
 			try {
-				// Map the contents of the main file.
-				ea = eaMapper.readValue(eaFile, new TypeReference<GeTaEA>() {
-				});
-				if (mapTEA)
-					tea = teaMapper.readValue(teaFile, new TypeReference<List<GeTaTEA>>() {
-					});
-				if (mapDEA)
-					dea = dEAMapper.readValue(deaFile, new TypeReference<List<GeTaDEA>>() {
-					});
-				if (mapNEA)
-					nea = neaMapper.readValue(neaFile, new TypeReference<List<GeTaNEA>>() {
-					});
-				if (mapMetaEA)
-					metaea = metaeaMapper.readValue(metaeaFile, new TypeReference<GeTaMetaEA>() {
-					});
-				// TODO: Implement
-				// if (mapQEA)
-				// qea = qeaMapper.readValue(qeaFile, new
-				// TypeReference<List<GeTaQEA>>() {
-				// });
+				Future<List<GeTaTEA>> teaParse = null;
+				Future<List<GeTaDEA>> deaParse = null;
+				Future<List<GeTaNEA>> neaParse = null;
+				Future<GeTaMetaEA> metaeaParse = null;
+				if (snapshot != null) {
+					ea = snapshot.getEA();
+					tea = snapshot.getTEA();
+					dea = snapshot.getDEA();
+					nea = snapshot.getNEA();
+					metaea = snapshot.getMetaEA();
+				}
+				else {
+					if (mapTEA)
+						teaParse = parse(GeTaReaders.getTEAReader(), teaInput, parses);
+					if (mapDEA)
+						deaParse = parse(GeTaReaders.getDEAReader(), deaInput, parses);
+					if (mapNEA)
+						neaParse = parse(GeTaReaders.getNEAReader(), neaInput, parses);
+					if (mapMetaEA)
+						metaeaParse = parse(GeTaReaders.getMetaEAReader(), metaeaInput, parses);
+					// TODO: Implement
+					// if (mapQEA)
+					// qeaParse = parse(GeTaReaders.getQEAReader(), qeaInput, parses);
+					// Map the contents of the main file.
+					if (streamEA) {
+						long streamStart = System.nanoTime();
+						ea = streamFidalwords(eaInput, layerFilter);
+						streamNanos = System.nanoTime() - streamStart;
+					}
+					else if (layerFilter != null) {
+						ObjectReader eaReader = GeTaReaders.getEAReader();
+						try (JsonParser parser = GeTaLayerFilter.filter(eaInput.createParser(eaReader.getFactory()), layerFilter)) {
+							ea = eaReader.readValue(parser);
+						}
+					}
+					else {
+						ea = eaInput.read(GeTaReaders.getEAReader());
+					}
+					tea = await(teaParse);
+					dea = await(deaParse);
+					nea = await(neaParse);
+					metaea = await(metaeaParse);
+				}
 			}
 			catch (JsonMappingException | JsonParseException e) {
 				logger.error("Error while parsing JSON.", e);
+				if (metrics != null) {
+					metrics.recordFailure();
+				}
 				return DOCUMENT_STATUS.FAILED;
 			}
+			finally {
+				for (Future<?> parse : parses) {
+					parse.cancel(true);
+				}
+			}
+			if (metrics != null) {
+				// Streamed fidalwords are accounted for as mapping rather than parsing
+				metrics.record(Stage.PARSE, System.nanoTime() - parseStart - streamNanos);
+				if (streamEA) {
+					metrics.record(Stage.FIDALWORDS, streamNanos);
+				}
+				if (snapshot != null) {
+					metrics.recordBytesRead(snapshotFile.length());
+				}
+				else {
+					metrics.recordBytesRead(eaInput.length());
+					metrics.recordBytesRead(mapTEA ? teaInput.length() : 0);
+					metrics.recordBytesRead(mapDEA ? deaInput.length() : 0);
+					metrics.recordBytesRead(mapNEA ? neaInput.length() : 0);
+					metrics.recordBytesRead(mapMetaEA ? metaeaInput.length() : 0);
+				}
+			}
+			// Streamed fidalwords aren't kept, so a snapshot can only be written from the complete model
+			if (snapshotFile != null && snapshot == null && !streamEA) {
+				writeSnapshot(snapshotFile, sources, new GeTaModelSnapshot(ea, tea, dea, nea, metaea));
+			}
+			// The files have been parsed and hashed, so their contents aren't needed while mapping
+			for (GeTaInput source : sources) {
+				source.release();
+			}
 
 			/*
 			 * ### Map the JSON objects to Salt ###
@@ -412,8 +538,8 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 			getDocument().createMetaAnnotation(GETA_NAMESPACE, SCR, ea.getSCR() == 0 ? GEEZ : SOUTH_ARABIAN);
 			getDocument().createMetaAnnotation(GETA_NAMESPACE, TR, ea.getTR() == 0 ? vocalized : unvocalized);
 			if (mapMetaEA) {
-				for (Entry<String, Object> meta : metaea.getAnnotations().entrySet()) {
-					getDocument().createMetaAnnotation(GETA_META_NAMESPACE, meta.getKey(), meta.getValue());
+				for (int i = 0; i < metaea.getAnnotationCount(); i++) {
+					getDocument().createMetaAnnotation(GETA_META_NAMESPACE, metaea.getAnnotationKey(i), metaea.getAnnotationValue(i));
 				}
 				// Map SCR and TR customly
 				getDocument().createMetaAnnotation(GETA_META_NAMESPACE, SCR, ea.getSCR() == 0 ? GEEZ : SOUTH_ARABIAN);
@@ -436,107 +562,10 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 				}
 			}
 
-			// A map mapping fidalword ids to spans spanning that fidalword
-			Map<String, SSpan> fidalwordSpanIndex = new HashMap<>();
-			// A map mapping GeTa Token Ids from Graphical Units (words) to lists of STokens
-			Map<String, ArrayList<SToken>> tidTokensMap = new HashMap<>();
-			// A map mapping GeTa Division Ids to lists of STokens
-			Map<String, ArrayList<SToken>> sidTokensMap = new HashMap<>();
-			// A map mapping GeTa word-based Named Entity Ids to lists of STokens
-			Map<String, ArrayList<SToken>> wordNETokensMap = new HashMap<>();
-			
-			// Iterate through all GeTaWords and map accordingly
-			for (GeTaFidalword fidalword : ea.getFidalwords()) {
-				List<SToken> fidalwordTokens = new ArrayList<>();
-				// FC = Fidal letter
-				for (GeTaFC fc : fidalword.getFc()) {
-					List<SSpan> fcSpans = new ArrayList<>();
-					List<SToken> fcTokens = new ArrayList<>();
-					// LL = SToken
-					for (GeTaLL ll : fc.getLl()) {
-						text.setText(text.getText().concat(ll.getLat()));
-						SToken tok = graph.createToken(text, text.getText().length() - ll.getLat().length(),
-								text.getText().length());
-						fcTokens.add(tok);
-						fidalwordTokens.add(tok);
-						// Add the token to the map from Tids to STokens
-						ArrayList<SToken> llTidTokenList = null;
-						String tid = ll.getTid();
-						if ((llTidTokenList = tidTokensMap.get(tid)) != null) {
-							llTidTokenList.add(tok);
-							tidTokensMap.put(ll.getTid(), llTidTokenList);
-						}
-						else {
-							tidTokensMap.put(ll.getTid(), new ArrayList<>(Arrays.asList(new SToken[] { tok })));
-						}
-						// Add the token to the map from Sids to STokens
-						ArrayList<SToken> llSidTokenList = null;
-						List<String> sids = fidalword.getSid();
-						for (String sid : sids) {
-							if ((llSidTokenList = sidTokensMap.get(sid)) != null) {
-								llSidTokenList.add(tok);
-							}
-							else {
-								sidTokensMap.put(sid, new ArrayList<>(Arrays.asList(new SToken[] { tok })));
-							}
-						}
-						// Add the token to the map from NE Ids to STokens
-						String neId = fidalword.getNe();
-						if (neId != null && !neId.isEmpty()) {
-							List<SToken> neTokens = wordNETokensMap.get(neId);
-							if (neTokens == null) {
-								wordNETokensMap.put(neId, new ArrayList<>(Arrays.asList(new SToken[] { tok })));
-							}
-							else {
-								neTokens.add(tok);
-							}
-						}
-					}
-					// Add FC-level annotations to FC
-					SSpan singleFcSpan = graph.createSpan(fcTokens);
-					fcSpans.add(singleFcSpan);
-					annotateSpan(fc.getAnnotations(), singleFcSpan, GETA_NAMESPACE);
-					// Add Ed-level annotations to FC
-					GeTaEd ed = fc.getEd();
-					if (ed != null) {
-						List<GeTaLT> lts = ed.getLt();
-						if (lts != null) {
-							/*
-							 * Add LT-level annotations to the current FC span
-							 */
-							for (GeTaLT lt : lts) {
-								String nt = lt.getNt();
-								List<GeTaAL> als = lt.getAl();
-								if (als != null || nt != null) {
-									SSpan ltSpan = graph.createSpan(fcTokens);
-									if (nt != null && !nt.isEmpty()) {
-										ltSpan.createAnnotation(GETA_NAMESPACE, NT, lt.getNt());
-									}
-									if (als != null) {
-										for (GeTaAL al : als) {
-											annotateSpan(al.getAnnotations(), ltSpan, GETA_NAMESPACE_LT_ALS);
-										}
-									}
-								}
-							}
-						}
-					}
-				}
-				// Add Fidalword-level annotations to Fidalword
-				SSpan fidalwordSpan = graph.createSpan(fidalwordTokens);
-				annotateSpan(fidalword.getAnnotations(), fidalwordSpan, GETA_NAMESPACE);
-				fidalwordSpanIndex.put(fidalword.getId(), fidalwordSpan);
-				/* 
-				 * Need an extra span just for TR annotations to make
-				 * multiple segmentation visualization work
-				 */
-				SSpan trSpan = graph.createSpan(fidalwordTokens);
-				trSpan.createAnnotation(GETA_NAMESPACE, TR, fidalword.getTr());
-				// Fix HTML in FIDED
-				String fided = fidalword.getFided();
-				fidalwordSpan.createAnnotation(GETA_NAMESPACE, FIDEDh, fided);
-				fidalwordSpan.getAnnotation(GETA_NAMESPACE, FIDED).setValue(Jsoup.parse(fided).text());
-				text.setText(text.getText().concat(" "));
+			if (!streamEA) {
+				long mark = System.nanoTime();
+				mapFidalwords(ea.getFidalwords());
+				record(Stage.FIDALWORDS, mark);
 			}
 
 			/*
@@ -544,214 +573,713 @@ public class GeTaMapper extends PepperMapperImpl implements PepperMapper {
 			 * connection is made via the Tids.
 			 */
 			if (mapTEA) {
-				for (GeTaTEA t : tea) {
-					String id = t.getId();
-					ArrayList<SToken> teaTokens = tidTokensMap.get(id);
-					if (teaTokens != null) {
-						SSpan teaSpan = graph.createSpan(teaTokens);
-						// Map TEA-level annotations to TEA span
-						annotateSpan(t.getAnnotations(), teaSpan, GETA_NAMESPACE_TEA);
-						GeTaM m = t.getM();
-						if (m != null) {
-							Boolean mNe = m.getNe();
-							if (mNe != null) {
-								teaSpan.createAnnotation(GETA_NAMESPACE_TEA, ne, mNe);
-							}
-							List<GeTaLT> lts = m.getLt();
-							if (lts != null) {
-								for (GeTaLT lt : lts) {
-									teaSpan.createAnnotation(GETA_NAMESPACE_TEA, NT, lt.getNt());
-									List<GeTaAL> als = lt.getAl();
-									annotateSpanWithALs(als, teaSpan, GETA_NAMESPACE_TEA_LT_ALS);
-								}
-							}
-						}
-						/* 
-						 * If the attribute name is "lex", it is likely to contain
-						 * a Dillmann URL.
-						 */
-						// R annotations contain URLs to the Beta-Masaheft lexicon
-						SAnnotation lexAnnotation = teaSpan.getAnnotation(GETA_NAMESPACE_TEA_LT_ALS, lex); 
-						if (lexAnnotation != null) {
-							String rawValue = lexAnnotation.getValue_STEXT();
-							String[] splitLemmaURL = rawValue.split("\\s+");
-							if (splitLemmaURL.length == 2) {
-								/* 
-								 * Possibly contains Lemma and URL, e.g.
-								 * "መኰንን    http://betamasaheft.eu/..."
-								 */
-								String potentialURL = splitLemmaURL[1];
-								boolean isURL = GeTaUtil.isValidJavaNetURL(potentialURL);
-								if (isURL) {
-									lexAnnotation.setValue(splitLemmaURL[0]);
-									teaSpan.createAnnotation(GETA_NAMESPACE_TEA_LT_ALS, lexh, "<a href=\"" + potentialURL + "\">" + splitLemmaURL[0] + "</a>");
-								}
-							}
-							else {
-								// Leave as is
-							}
-						}
-					}
-
-				}
+				long mark = System.nanoTime();
+				mapTEA(tea);
+				record(Stage.TEA, mark);
 			}
 
 			/*
 			 * Connect the Fidel words with their division annotations. The
-			 * connection is made via the Sids.
+			 * connection is made via WB/WE, or the Sids as a fallback.
 			 */
 			if (mapDEA) {
-				for (GeTaDEA d : dea) {
-					SSpan deaSpan = graph.createSpan(sidTokensMap.get(d.getId()));
-					annotateSpan(d.getAnnotations(), deaSpan, GETA_NAMESPACE_DEA);
-				}
+				long mark = System.nanoTime();
+				mapDEA(dea);
+				record(Stage.DEA, mark);
 			}
 
-
 			/*
 			 * Connect Fidal words with named entities
 			 */
 			if (mapNEA) {
-				for (GeTaNEA ne : nea) {
-					// Build spans to receive annotations
-					List<SSpan> refTokenSpans = new ArrayList<>();
-					List<SSpan> refWordSpans = new ArrayList<>();
-					for (GeTaRef neRef : ne.getRef()) {
-						/* 
-						 * Create spans for Named Entity only over those
-						 * tokens that are explicitly linked in the NE
-						 */
-						List<String> tokenIds = neRef.getTid();
-						List<SToken> tokenSTokenList = new ArrayList<>();
-						for (String tid : tokenIds) {
-							tokenSTokenList.addAll(tidTokensMap.get(tid));
-						}
-						SSpan tokenNESpan = graph.createSpan(tokenSTokenList);
-						refTokenSpans.add(tokenNESpan);
-						// Add the span for the respective fidalword to a list
-						SSpan refWordSpan = fidalwordSpanIndex.get(neRef.getWid());
-						if (refWordSpan != null) {
-							refWordSpans.add(refWordSpan);
-						}
+				long mark = System.nanoTime();
+				mapNEA(nea);
+				record(Stage.NEA, mark);
+				if (unresolvedReferences > 0) {
+					logger.warn("Skipped {} unresolvable Tid/WId references in the NEA file of {}.", unresolvedReferences, eaFile.getName());
+					if (metrics != null) {
+						metrics.recordUnresolvedReferences(unresolvedReferences);
 					}
-					// Annotate
-					// Test R value for URL
-					String rawValue = ne.getR();
-					boolean isURL = GeTaUtil.isValidJavaNetURL(rawValue);
-					for (SSpan span : refTokenSpans) {
-						annotateSpan(ne.getAnnotations(), span, GETA_NAMESPACE_NEA);
-						// R annotations contain URLs to the Beta-Masaheft
-						// lexicon
-						SAnnotation rAnnotation = span.getAnnotation(GETA_NAMESPACE_NEA, R);
-						if (rAnnotation != null) {
-							if (isURL) {
-								rAnnotation.setValue("<a href=\"" + rawValue + "\">" + rawValue + "</a>");
-							}
-						}
-						List<GeTaAL> neFeat = ne.getFeat();
-						if (neFeat != null) {
-							for (GeTaAL al : neFeat) {
-								annotateSpan(al.getAnnotations(), span, GETA_NAMESPACE_NEA_FEAT_ALS);
-							}
+				}
+			}
+			if (annotationWriter.getDuplicateCount() > 0) {
+				logger.debug("Merged {} duplicate annotations in {} (policy {}).", annotationWriter.getDuplicateCount(),
+						eaFile.getName(), annotationWriter.getPolicy());
+			}
+
+		}
+		catch (IOException e) {
+			if (metrics != null) {
+				metrics.recordFailure();
+			}
+			throw new PepperModuleException("Error parsing the JSON file " + eaFile.getName() + "!", e);
+		}
+		catch (RuntimeException e) {
+			// E.g., a PepperModuleException from a failed or interrupted annotation file parse
+			if (metrics != null) {
+				metrics.recordFailure();
+			}
+			throw e;
+		}
+		if (fingerprint != null) {
+			documentCache.store(eaFile, fingerprint, getDocument());
+		}
+		if (metrics != null) {
+			metrics.recordDocument(tokens.size(), graph.getSpans().size(), annotationWriter.getAnnotationCount());
+			metrics.record(Stage.DOCUMENT, System.nanoTime() - start);
+		}
+		return (DOCUMENT_STATUS.COMPLETED);
+	}
+
+	/**
+	 * Computes the fingerprint of the document for the document
+	 * cache from its input files and the span layer settings, which
+	 * are the only properties that change the mapped result.
+	 *
+	 * @param inputs The input files of the document
+	 * @return The fingerprint, or `null` if it cannot be computed and the document should not be cached
+	 */
+	private String fingerprint(List<GeTaInput> inputs) {
+		String settings = layerSettings() + ",mapFIDEDh=" + mapFIDEDh + ",duplicateAnnotations=" + annotationWriter.getPolicy();
+		try {
+			return GeTaDocumentCache.fingerprint(inputs, settings);
+		}
+		catch (IOException e) {
+			logger.warn("Could not compute the cache fingerprint of {}, mapping it uncached.", getResourceURI(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the stem of the document in the sibling index, if
+	 * the index covers the document's directory.
+	 *
+	 * @param stemPath The path of the document without the suffix of the main file
+	 * @return The stem, or `null` if the files must be found by probing the file system
+	 */
+	private String getIndexedStem(String stemPath) {
+		int separator = stemPath.lastIndexOf(File.separatorChar);
+		if (siblingIndex == null || separator < 0 || !siblingIndex.getDirectory().getPath().equals(stemPath.substring(0, separator))) {
+			return null;
+		}
+		return stemPath.substring(separator + 1);
+	}
+
+	/**
+	 * Maps a sibling of the main file, through the sibling index
+	 * if the document has been indexed.
+	 *
+	 * @param stem The stem of the document in the sibling index, or `null`
+	 * @param stemPath The path of the document without the suffix of the main file
+	 * @param sibling The sibling to map
+	 * @return The input for the sibling
+	 */
+	private GeTaInput mapSibling(String stem, String stemPath, Sibling sibling) {
+		if (stem != null) {
+			return siblingIndex.open(stem, sibling);
+		}
+		return GeTaInput.open(new File(stemPath.concat(sibling.getSuffix())));
+	}
+
+	/**
+	 * @return the span layer settings which affect the parsed models, as these skip the JSON of switched-off layers
+	 */
+	private String layerSettings() {
+		return "mapFC=" + mapFC + ",mapEd=" + mapEd + ",mapTR=" + mapTR;
+	}
+
+	/**
+	 * Writes the snapshot of the parsed models of the document.
+	 * Failures are logged, as the document can still be mapped.
+	 *
+	 * @param snapshotFile The file to write the snapshot to
+	 * @param sources The input files of the document
+	 * @param snapshot The snapshot to write
+	 */
+	private void writeSnapshot(File snapshotFile, List<GeTaInput> sources, GeTaModelSnapshot snapshot) {
+		try {
+			snapshot.write(snapshotFile, sources, layerSettings());
+		}
+		catch (IOException e) {
+			logger.warn("Could not write the snapshot {}.", snapshotFile.getName(), e);
+		}
+	}
+
+	/**
+	 * Records the run time of a stage with the metrics, if any.
+	 *
+	 * @param stage The stage which has been run
+	 * @param since The {@link System#nanoTime()} at which the stage started
+	 */
+	private void record(Stage stage, long since) {
+		if (metrics != null) {
+			metrics.record(stage, System.nanoTime() - since);
+		}
+	}
+
+	/**
+	 * Creates a new document graph with an empty primary text for
+	 * the current document, and resets the linking indices.
+	 */
+	void initGraph() {
+		initGraph(null);
+	}
+
+	/**
+	 * Creates a new document graph with an empty primary text for
+	 * the current document, and resets the linking indices, pre-sizing
+	 * them from the counts of a {@link GeTaPreScan}.
+	 *
+	 * @param preScan The counts of the main file, or `null` for default sizes
+	 */
+	void initGraph(GeTaPreScan preScan) {
+		graph = SaltFactory.createSDocumentGraph();
+		getDocument().setDocumentGraph(graph);
+		text = SaltFactory.createSTextualDS();
+		graph.addNode(text);
+		offset = 0;
+		unresolvedReferences = 0;
+		if (preScan == null) {
+			textCapacity = 16;
+			fidalwordSpanIndex = new HashMap<>();
+			tokens = new ArrayList<>();
+			tidIndex = new GeTaTidIndex(tokens);
+			divisionIndex = new GeTaDivisionIndex(tokens);
+		}
+		else {
+			textCapacity = preScan.getTextLength();
+			fidalwordSpanIndex = Maps.newHashMapWithExpectedSize(preScan.getFidalwordCount());
+			tokens = new ArrayList<>(preScan.getLLCount());
+			tidIndex = new GeTaTidIndex(tokens, preScan.getFidalwordCount(), preScan.getTidCount());
+			divisionIndex = new GeTaDivisionIndex(tokens, preScan.getFidalwordCount(), preScan.getSidCount());
+		}
+		spanBuilder = new GeTaSpanBuilder(graph, tokens);
+	}
+
+	/**
+	 * Runs a {@link GeTaPreScan} over the main file. If the pre-scan
+	 * fails, the structures are left at their default sizes, and the
+	 * error is reported by the actual parse.
+	 *
+	 * @param eaInput The main file
+	 * @return The counts of the main file, or `null` if it couldn't be scanned
+	 */
+	private GeTaPreScan preScan(GeTaInput eaInput) {
+		if (!eaInput.exists()) {
+			return null;
+		}
+		try {
+			return GeTaPreScan.scan(eaInput, GeTaReaders.getFidalwordReader().getFactory());
+		}
+		catch (IOException e) {
+			logger.debug("Could not pre-scan {}, using default sizes.", eaInput.getFile(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Maps a complete list of fidalwords to the document graph.
+	 * 
+	 * The complete primary text is built in one go and set once,
+	 * token offsets are then computed arithmetically from the
+	 * lengths of the LAT values.
+	 *
+	 * @param fidalwords The fidalwords to map
+	 */
+	void mapFidalwords(List<GeTaFidalword> fidalwords) {
+		text.setText(buildPrimaryText(fidalwords, textCapacity));
+		// Iterate through all GeTaWords and map accordingly
+		for (GeTaFidalword fidalword : fidalwords) {
+			mapFidalword(fidalword);
+		}
+	}
+
+	/**
+	 * Connects the fidalwords with their linguistic annotations
+	 * from the TEA file. The connection is made via the Tids,
+	 * which are resolved to ranges of tokens.
+	 *
+	 * @param tea The TEA objects to map
+	 */
+	void mapTEA(List<GeTaTEA> tea) {
+		GeTaTokenRanges teaRanges = new GeTaTokenRanges();
+		for (GeTaTEA t : tea) {
+			teaRanges.clear();
+			if (tidIndex.addRanges(t.getId(), teaRanges)) {
+				SSpan teaSpan = spanBuilder.createSpan(teaRanges);
+				// Map TEA-level annotations to TEA span
+				annotationWriter.create(t, teaSpan, GETA_NAMESPACE_TEA);
+				GeTaM m = t.getM();
+				if (m != null) {
+					Boolean mNe = m.getNe();
+					if (mNe != null) {
+						annotationWriter.annotate(teaSpan, GETA_NAMESPACE_TEA, ne, mNe);
+					}
+					List<GeTaLT> lts = m.getLt();
+					if (lts != null) {
+						for (GeTaLT lt : lts) {
+							annotationWriter.annotate(teaSpan, GETA_NAMESPACE_TEA, NT, lt.getNt());
+							List<GeTaAL> als = lt.getAl();
+							annotateSpanWithALs(als, teaSpan, GETA_NAMESPACE_TEA_LT_ALS);
 						}
 					}
-					if (rawValue != null && !rawValue.isEmpty()) {
-						for (SSpan span : refWordSpans) {
-							// Annotate the word span with NET annotation containing
-							// raw R value
-							try {
-								span.createAnnotation(GETA_NAMESPACE_NEA, NET, rawValue);
-							}
-							catch (SaltInsertionException e) {
-								logger.warn("Duplicate annotation caught, not adding: {}.", NET + ":" + rawValue	);
-							}
+				}
+				/* 
+				 * If the attribute name is "lex", it is likely to contain
+				 * a Dillmann URL.
+				 */
+				// R annotations contain URLs to the Beta-Masaheft lexicon
+				SAnnotation lexAnnotation = teaSpan.getAnnotation(GETA_NAMESPACE_TEA_LT_ALS, lex); 
+				if (lexAnnotation != null) {
+					String rawValue = lexAnnotation.getValue_STEXT();
+					String[] splitLemmaURL = rawValue.split("\\s+");
+					if (splitLemmaURL.length == 2) {
+						/* 
+						 * Possibly contains Lemma and URL, e.g.
+						 * "መኰንን    http://betamasaheft.eu/..."
+						 */
+						String potentialURL = splitLemmaURL[1];
+						boolean isURL = GeTaUtil.isValidJavaNetURL(potentialURL);
+						if (isURL) {
+							lexAnnotation.setValue(splitLemmaURL[0]);
+							annotationWriter.annotate(teaSpan, GETA_NAMESPACE_TEA_LT_ALS, lexh, GeTaUtil.createLink(potentialURL, splitLemmaURL[0]));
 						}
 					}
+					else {
+						// Leave as is
+					}
 				}
 			}
 
 		}
-		catch (IOException e) {
-			throw new PepperModuleException("Error parsing the JSON file " + eaFile.getName() + "!", e);
+	}
+
+	/**
+	 * Connects the fidalwords with their division annotations
+	 * from the DEA file. The connection is made via the first
+	 * and last fidalwords of the divisions (`WB`/`WE`), or their
+	 * child divisions, and only via the Sids if neither resolves,
+	 * see {@link GeTaDivisionIndex}.
+	 *
+	 * @param dea The DEA objects to map
+	 */
+	void mapDEA(List<GeTaDEA> dea) {
+		divisionIndex.resolve(dea);
+		for (int i = 0; i < dea.size(); i++) {
+			GeTaDEA d = dea.get(i);
+			SSpan deaSpan;
+			if (divisionIndex.isResolved(i)) {
+				deaSpan = spanBuilder.createSpan(divisionIndex.getStart(i), divisionIndex.getEnd(i));
+			}
+			else {
+				deaSpan = graph.createSpan(divisionIndex.getTokens(d.getId()));
+			}
+			annotationWriter.create(d, deaSpan, GETA_NAMESPACE_DEA);
 		}
-		return (DOCUMENT_STATUS.COMPLETED);
 	}
 
 	/**
-	 * Calls {@link #annotateSpan(Map, SSpan, String)} on all
-	 * AL objects for a span.
+	 * Connects the fidalwords with named entities from the NEA file.
+	 * 
+	 * The Tids of each `ref` are resolved to ranges of tokens within
+	 * the fidalword given by its `WId`, and adjacent ranges are merged.
+	 * Tids and `WId`s which can't be resolved are skipped and counted,
+	 * see {@link #getUnresolvedReferenceCount()}.
 	 *
-	 * @param als The list of {@link GeTaAL} objects containing annotations for the span
-	 * @param span The span to be annotated
-	 * @param namespace The Salt annotation namespace to use for the annotations 
+	 * @param nea The NEA objects to map
 	 */
-	private void annotateSpanWithALs(List<GeTaAL> als, SSpan span, String namespace) {
-		if (als != null) {
-			for (GeTaAL al : als) {
-				annotateSpan(al.getAnnotations(), span, namespace);
+	void mapNEA(List<GeTaNEA> nea) {
+		GeTaTokenRanges refRanges = new GeTaTokenRanges();
+		for (GeTaNEA ne : nea) {
+			// Build spans to receive annotations
+			List<SSpan> refTokenSpans = new ArrayList<>();
+			List<SSpan> refWordSpans = new ArrayList<>();
+			for (GeTaRef neRef : ne.getRef()) {
+				/* 
+				 * Create spans for Named Entity only over those
+				 * tokens that are explicitly linked in the NE
+				 */
+				List<String> tokenIds = neRef.getTid();
+				int word = tidIndex.findWord(neRef.getWid());
+				if (tokenIds != null) {
+					for (String tid : tokenIds) {
+						if (!tidIndex.addRanges(word, tid, refRanges)) {
+							unresolvedReferences++;
+						}
+					}
+				}
+				if (!refRanges.isEmpty()) {
+					refTokenSpans.add(spanBuilder.createSpan(refRanges));
+					refRanges.clear();
+				}
+				// Add the span for the respective fidalword to a list
+				SSpan refWordSpan = fidalwordSpanIndex.get(neRef.getWid());
+				if (refWordSpan != null) {
+					refWordSpans.add(refWordSpan);
+				}
+				else {
+					unresolvedReferences++;
+				}
+			}
+			// Annotate
+			// Test R value for URL
+			String rawValue = ne.getR();
+			boolean isURL = GeTaUtil.isValidJavaNetURL(rawValue);
+			for (SSpan span : refTokenSpans) {
+				annotationWriter.create(ne, span, GETA_NAMESPACE_NEA);
+				// R annotations contain URLs to the Beta-Masaheft
+				// lexicon
+				SAnnotation rAnnotation = span.getAnnotation(GETA_NAMESPACE_NEA, R);
+				if (rAnnotation != null) {
+					if (isURL) {
+						rAnnotation.setValue(GeTaUtil.createLink(rawValue, rawValue));
+					}
+				}
+				annotateSpanWithALs(ne.getFeat(), span, GETA_NAMESPACE_NEA_FEAT_ALS);
+			}
+			if (rawValue != null && !rawValue.isEmpty()) {
+				for (SSpan span : refWordSpans) {
+					/*
+					 * Annotate the word span with NET annotation containing
+					 * raw R value. Words can be part of several named
+					 * entities, so the annotation may already exist.
+					 */
+					annotationWriter.annotate(span, GETA_NAMESPACE_NEA, NET, rawValue);
+				}
 			}
 		}
 	}
 
 	/**
-	 * Annotates a span with the passed annotation map.  
-	 * The map maps annotation keys to annotation values.  
-	 * This method performs checks on the annotation map,
-	 * i.e., whether the key/value is `null` or emtpy.
+	 * @return the number of Tids and `WId`s in the NEA refs of the
+	 * current document which couldn't be resolved and have been skipped
+	 */
+	int getUnresolvedReferenceCount() {
+		return unresolvedReferences;
+	}
+
+	/**
+	 * Parses the main file with a {@link GeTaEAStreamParser} and maps
+	 * each {@link GeTaFidalword} as soon as it has been read, so that
+	 * the complete fidalword object tree is never held in memory.
 	 * 
-	 * Only if both key and value of the respective entry
-	 * of the annotations map which is iterated is neither `null`
-	 * nor empty is the annotation created.
+	 * The primary text is collected in a single buffer while
+	 * streaming and set once all fidalwords have been mapped.
 	 *
-	 * @param annotationMap The key:value map of annotations to apply to the span
-	 * @param span The span to be annotated
-	 * @param namespace The Salt annotation namespace to be used for the annotations
+	 * @param eaInput The main file
+	 * @param layerFilter The filter for skipping switched-off layers, or `null`
+	 * @return A {@link GeTaEA} holding the document-level values only
+	 * @throws IOException if the main file cannot be read or parsed
 	 */
-	private void annotateSpan(Map<String, ?> annotationMap, SSpan span, String namespace) {
-		for (Entry<String, ?> a : annotationMap.entrySet()) {
-			String key = a.getKey();
-			if (key == null || key.isEmpty()) {
-				continue;
+	private GeTaEA streamFidalwords(GeTaInput eaInput, TokenFilter layerFilter) throws IOException {
+		final StringBuilder primaryText = new StringBuilder(textCapacity);
+		GeTaEA ea = new GeTaEAStreamParser(GeTaReaders.getFidalwordReader(), layerFilter).parse(eaInput, new GeTaEAStreamParser.FidalwordHandler() {
+			@Override
+			public void handle(GeTaFidalword fidalword) {
+				appendPrimaryText(primaryText, fidalword);
+				mapFidalword(fidalword);
 			}
-			else {
-				key = key.replaceAll("\\s", "-");
+		});
+		text.setText(primaryText.toString());
+		return ea;
+	}
+
+	/**
+	 * Maps a single {@link GeTaFidalword} to the document graph,
+	 * i.e., creates the tokens for its LL objects starting at the
+	 * current text offset, the spans for the fidalword and its FC
+	 * objects, and registers the tokens with the Tid and division
+	 * indices used for linking the annotation files.
+	 * 
+	 * The primary text itself is not touched, its offsets are
+	 * computed arithmetically.
+	 *
+	 * @param fidalword The fidalword to map
+	 */
+	private void mapFidalword(GeTaFidalword fidalword) {
+		int fidalwordStart = tokens.size();
+		tidIndex.startWord(fidalword.getId());
+		// FC = Fidal letter
+		for (GeTaFC fc : fidalword.getFc()) {
+			int fcStart = tokens.size();
+			// LL = SToken
+			for (GeTaLL ll : fc.getLl()) {
+				int end = offset + ll.getLat().length();
+				SToken tok = graph.createToken(text, offset, end);
+				offset = end;
+				int position = tokens.size();
+				tokens.add(tok);
+				// Add the token to the index from Tids to STokens
+				tidIndex.add(ll.getTid(), position);
+			}
+			/*
+			 * The FC span and the LT spans all cover the tokens of
+			 * the FC, so create them in one go.
+			 */
+			GeTaEd ed = fc.getEd();
+			List<GeTaLT> lts = mapEd && ed != null ? ed.getLt() : null;
+			int fcSpanCount = mapFC ? 1 : 0;
+			if (lts != null) {
+				for (GeTaLT lt : lts) {
+					if (lt.getAl() != null || lt.getNt() != null) {
+						fcSpanCount++;
+					}
+				}
 			}
-			Object value = a.getValue();
-			if (a.getValue() == null) {
-				continue;
+			SSpan[] fcSpans = spanBuilder.createSpans(fcStart, tokens.size(), fcSpanCount);
+			int fcSpanIndex = 0;
+			// Add FC-level annotations to FC
+			if (mapFC) {
+				annotationWriter.create(fc, fcSpans[fcSpanIndex++], GETA_NAMESPACE);
 			}
-			else {
-				if (a.getValue() instanceof String) {
-					String aStr = (String) a.getValue();
-					if (aStr.isEmpty()) {
-						continue;
+			// Add Ed-level annotations to FC
+			if (lts != null) {
+				/*
+				 * Add LT-level annotations to the current FC span
+				 */
+				for (GeTaLT lt : lts) {
+					String nt = lt.getNt();
+					List<GeTaAL> als = lt.getAl();
+					if (als != null || nt != null) {
+						SSpan ltSpan = fcSpans[fcSpanIndex++];
+						if (nt != null && !nt.isEmpty()) {
+							annotationWriter.create(ltSpan, GETA_NAMESPACE, NT, lt.getNt());
+						}
+						annotateSpanWithALs(als, ltSpan, GETA_NAMESPACE_LT_ALS);
 					}
 				}
 			}
-			span.createAnnotation(namespace, key, value);
 		}
+		/* 
+		 * Need an extra span just for TR annotations to make
+		 * multiple segmentation visualization work
+		 */
+		SSpan[] fidalwordSpans = spanBuilder.createSpans(fidalwordStart, tokens.size(), mapTR ? 2 : 1);
+		// Add the word's tokens to the index of divisions
+		divisionIndex.addWord(fidalword.getId(), fidalword.getSid(), fidalwordStart, tokens.size());
+		// Add Fidalword-level annotations to Fidalword
+		SSpan fidalwordSpan = fidalwordSpans[0];
+		annotationWriter.create(fidalword, fidalwordSpan, GETA_NAMESPACE);
+		fidalwordSpanIndex.put(fidalword.getId(), fidalwordSpan);
+		if (mapTR) {
+			annotationWriter.create(fidalwordSpans[1], GETA_NAMESPACE, TR, fidalword.getTr());
+		}
+		// Fix HTML in FIDED
+		String fided = fidalword.getFided();
+		if (mapFIDEDh) {
+			annotationWriter.create(fidalwordSpan, GETA_NAMESPACE, FIDEDh, fided);
+		}
+		fidalwordSpan.getAnnotation(GETA_NAMESPACE, FIDED).setValue(GeTaFidedSanitizer.sanitize(fided));
+		// Skip the word separator
+		offset += WORD_SEPARATOR.length();
+	}
+
+	/**
+	 * Builds the primary text for a list of fidalwords, i.e., the
+	 * concatenated LAT values of all LL objects, with each fidalword
+	 * followed by a {@link #WORD_SEPARATOR}.
+	 * 
+	 * The text is built in a single buffer, so that the cost is linear
+	 * in the number of letters.
+	 *
+	 * @param fidalwords The fidalwords to build the text from
+	 * @return The primary text
+	 */
+	static String buildPrimaryText(List<GeTaFidalword> fidalwords) {
+		return buildPrimaryText(fidalwords, 16);
+	}
+
+	/**
+	 * Builds the primary text for a list of fidalwords in a buffer
+	 * of the given initial capacity, see {@link #buildPrimaryText(List)}.
+	 *
+	 * @param fidalwords The fidalwords to build the text from
+	 * @param capacity The expected length of the text
+	 * @return The primary text
+	 */
+	static String buildPrimaryText(List<GeTaFidalword> fidalwords, int capacity) {
+		StringBuilder builder = new StringBuilder(capacity);
+		appendPrimaryText(builder, fidalwords);
+		return builder.toString();
+	}
+
+	/**
+	 * Appends the primary text for a list of fidalwords to a buffer,
+	 * see {@link #buildPrimaryText(List)}.
+	 *
+	 * @param builder The buffer to append to
+	 * @param fidalwords The fidalwords to append
+	 */
+	static void appendPrimaryText(StringBuilder builder, List<GeTaFidalword> fidalwords) {
+		for (GeTaFidalword fidalword : fidalwords) {
+			appendPrimaryText(builder, fidalword);
+		}
+	}
+
+	/**
+	 * Appends the LAT values of a single fidalword, followed by
+	 * a {@link #WORD_SEPARATOR}, to a primary text buffer.
+	 *
+	 * @param builder The buffer to append to
+	 * @param fidalword The fidalword to append
+	 */
+	private static void appendPrimaryText(StringBuilder builder, GeTaFidalword fidalword) {
+		for (GeTaFC fc : fidalword.getFc()) {
+			for (GeTaLL ll : fc.getLl()) {
+				builder.append(ll.getLat());
+			}
+		}
+		builder.append(WORD_SEPARATOR);
 	}
 
 	/**
-	 * Checks if a file exists and is not empty.
+	 * Returns the {@link GeTaImporterProperties} set for this mapper,
+	 * or the default properties if none have been set.
 	 *
-	 * @param fileToCheck The file to check
-	 * @param filePath The path of the file to check
+	 * @return The properties to use for mapping
+	 */
+	private GeTaImporterProperties getGeTaProperties() {
+		if (getProperties() instanceof GeTaImporterProperties) {
+			return (GeTaImporterProperties) getProperties();
+		}
+		return new GeTaImporterProperties();
+	}
+
+	/**
+	 * Sets the executor on which the annotation files of the
+	 * document are parsed concurrently with the main file. If
+	 * `null`, all files are parsed one after another on the
+	 * mapper thread.
+	 *
+	 * @param parseExecutor The executor to set, or `null`
+	 */
+	void setParseExecutor(ExecutorService parseExecutor) {
+		this.parseExecutor = parseExecutor;
+	}
+
+	/**
+	 * Sets the metrics to record stage timings and document
+	 * counts with. If `null`, nothing is recorded.
+	 *
+	 * @param metrics The metrics to set, or `null`
+	 */
+	void setMetrics(GeTaImporterMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the cache to restore unchanged documents from and to
+	 * store mapped documents in. If `null`, every document is
+	 * mapped.
+	 *
+	 * @param documentCache The cache to set, or `null`
+	 */
+	void setDocumentCache(GeTaDocumentCache documentCache) {
+		this.documentCache = documentCache;
+	}
+
+	/**
+	 * Sets the index of the files in the document's directory, which
+	 * has been built during corpus discovery. If `null`, the files
+	 * of the document are found by probing the file system.
+	 *
+	 * @param siblingIndex The index to set, or `null`
+	 */
+	void setSiblingIndex(GeTaSiblingIndex siblingIndex) {
+		this.siblingIndex = siblingIndex;
+	}
+
+	/**
+	 * Parses an input with the given reader on the parse executor,
+	 * or immediately on the current thread if no executor is set.
+	 *
+	 * @param reader The reader to parse the input with
+	 * @param input The input to parse
+	 * @param parses The list of pending parses to add the parse to
+	 * @return The pending or completed parse
+	 */
+	private <T> Future<T> parse(final ObjectReader reader, final GeTaInput input, List<Future<?>> parses) {
+		FutureTask<T> parse = new FutureTask<>(new Callable<T>() {
+			@Override
+			public T call() throws IOException {
+				return input.read(reader);
+			}
+		});
+		parses.add(parse);
+		if (parseExecutor == null) {
+			parse.run();
+		}
+		else {
+			parseExecutor.execute(parse);
+		}
+		return parse;
+	}
+
+	/**
+	 * Waits for a parse to complete and returns its result,
+	 * rethrowing any {@link IOException} thrown by the parser.
+	 *
+	 * @param parse The parse, may be `null`
+	 * @return The parsed object, or `null` if parse is `null`
+	 * @throws IOException if the file could not be parsed
+	 */
+	private static <T> T await(Future<T> parse) throws IOException {
+		if (parse == null) {
+			return null;
+		}
+		try {
+			return parse.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PepperModuleException("Interrupted while waiting for an annotation file to be parsed.", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new PepperModuleException("Error while parsing an annotation file.", e.getCause());
+		}
+	}
+
+	/**
+	 * Annotates a span with all AL objects for it. Several AL
+	 * objects may carry the same key, so the annotations are
+	 * written with the {@link GeTaAnnotationWriter}.
+	 *
+	 * @param als The list of {@link GeTaAL} objects containing annotations for the span
+	 * @param span The span to be annotated
+	 * @param namespace The Salt annotation namespace to use for the annotations 
+	 */
+	private void annotateSpanWithALs(List<GeTaAL> als, SSpan span, String namespace) {
+		if (als != null) {
+			for (GeTaAL al : als) {
+				annotationWriter.annotate(al.getBundle(), span, namespace);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a file exists and is not empty, i.e., doesn't
+	 * start with an empty line. The check reads the input's
+	 * contents, which are then parsed without reading the file again.
+	 *
+	 * @param input The input to check
 	 * @return `true` iff the file exists and is not empty, else `false`.
 	 */
-	private boolean checkFileExists(File fileToCheck, String filePath) {
-		String name = fileToCheck.getName();
-		if (!fileToCheck.exists()) {
+	private boolean checkFileExists(GeTaInput input) {
+		String name = input.getFile().getName();
+		if (!input.exists()) {
 			logger.error("No {} file found or file is empty!", name);
 			return false;
 		}
-		try (BufferedReader br = new BufferedReader(new FileReader(fileToCheck))) {
-			String rl = br.readLine();
-			if (rl == null) {
+		try {
+			int firstByte = input.getFirstByte();
+			if (firstByte == -1) {
 				logger.error("No {} file found or file is empty!", name);
 				return false;
 			}
-			else if (rl.isEmpty()) {
+			else if (firstByte == '\n' || firstByte == '\r') {
 				logger.error("{} file is empty!", name);
 				return false;
 			}
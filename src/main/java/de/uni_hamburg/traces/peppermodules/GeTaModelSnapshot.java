@@ -0,0 +1,770 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEd;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
+import de.uni_hamburg.traces.peppermodules.model.metaea.GeTaMetaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaRef;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaAL;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaLT;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaM;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * A compact binary snapshot of the parsed models of a GeTa
+ * document, i.e., of its *EA.json file and its *TEA.ann, *DEA.ann,
+ * *NEA.ann and *MetaEA.ann siblings.
+ * 
+ * Snapshots are written next to the source files, and loaded
+ * instead of parsing the sources again as long as the timestamps,
+ * lengths and SHA-256 hashes of all sources, and the settings the
+ * sources have been parsed with, match the ones recorded in the
+ * snapshot. Timestamps and lengths are compared first, so that
+ * stale snapshots are rejected without hashing the sources.
+ * 
+ * Strings are written to a string table on first use and referred
+ * to by their index afterwards, so that repeated ids and values
+ * are stored once. The same applies to the canonical
+ * {@link GeTaLT}, {@link GeTaM} and {@link GeTaAL} objects, which
+ * are restored through their canonicalizing factories.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaModelSnapshot {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaModelSnapshot.class);
+
+	/** The file ending of snapshot files */
+	public static final String FILE_ENDING = "snapshot";
+
+	// "GeTa"
+	private static final int MAGIC = 0x47655461;
+	// Change when the models or the format change, to invalidate existing snapshots
+	private static final int FORMAT_VERSION = 1;
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	// Reference tags for strings and canonical objects, indices into the tables start above
+	private static final int NULL = 0;
+	private static final int NEW = 1;
+	private static final int TABLE_OFFSET = 2;
+
+	// Tags for annotation values
+	private static final int VALUE_NULL = 0;
+	private static final int VALUE_STRING = 1;
+	private static final int VALUE_INTEGER = 2;
+
+	private final GeTaEA ea;
+	private final List<GeTaTEA> tea;
+	private final List<GeTaDEA> dea;
+	private final List<GeTaNEA> nea;
+	private final GeTaMetaEA metaea;
+
+	/**
+	 * Constructor for a snapshot of parsed models. Models of
+	 * sources which haven't been parsed are `null`.
+	 *
+	 * @param ea The parsed *EA.json file
+	 * @param tea The parsed *TEA.ann file, or `null`
+	 * @param dea The parsed *DEA.ann file, or `null`
+	 * @param nea The parsed *NEA.ann file, or `null`
+	 * @param metaea The parsed *MetaEA.ann file, or `null`
+	 */
+	public GeTaModelSnapshot(GeTaEA ea, List<GeTaTEA> tea, List<GeTaDEA> dea, List<GeTaNEA> nea, GeTaMetaEA metaea) {
+		this.ea = ea;
+		this.tea = tea;
+		this.dea = dea;
+		this.nea = nea;
+		this.metaea = metaea;
+	}
+
+	/**
+	 * Reads a snapshot if it exists and is valid for the given
+	 * sources and settings.
+	 *
+	 * @param file The snapshot file
+	 * @param sources The source files of the snapshot, in a fixed order
+	 * @param settings The settings which affect the parsed models
+	 * @return The snapshot, or `null` if it doesn't exist, is stale or cannot be read
+	 */
+	public static GeTaModelSnapshot read(File file, List<GeTaInput> sources, String settings) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !settings.equals(in.readUTF())) {
+				logger.debug("Snapshot {} has been written with a different format or settings.", file.getName());
+				return null;
+			}
+			if (!isValid(in, sources)) {
+				logger.debug("Snapshot {} is stale.", file.getName());
+				return null;
+			}
+			return new Reader(in).readSnapshot();
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Cannot read snapshot {}, parsing the source files instead.", file.getName(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot for the given sources and settings. The
+	 * snapshot is written to a temporary file first, so that
+	 * an existing snapshot is replaced atomically.
+	 *
+	 * @param file The snapshot file
+	 * @param sources The source files of the snapshot, in a fixed order
+	 * @param settings The settings which affect the parsed models
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void write(File file, List<GeTaInput> sources, String settings) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(settings);
+			out.writeInt(sources.size());
+			for (GeTaInput source : sources) {
+				out.writeBoolean(source.exists());
+				out.writeLong(source.exists() ? source.getFile().lastModified() : 0);
+				out.writeLong(source.length());
+				out.write(digest(source));
+			}
+			new Writer(out).writeSnapshot(this);
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp.toPath());
+			throw e;
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Reads the recorded states of the sources and compares them
+	 * with the current ones. Sources are only hashed if all
+	 * timestamps and lengths match.
+	 */
+	private static boolean isValid(DataInputStream in, List<GeTaInput> sources) throws IOException {
+		if (in.readInt() != sources.size()) {
+			return false;
+		}
+		boolean valid = true;
+		byte[][] hashes = new byte[sources.size()][];
+		for (int i = 0; i < sources.size(); i++) {
+			GeTaInput source = sources.get(i);
+			boolean exists = in.readBoolean();
+			long lastModified = in.readLong();
+			long length = in.readLong();
+			hashes[i] = new byte[createDigest().getDigestLength()];
+			in.readFully(hashes[i]);
+			valid = valid && exists == source.exists() && length == source.length()
+					&& (!exists || lastModified == source.getFile().lastModified());
+		}
+		for (int i = 0; valid && i < sources.size(); i++) {
+			valid = Arrays.equals(hashes[i], digest(sources.get(i)));
+		}
+		return valid;
+	}
+
+	private static byte[] digest(GeTaInput source) throws IOException {
+		MessageDigest digest = createDigest();
+		source.digest(digest);
+		return digest.digest();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return the parsed *EA.json file
+	 */
+	public GeTaEA getEA() {
+		return ea;
+	}
+
+	/**
+	 * @return the parsed *TEA.ann file, or `null`
+	 */
+	public List<GeTaTEA> getTEA() {
+		return tea;
+	}
+
+	/**
+	 * @return the parsed *DEA.ann file, or `null`
+	 */
+	public List<GeTaDEA> getDEA() {
+		return dea;
+	}
+
+	/**
+	 * @return the parsed *NEA.ann file, or `null`
+	 */
+	public List<GeTaNEA> getNEA() {
+		return nea;
+	}
+
+	/**
+	 * @return the parsed *MetaEA.ann file, or `null`
+	 */
+	public GeTaMetaEA getMetaEA() {
+		return metaea;
+	}
+
+	/**
+	 * Writes the models of a snapshot, with string and object
+	 * tables built along the way.
+	 */
+	private static final class Writer {
+
+		private final DataOutputStream out;
+		private final Map<String, Integer> strings = new HashMap<>();
+		private final Map<Object, Integer> objects = new HashMap<>();
+
+		private Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		private void writeSnapshot(GeTaModelSnapshot snapshot) throws IOException {
+			writeEA(snapshot.ea);
+			writeSize(snapshot.tea);
+			if (snapshot.tea != null) {
+				for (GeTaTEA tea : snapshot.tea) {
+					writeString(tea.getId());
+					writeValues(tea);
+					writeM(tea.getM());
+				}
+			}
+			writeSize(snapshot.dea);
+			if (snapshot.dea != null) {
+				for (GeTaDEA dea : snapshot.dea) {
+					writeValues(dea);
+					writeStrings(dea.getDc());
+				}
+			}
+			writeSize(snapshot.nea);
+			if (snapshot.nea != null) {
+				for (GeTaNEA nea : snapshot.nea) {
+					writeString(nea.getId());
+					writeValues(nea);
+					writeSize(nea.getRef());
+					if (nea.getRef() != null) {
+						for (GeTaRef ref : nea.getRef()) {
+							writeString(ref.getWid());
+							writeStrings(ref.getTid());
+						}
+					}
+					writeALs(nea.getFeat());
+				}
+			}
+			out.writeBoolean(snapshot.metaea != null);
+			if (snapshot.metaea != null) {
+				writeString(snapshot.metaea.getId());
+				writeValues(snapshot.metaea);
+				writeStrings(snapshot.metaea.getParts());
+			}
+		}
+
+		private void writeEA(GeTaEA ea) throws IOException {
+			writeInteger(ea.getSCR());
+			writeInteger(ea.getTR());
+			writeSize(ea.getFidalwords());
+			if (ea.getFidalwords() == null) {
+				return;
+			}
+			for (GeTaFidalword fidalword : ea.getFidalwords()) {
+				writeString(fidalword.getId());
+				writeString(fidalword.getFid());
+				writeString(fidalword.getFided());
+				writeString(fidalword.getTr());
+				writeStrings(fidalword.getSid());
+				writeStrings(fidalword.getQid());
+				writeStrings(fidalword.getTid());
+				writeString(fidalword.getNe());
+				writeString(fidalword.getComm());
+				writeSize(fidalword.getFc());
+				if (fidalword.getFc() != null) {
+					for (GeTaFC fc : fidalword.getFc()) {
+						writeFC(fc);
+					}
+				}
+			}
+		}
+
+		private void writeFC(GeTaFC fc) throws IOException {
+			writeValues(fc);
+			out.writeBoolean(fc.hasEd());
+			if (fc.hasEd()) {
+				writeLTs(fc.getEd().getLt());
+			}
+			writeSize(fc.getLl());
+			if (fc.getLl() != null) {
+				for (GeTaLL ll : fc.getLl()) {
+					writeString(ll.getLat());
+					writeString(ll.getTid());
+				}
+			}
+		}
+
+		private void writeM(GeTaM m) throws IOException {
+			if (writeReference(m)) {
+				writeBoolean(m.getNe());
+				writeLTs(m.getLt());
+				objects.put(m, objects.size());
+			}
+		}
+
+		private void writeLTs(List<GeTaLT> lts) throws IOException {
+			writeSize(lts);
+			if (lts == null) {
+				return;
+			}
+			for (GeTaLT lt : lts) {
+				if (writeReference(lt)) {
+					writeString(lt.getNt());
+					writeALs(lt.getAl());
+					objects.put(lt, objects.size());
+				}
+			}
+		}
+
+		private void writeALs(List<GeTaAL> als) throws IOException {
+			writeSize(als);
+			if (als == null) {
+				return;
+			}
+			for (GeTaAL al : als) {
+				if (writeReference(al)) {
+					Map<String, String> annotations = al.getAnnotations();
+					writeVarInt(annotations.size());
+					for (Map.Entry<String, String> annotation : annotations.entrySet()) {
+						writeString(annotation.getKey());
+						writeString(annotation.getValue());
+					}
+					objects.put(al, objects.size());
+				}
+			}
+		}
+
+		/**
+		 * Writes a reference to a canonical object.
+		 *
+		 * @return `true` if the object is new and its contents must be written
+		 */
+		private boolean writeReference(Object object) throws IOException {
+			if (object == null) {
+				writeVarInt(NULL);
+				return false;
+			}
+			Integer index = objects.get(object);
+			if (index != null) {
+				writeVarInt(TABLE_OFFSET + index);
+				return false;
+			}
+			writeVarInt(NEW);
+			return true;
+		}
+
+		private void writeValues(GeTaAnnotated annotated) throws IOException {
+			writeVarInt(annotated.getAnnotationCount());
+			for (int i = 0; i < annotated.getAnnotationCount(); i++) {
+				Object value = annotated.getAnnotationValue(i);
+				if (value == null) {
+					out.writeByte(VALUE_NULL);
+				}
+				else if (value instanceof Integer) {
+					out.writeByte(VALUE_INTEGER);
+					out.writeInt((Integer) value);
+				}
+				else {
+					out.writeByte(VALUE_STRING);
+					writeString((String) value);
+				}
+			}
+		}
+
+		private void writeStrings(List<String> values) throws IOException {
+			writeSize(values);
+			if (values != null) {
+				for (String value : values) {
+					writeString(value);
+				}
+			}
+		}
+
+		private void writeString(String value) throws IOException {
+			if (value == null) {
+				writeVarInt(NULL);
+				return;
+			}
+			Integer index = strings.get(value);
+			if (index != null) {
+				writeVarInt(TABLE_OFFSET + index);
+				return;
+			}
+			writeVarInt(NEW);
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			out.write(bytes);
+			strings.put(value, strings.size());
+		}
+
+		private void writeInteger(Integer value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				out.writeInt(value);
+			}
+		}
+
+		private void writeBoolean(Boolean value) throws IOException {
+			out.writeByte(value == null ? 0 : value ? 2 : 1);
+		}
+
+		/**
+		 * Writes the size of a list, or 0 if it is `null`.
+		 */
+		private void writeSize(List<?> list) throws IOException {
+			writeVarInt(list == null ? 0 : list.size() + 1);
+		}
+
+		private void writeVarInt(int value) throws IOException {
+			while ((value & ~0x7f) != 0) {
+				out.writeByte((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+
+	}
+
+	/**
+	 * Reads the models of a snapshot, rebuilding the string and
+	 * object tables in the order they have been written.
+	 */
+	private static final class Reader {
+
+		private final DataInputStream in;
+		private final List<String> strings = new ArrayList<>();
+		private final List<Object> objects = new ArrayList<>();
+
+		private Reader(DataInputStream in) {
+			this.in = in;
+		}
+
+		private GeTaModelSnapshot readSnapshot() throws IOException {
+			GeTaEA ea = readEA();
+			List<GeTaTEA> tea = null;
+			int size = readSize();
+			if (size >= 0) {
+				tea = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					String id = readString();
+					Object[] values = readValues(2);
+					tea.add(new GeTaTEA(id, (String) values[0], (String) values[1], readM()));
+				}
+			}
+			List<GeTaDEA> dea = null;
+			size = readSize();
+			if (size >= 0) {
+				dea = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					Object[] v = readValues(13);
+					dea.add(new GeTaDEA((String) v[0], (String) v[1], (String) v[2], (String) v[3], (String) v[4], (String) v[5], (String) v[6],
+							(String) v[7], (String) v[8], (String) v[9], (String) v[10], (String) v[11], (String) v[12], readStrings()));
+				}
+			}
+			List<GeTaNEA> nea = null;
+			size = readSize();
+			if (size >= 0) {
+				nea = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					String id = readString();
+					Object[] values = readValues(2);
+					List<GeTaRef> refs = null;
+					int refCount = readSize();
+					if (refCount >= 0) {
+						refs = new ArrayList<>(refCount);
+						for (int j = 0; j < refCount; j++) {
+							String wid = readString();
+							refs.add(new GeTaRef(wid, readStrings()));
+						}
+					}
+					nea.add(new GeTaNEA(id, (String) values[1], (String) values[0], refs, readALs()));
+				}
+			}
+			GeTaMetaEA metaea = null;
+			if (in.readBoolean()) {
+				String id = readString();
+				Object[] v = readValues(7);
+				metaea = new GeTaMetaEA(id, (String) v[0], (String) v[1], (String) v[2], (String) v[3], (String) v[4], (String) v[5],
+						readStrings(), null, null, (String) v[6]);
+			}
+			if (in.read() != -1) {
+				throw new IOException("Unexpected data at the end of the snapshot.");
+			}
+			return new GeTaModelSnapshot(ea, tea, dea, nea, metaea);
+		}
+
+		private GeTaEA readEA() throws IOException {
+			Integer scr = readInteger();
+			Integer tr = readInteger();
+			List<GeTaFidalword> fidalwords = null;
+			int size = readSize();
+			if (size >= 0) {
+				fidalwords = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					String id = readString();
+					String fid = readString();
+					String fided = readString();
+					String wordTr = readString();
+					List<String> sid = readStrings();
+					List<String> qid = readStrings();
+					List<String> tid = readStrings();
+					String ne = readString();
+					String comm = readString();
+					List<GeTaFC> fcs = null;
+					int fcCount = readSize();
+					if (fcCount >= 0) {
+						fcs = new ArrayList<>(fcCount);
+						for (int j = 0; j < fcCount; j++) {
+							fcs.add(readFC());
+						}
+					}
+					fidalwords.add(new GeTaFidalword(id, fid, fided, wordTr, sid, qid, tid, ne, comm, fcs));
+				}
+			}
+			return new GeTaEA(tr, scr, fidalwords);
+		}
+
+		private GeTaFC readFC() throws IOException {
+			Object[] v = readValues(5);
+			GeTaEd ed = null;
+			if (in.readBoolean()) {
+				ed = new GeTaEd(readLTs());
+			}
+			List<GeTaLL> lls = null;
+			int size = readSize();
+			if (size >= 0) {
+				lls = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					String lat = readString();
+					lls.add(new GeTaLL(lat, readString()));
+				}
+			}
+			return new GeTaFC((String) v[0], (String) v[1], (String) v[2], (Integer) v[3], (Integer) v[4], ed, lls);
+		}
+
+		private GeTaM readM() throws IOException {
+			int reference = readVarInt();
+			if (reference != NEW) {
+				return readReference(reference, GeTaM.class);
+			}
+			Boolean ne = readBoolean();
+			GeTaM m = GeTaM.create(ne, readLTs());
+			objects.add(m);
+			return m;
+		}
+
+		private List<GeTaLT> readLTs() throws IOException {
+			int size = readSize();
+			if (size < 0) {
+				return null;
+			}
+			List<GeTaLT> lts = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				int reference = readVarInt();
+				if (reference != NEW) {
+					lts.add(readReference(reference, GeTaLT.class));
+					continue;
+				}
+				String nt = readString();
+				GeTaLT lt = GeTaLT.create(nt, readALs());
+				objects.add(lt);
+				lts.add(lt);
+			}
+			return lts;
+		}
+
+		private List<GeTaAL> readALs() throws IOException {
+			int size = readSize();
+			if (size < 0) {
+				return null;
+			}
+			List<GeTaAL> als = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				int reference = readVarInt();
+				if (reference != NEW) {
+					als.add(readReference(reference, GeTaAL.class));
+					continue;
+				}
+				// An AL has at most four name-value pairs, unused pairs are null
+				String[] pairs = new String[8];
+				int count = readVarInt();
+				if (count > 4) {
+					throw new IOException("Invalid AL with " + count + " annotations.");
+				}
+				for (int j = 0; j < count * 2; j++) {
+					pairs[j] = readString();
+				}
+				GeTaAL al = GeTaAL.create(pairs[0], pairs[1], pairs[2], pairs[3], pairs[4], pairs[5], pairs[6], pairs[7]);
+				objects.add(al);
+				als.add(al);
+			}
+			return als;
+		}
+
+		private <T> T readReference(int reference, Class<T> type) throws IOException {
+			if (reference == NULL) {
+				return null;
+			}
+			int index = reference - TABLE_OFFSET;
+			if (index < 0 || index >= objects.size() || !type.isInstance(objects.get(index))) {
+				throw new IOException("Invalid reference " + reference + " to a " + type.getSimpleName() + ".");
+			}
+			return type.cast(objects.get(index));
+		}
+
+		private Object[] readValues(int expectedCount) throws IOException {
+			int count = readVarInt();
+			if (count != expectedCount) {
+				throw new IOException("Expected " + expectedCount + " annotation values, found " + count + ".");
+			}
+			Object[] values = new Object[count];
+			for (int i = 0; i < count; i++) {
+				int tag = in.readByte();
+				if (tag == VALUE_INTEGER) {
+					values[i] = in.readInt();
+				}
+				else if (tag == VALUE_STRING) {
+					values[i] = readString();
+				}
+				else if (tag != VALUE_NULL) {
+					throw new IOException("Invalid value tag " + tag + ".");
+				}
+			}
+			return values;
+		}
+
+		private List<String> readStrings() throws IOException {
+			int size = readSize();
+			if (size < 0) {
+				return null;
+			}
+			List<String> values = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				values.add(readString());
+			}
+			return values;
+		}
+
+		private String readString() throws IOException {
+			int reference = readVarInt();
+			if (reference == NULL) {
+				return null;
+			}
+			if (reference != NEW) {
+				int index = reference - TABLE_OFFSET;
+				if (index >= strings.size()) {
+					throw new IOException("Invalid string reference " + reference + ".");
+				}
+				return strings.get(index);
+			}
+			byte[] bytes = new byte[readVarInt()];
+			in.readFully(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			strings.add(value);
+			return value;
+		}
+
+		private Integer readInteger() throws IOException {
+			return in.readBoolean() ? Integer.valueOf(in.readInt()) : null;
+		}
+
+		private Boolean readBoolean() throws IOException {
+			int value = in.readByte();
+			if (value == 0) {
+				return null;
+			}
+			return value == 2;
+		}
+
+		/**
+		 * Reads the size of a list.
+		 *
+		 * @return The size, or -1 if the list is `null`
+		 */
+		private int readSize() throws IOException {
+			return readVarInt() - 1;
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int b = in.read();
+				if (b == -1) {
+					throw new EOFException();
+				}
+				value |= (b & 0x7f) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed variable-length integer.");
+		}
+
+	}
+
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The result of a counting pre-pass over an *EA.json file, which
+ * is used to pre-size the token list, linking indices and primary
+ * text buffer of a mapper, so that they don't need to grow while
+ * a large document is mapped.
+ * 
+ * The pre-pass only tokenizes the file, nothing is bound. The
+ * values of `Ed` objects and all other values which aren't
+ * counted are skipped. Tids and Sids are counted as distinct
+ * where they change from one LL object or fidalword to the next,
+ * which is exact for well-formed files, where the LL objects
+ * of a token and the fidalwords of a division are contiguous.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaPreScan {
+
+	private int fidalwordCount = 0;
+	private int llCount = 0;
+	private int tidCount = 0;
+	private int sidCount = 0;
+	private int neCount = 0;
+	private long textLength = 0;
+
+	private GeTaPreScan() {
+		// Created by scan()
+	}
+
+	/**
+	 * Counts the contents of an *EA.json file.
+	 *
+	 * @param eaInput The file to scan
+	 * @param factory The factory to create the parser with
+	 * @return The counts
+	 * @throws IOException if the file cannot be read or is not a valid EA file
+	 */
+	public static GeTaPreScan scan(GeTaInput eaInput, JsonFactory factory) throws IOException {
+		GeTaPreScan scan = new GeTaPreScan();
+		try (JsonParser parser = eaInput.createParser(factory)) {
+			scan.scanEA(parser);
+		}
+		return scan;
+	}
+
+	private void scanEA(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected an EA object.");
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (GeTaMapper.FIDALWORDS.equals(name) && value == JsonToken.START_ARRAY) {
+				List<String> lastSids = new ArrayList<>();
+				List<String> sids = new ArrayList<>();
+				String lastNE = null;
+				JsonToken element;
+				while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+					if (element == JsonToken.VALUE_NULL) {
+						continue;
+					}
+					if (element != JsonToken.START_OBJECT) {
+						throw new JsonParseException(parser, "Expected a fidalword object, but found " + element + ".");
+					}
+					fidalwordCount++;
+					sids.clear();
+					String ne = scanFidalword(parser, sids);
+					for (String sid : sids) {
+						if (!lastSids.contains(sid)) {
+							sidCount++;
+						}
+					}
+					if (ne != null && !ne.isEmpty() && !ne.equals(lastNE)) {
+						neCount++;
+					}
+					lastNE = ne;
+					List<String> swap = lastSids;
+					lastSids = sids;
+					sids = swap;
+				}
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		textLength += (long) fidalwordCount * GeTaMapper.WORD_SEPARATOR.length();
+	}
+
+	/**
+	 * Scans a fidalword object.
+	 *
+	 * @param parser The parser positioned on the start of the fidalword
+	 * @param sids The list to collect the fidalword's Sids in
+	 * @return The fidalword's NE value, or `null`
+	 * @throws IOException if the fidalword cannot be read
+	 */
+	private String scanFidalword(JsonParser parser, List<String> sids) throws IOException {
+		String ne = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (GeTaMapper.FC.equals(name) && value == JsonToken.START_ARRAY) {
+				String lastTid = null;
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					lastTid = scanFC(parser, lastTid);
+				}
+			}
+			else if (GeTaMapper.Sid.equals(name) && value == JsonToken.START_ARRAY) {
+				while (parser.nextToken() == JsonToken.VALUE_STRING) {
+					sids.add(parser.getText());
+				}
+			}
+			else if (GeTaMapper.NE.equals(name) && value == JsonToken.VALUE_STRING) {
+				ne = parser.getText();
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		return ne;
+	}
+
+	/**
+	 * Scans an FC object.
+	 *
+	 * @param parser The parser positioned on the start of the FC
+	 * @param lastTid The Tid of the preceding LL object in the same fidalword, or `null`
+	 * @return The Tid of the last LL object of this FC, or `lastTid` if it has none
+	 * @throws IOException if the FC cannot be read
+	 */
+	private String scanFC(JsonParser parser, String lastTid) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (GeTaMapper.LL.equals(name) && value == JsonToken.START_ARRAY) {
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					llCount++;
+					while (parser.nextToken() == JsonToken.FIELD_NAME) {
+						String llName = parser.getCurrentName();
+						JsonToken llValue = parser.nextToken();
+						if (GeTaMapper.LAT.equals(llName) && llValue == JsonToken.VALUE_STRING) {
+							textLength += parser.getTextLength();
+						}
+						else if (GeTaMapper.Tid.equals(llName) && llValue == JsonToken.VALUE_STRING) {
+							String tid = parser.getText();
+							if (!tid.equals(lastTid)) {
+								tidCount++;
+							}
+							lastTid = tid;
+						}
+						else {
+							parser.skipChildren();
+						}
+					}
+				}
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		return lastTid;
+	}
+
+	/**
+	 * @return the number of fidalwords
+	 */
+	public int getFidalwordCount() {
+		return fidalwordCount;
+	}
+
+	/**
+	 * @return the number of LL objects, i.e., tokens
+	 */
+	public int getLLCount() {
+		return llCount;
+	}
+
+	/**
+	 * @return the number of distinct Tids
+	 */
+	public int getTidCount() {
+		return tidCount;
+	}
+
+	/**
+	 * @return the number of distinct Sids
+	 */
+	public int getSidCount() {
+		return sidCount;
+	}
+
+	/**
+	 * @return the number of distinct word-level NE ids
+	 */
+	public int getNECount() {
+		return neCount;
+	}
+
+	/**
+	 * @return the length of the primary text, capped at `Integer.MAX_VALUE`
+	 */
+	public int getTextLength() {
+		return (int) Math.min(textLength, Integer.MAX_VALUE);
+	}
+
+}
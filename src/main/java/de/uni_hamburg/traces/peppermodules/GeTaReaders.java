@@ -0,0 +1,118 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.metaea.GeTaMetaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * A process-wide registry of {@link ObjectReader}s for the GeTa
+ * model types.
+ * 
+ * {@link ObjectReader}s are immutable and thread-safe, and fetch
+ * the deserializer for their root type eagerly. All readers are
+ * created from a single {@link ObjectMapper} when this class is
+ * initialized, so that the deserializers for the model types are
+ * built once per JVM rather than once per document. Call
+ * {@link #warmUp()} to trigger initialization ahead of the first
+ * document, e.g., on component activation.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaReaders {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final ObjectReader EA_READER = MAPPER.readerFor(GeTaEA.class);
+	private static final ObjectReader FIDALWORD_READER = MAPPER.readerFor(GeTaFidalword.class);
+	private static final ObjectReader TEA_READER = MAPPER.readerFor(new TypeReference<List<GeTaTEA>>() {
+	});
+	private static final ObjectReader DEA_READER = MAPPER.readerFor(new TypeReference<List<GeTaDEA>>() {
+	});
+	private static final ObjectReader NEA_READER = MAPPER.readerFor(new TypeReference<List<GeTaNEA>>() {
+	});
+	private static final ObjectReader METAEA_READER = MAPPER.readerFor(GeTaMetaEA.class);
+
+	private GeTaReaders() {
+		// Static registry
+	}
+
+	/**
+	 * Initializes the registry, i.e., builds the deserializers for
+	 * all model types, if this hasn't happened yet.
+	 */
+	public static void warmUp() {
+		// Initialization is done in the static initializers
+	}
+
+	/**
+	 * @return the reader for *EA.json files
+	 */
+	public static ObjectReader getEAReader() {
+		return EA_READER;
+	}
+
+	/**
+	 * @return the reader for single fidalword objects
+	 */
+	public static ObjectReader getFidalwordReader() {
+		return FIDALWORD_READER;
+	}
+
+	/**
+	 * @return the reader for *TEA.ann files
+	 */
+	public static ObjectReader getTEAReader() {
+		return TEA_READER;
+	}
+
+	/**
+	 * @return the reader for *DEA.ann files
+	 */
+	public static ObjectReader getDEAReader() {
+		return DEA_READER;
+	}
+
+	/**
+	 * @return the reader for *NEA.ann files
+	 */
+	public static ObjectReader getNEAReader() {
+		return NEA_READER;
+	}
+
+	/**
+	 * @return the reader for *MetaEA.ann files
+	 */
+	public static ObjectReader getMetaEAReader() {
+		return METAEA_READER;
+	}
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An index of the GeTa files in a directory, built while the
+ * directory is listed during corpus discovery.
+ * 
+ * The index maps the stem of each document, e.g., `doc` for
+ * `docEA.json`, to the sizes of the document's files, i.e., of its
+ * *EA.json file and its *TEA.ann, *DEA.ann, *NEA.ann and
+ * *MetaEA.ann siblings. Mappers resolve the files of a document
+ * through the index, so that missing and empty siblings are
+ * known without touching the file system.
+ * 
+ * Indices are filled by a single thread and are read-only
+ * afterwards.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaSiblingIndex {
+
+	/**
+	 * The files of a document, by the suffix following the stem.
+	 */
+	public enum Sibling {
+		/** The main file */
+		EA("EA.json"),
+		/** The token annotation file */
+		TEA("TEA.ann"),
+		/** The division annotation file */
+		DEA("DEA.ann"),
+		/** The named entity annotation file */
+		NEA("NEA.ann"),
+		/** The metadata annotation file */
+		METAEA("MetaEA.ann");
+
+		private final String suffix;
+
+		private Sibling(String suffix) {
+			this.suffix = suffix;
+		}
+
+		/**
+		 * @return the suffix following the stem in the file name
+		 */
+		public String getSuffix() {
+			return suffix;
+		}
+	}
+
+	private static final Sibling[] SIBLINGS = Sibling.values();
+
+	private final File directory;
+	// The sizes of the siblings by stem, indexed by ordinal, -1 for missing siblings
+	private final Map<String, long[]> sizes = new HashMap<>();
+
+	/**
+	 * Constructor for the index of a directory.
+	 *
+	 * @param directory The canonical directory
+	 */
+	public GeTaSiblingIndex(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Adds a file of the directory to the index. Files which aren't
+	 * a sibling of any document are ignored.
+	 *
+	 * @param name The name of the file
+	 * @param size The size of the file in bytes
+	 * @return whether the file has been added
+	 */
+	boolean add(String name, long size) {
+		for (Sibling sibling : SIBLINGS) {
+			if (name.endsWith(sibling.getSuffix())) {
+				String stem = name.substring(0, name.length() - sibling.getSuffix().length());
+				long[] stemSizes = sizes.get(stem);
+				if (stemSizes == null) {
+					stemSizes = new long[SIBLINGS.length];
+					Arrays.fill(stemSizes, -1);
+					sizes.put(stem, stemSizes);
+				}
+				stemSizes[sibling.ordinal()] = size;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the directory of the index
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @param stem The stem of a document
+	 * @param sibling The file of the document
+	 * @return the size of the file in bytes, or -1 if it doesn't exist
+	 */
+	public long getSize(String stem, Sibling sibling) {
+		long[] stemSizes = sizes.get(stem);
+		return stemSizes == null ? -1 : stemSizes[sibling.ordinal()];
+	}
+
+	/**
+	 * Creates the input for a file of a document without checking
+	 * the file system for it.
+	 *
+	 * @param stem The stem of a document
+	 * @param sibling The file of the document
+	 * @return The input for the file
+	 */
+	public GeTaInput open(String stem, Sibling sibling) {
+		File file = new File(directory, stem + sibling.getSuffix());
+		long size = getSize(stem, sibling);
+		return size < 0 ? GeTaInput.absent(file) : GeTaInput.open(file, size);
+	}
+
+}
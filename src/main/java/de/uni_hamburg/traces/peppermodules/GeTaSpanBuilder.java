@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.SSpanningRelation;
+import org.corpus_tools.salt.common.SToken;
+
+/**
+ * Creates spans over contiguous ranges of a token list, e.g., the
+ * tokens of a fidalword or of an FC object.
+ * 
+ * Ranges are given as positions in the token list shared with the
+ * linking indices, so that callers needn't collect the tokens of a
+ * span into a list of their own. Salt models coverage as one
+ * {@link SSpanningRelation} per span and token, which are added to
+ * the graph one by one, so the builder doesn't change the number of
+ * relations created.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaSpanBuilder {
+
+	private final SDocumentGraph graph;
+	private final List<SToken> tokens;
+
+	/**
+	 * Constructor setting the graph to create spans in and the token
+	 * list whose positions are used as ranges.
+	 *
+	 * @param graph The document graph
+	 * @param tokens The tokens of the graph in text order, only ever appended to
+	 */
+	public GeTaSpanBuilder(SDocumentGraph graph, List<SToken> tokens) {
+		this.graph = graph;
+		this.tokens = tokens;
+	}
+
+	/**
+	 * Creates a span over a range of tokens.
+	 *
+	 * @param start The position of the first token
+	 * @param end The position after the last token
+	 * @return The span
+	 */
+	public SSpan createSpan(int start, int end) {
+		return createSpans(start, end, 1)[0];
+	}
+
+	/**
+	 * Creates a number of spans with the same coverage, i.e., over
+	 * the same range of tokens.
+	 *
+	 * @param start The position of the first token
+	 * @param end The position after the last token
+	 * @param count The number of spans to create
+	 * @return The spans
+	 */
+	public SSpan[] createSpans(int start, int end, int count) {
+		SSpan[] spans = new SSpan[count];
+		for (int i = 0; i < count; i++) {
+			spans[i] = SaltFactory.createSSpan();
+			graph.addNode(spans[i]);
+		}
+		for (SSpan span : spans) {
+			addRelations(span, start, end);
+		}
+		return spans;
+	}
+
+	/**
+	 * Creates a span over a list of token ranges, e.g., the tokens
+	 * referenced by an NEA `ref`.
+	 *
+	 * @param ranges The ranges, in the order their tokens are to be spanned
+	 * @return The span
+	 */
+	public SSpan createSpan(GeTaTokenRanges ranges) {
+		SSpan span = SaltFactory.createSSpan();
+		graph.addNode(span);
+		for (int i = 0; i < ranges.size(); i++) {
+			addRelations(span, ranges.getStart(i), ranges.getEnd(i));
+		}
+		return span;
+	}
+
+	/**
+	 * Adds the spanning relations from a span to a range of tokens.
+	 *
+	 * @param span The span
+	 * @param start The position of the first token
+	 * @param end The position after the last token
+	 */
+	private void addRelations(SSpan span, int start, int end) {
+		for (int i = start; i < end; i++) {
+			SSpanningRelation relation = SaltFactory.createSSpanningRelation();
+			relation.setSource(span);
+			relation.setTarget(tokens.get(i));
+			graph.addRelation(relation);
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency metrics for a single stage of mapping a document,
+ * e.g., parsing or linking the TEA file.
+ * 
+ * Run times are recorded in a histogram with logarithmic
+ * buckets, i.e., bucket `i` counts runs which took between
+ * 2^i and 2^(i+1) nanoseconds. Percentiles are estimated as
+ * the upper bound of the bucket they fall into. Recording is
+ * lock-free and may be done from several mappers concurrently.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaStageMetrics implements GeTaStageMetricsMBean {
+
+	// Run times are non-negative longs, i.e., < 2^63
+	private static final int BUCKETS = 63;
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records a single run of the stage.
+	 *
+	 * @param nanos The run time of the stage in nanoseconds
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet(bucket(nanos));
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * @param nanos A run time in nanoseconds, `>= 0`
+	 * @return the index of the histogram bucket for the run time
+	 */
+	static int bucket(long nanos) {
+		return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	/**
+	 * Estimates a percentile of the recorded run times.
+	 *
+	 * @param percentile The percentile, `0 < percentile <= 100`
+	 * @return the upper bound of the bucket the percentile falls into
+	 * in nanoseconds, or 0 if nothing has been recorded
+	 */
+	long percentileNanos(double percentile) {
+		long[] histogram = getHistogram();
+		long total = 0;
+		for (long c : histogram) {
+			total += c;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			seen += histogram[i];
+			if (seen >= rank) {
+				return (1L << (i + 1)) - 1;
+			}
+		}
+		return maxNanos.get();
+	}
+
+	@Override
+	public long getCount() {
+		return count.get();
+	}
+
+	@Override
+	public double getTotalMillis() {
+		return totalNanos.get() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanMillis() {
+		long c = count.get();
+		return c == 0 ? 0 : totalNanos.get() / NANOS_PER_MILLI / c;
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return maxNanos.get() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMedianMillis() {
+		return percentileNanos(50) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getPercentile90Millis() {
+		return percentileNanos(90) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getPercentile99Millis() {
+		return percentileNanos(99) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public long[] getHistogram() {
+		long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = buckets.get(i);
+		}
+		return histogram;
+	}
+
+}
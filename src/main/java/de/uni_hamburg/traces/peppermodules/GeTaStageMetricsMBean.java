@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+/**
+ * Management interface of {@link GeTaStageMetrics}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public interface GeTaStageMetricsMBean {
+
+	/**
+	 * @return the number of times the stage has been run
+	 */
+	long getCount();
+
+	/**
+	 * @return the total time spent in the stage in milliseconds
+	 */
+	double getTotalMillis();
+
+	/**
+	 * @return the mean time per run of the stage in milliseconds
+	 */
+	double getMeanMillis();
+
+	/**
+	 * @return the maximum time of a single run of the stage in milliseconds
+	 */
+	double getMaxMillis();
+
+	/**
+	 * @return the upper bound of the median time per run in milliseconds
+	 */
+	double getMedianMillis();
+
+	/**
+	 * @return the upper bound of the 90th percentile time per run in milliseconds
+	 */
+	double getPercentile90Millis();
+
+	/**
+	 * @return the upper bound of the 99th percentile time per run in milliseconds
+	 */
+	double getPercentile99Millis();
+
+	/**
+	 * @return the latency histogram, where element `i` counts the runs
+	 * which took between 2^i and 2^(i+1) nanoseconds
+	 */
+	long[] getHistogram();
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+/**
+ * Parses GeTa token ids (Tids) of the form `T<n>><word id>`,
+ * e.g., `T0>Wf2e5da2f-322e-4eab-94df-19c2487220c3`, where `<n>`
+ * is the ordinal of the token in the fidalword, and `<word id>`
+ * is the `Id` of the fidalword.
+ * 
+ * Parsing does not allocate: the ordinal is read from the id in
+ * place, and the word id is compared via region matching.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaTid {
+
+	/**
+	 * Returned by {@link #parseOrdinal(String)} for malformed Tids.
+	 */
+	public static final int MALFORMED = -1;
+
+	private static final char TOKEN_PREFIX = 'T';
+	private static final char SEPARATOR = '>';
+	// Ordinals with more digits might overflow an int
+	private static final int MAX_ORDINAL_DIGITS = 9;
+
+	private GeTaTid() {
+		// Static utility class
+	}
+
+	/**
+	 * Parses the token ordinal of a Tid.
+	 *
+	 * @param tid The Tid
+	 * @return The ordinal of the token in its fidalword, or {@link #MALFORMED}
+	 */
+	public static int parseOrdinal(String tid) {
+		if (tid == null || tid.isEmpty() || tid.charAt(0) != TOKEN_PREFIX) {
+			return MALFORMED;
+		}
+		int ordinal = 0;
+		int i = 1;
+		for (; i < tid.length(); i++) {
+			char c = tid.charAt(i);
+			if (c == SEPARATOR) {
+				break;
+			}
+			if (c < '0' || c > '9' || i > MAX_ORDINAL_DIGITS) {
+				return MALFORMED;
+			}
+			ordinal = ordinal * 10 + (c - '0');
+		}
+		// At least one digit and a non-empty word id
+		if (i == 1 || i >= tid.length() - 1) {
+			return MALFORMED;
+		}
+		return ordinal;
+	}
+
+	/**
+	 * Returns the word id part of a well-formed Tid.
+	 *
+	 * @param tid The Tid, well-formed as per {@link #parseOrdinal(String)}
+	 * @return The id of the fidalword containing the token
+	 */
+	public static String getWordId(String tid) {
+		return tid.substring(tid.indexOf(SEPARATOR) + 1);
+	}
+
+	/**
+	 * Tests whether a well-formed Tid refers to a token in a fidalword.
+	 *
+	 * @param tid The Tid, well-formed as per {@link #parseOrdinal(String)}
+	 * @param wordId The `Id` of the fidalword
+	 * @return Whether the word id part of the Tid equals `wordId`
+	 */
+	public static boolean isInWord(String tid, String wordId) {
+		if (wordId == null) {
+			return false;
+		}
+		int start = tid.indexOf(SEPARATOR) + 1;
+		return tid.length() - start == wordId.length() && tid.regionMatches(start, wordId, 0, wordId.length());
+	}
+
+	/**
+	 * Describes why a Tid is malformed.
+	 *
+	 * @param tid The Tid
+	 * @return A diagnostic message for the Tid
+	 */
+	public static String describe(String tid) {
+		String problem;
+		if (tid == null || tid.isEmpty()) {
+			problem = "the id is empty";
+		}
+		else if (tid.charAt(0) != TOKEN_PREFIX) {
+			problem = "it doesn't start with '" + TOKEN_PREFIX + "'";
+		}
+		else if (tid.indexOf(SEPARATOR) < 0) {
+			problem = "it has no '" + SEPARATOR + "' separating ordinal and word id";
+		}
+		else if (tid.indexOf(SEPARATOR) == tid.length() - 1) {
+			problem = "the word id is missing";
+		}
+		else {
+			problem = "the token ordinal is not a number of 1 to " + MAX_ORDINAL_DIGITS + " digits";
+		}
+		return "Malformed Tid \"" + tid + "\": " + problem + ". Expected T<ordinal>><word id>, e.g., \"T0>Wf2e5da2f-322e-4eab-94df-19c2487220c3\".";
+	}
+
+}
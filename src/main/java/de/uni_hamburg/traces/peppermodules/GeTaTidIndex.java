@@ -0,0 +1,370 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.corpus_tools.salt.common.SToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Maps;
+
+/**
+ * An index from GeTa token ids (Tids) to the tokens they contain,
+ * keyed by (word index, token ordinal) rather than by Tid string.
+ * 
+ * Tids are parsed with {@link GeTaTid} when the LL objects are
+ * mapped. Each fidalword is assigned an index once, and the token
+ * ordinals of a word map to ids in a {@link GeTaTokenIndex} via a
+ * flat slot array. When resolving a Tid, its word is first compared
+ * in place with the word resolved last and the one after it, as
+ * annotation files usually follow the text order. Only otherwise is
+ * the word id cut out of the Tid and looked up by hash. The ordinal
+ * then indexes the word's slots.
+ * 
+ * Tids which are malformed or don't belong to the fidalword they
+ * occur in are reported once and kept in a String-keyed fallback
+ * index, so that they still link as before.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaTidIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(GeTaTidIndex.class);
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NONE = -1;
+	/*
+	 * Ordinals are slot indices, so a single Tid with a huge ordinal
+	 * would allocate slots for all ordinals below it. Ordinals beyond
+	 * these bounds are kept in the fallback index instead.
+	 */
+	private static final int MAX_SLOTS_PER_WORD = 1024;
+	// How far an ordinal may exceed the number of tokens seen in its word
+	private static final int MAX_ORDINAL_GAP = 16;
+
+	private final GeTaTokenIndex tokenIndex;
+	// Fallback for Tids which can't be parsed or don't match their word
+	private final GeTaTokenIndex irregularIndex;
+	private final Map<String, Integer> wordIndices;
+	private String[] wordIds;
+	// Per word, the first slot and the number of slots (one per ordinal)
+	private int[] wordSlotStarts;
+	private int[] wordSlotCounts;
+	// Per slot, the id in the token index, or NONE
+	private int[] slots;
+	private int wordCount = 0;
+	private int slotCount = 0;
+	// The word currently being mapped
+	private String currentWordId = null;
+	private int currentWord = NONE;
+	// The number of tokens added to the current word so far
+	private int currentWordTokens = 0;
+	// The word of the Tid resolved last, see resolveWord(String)
+	private int lastResolvedWord = NONE;
+	// The last Tid added, consecutive LL objects usually share a Tid
+	private String lastTid = null;
+	private int lastId = NONE;
+
+	/**
+	 * Constructor setting the token list whose positions are indexed.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 */
+	public GeTaTidIndex(List<SToken> tokens) {
+		this(tokens, INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor setting the token list whose positions are indexed,
+	 * and pre-sizing the index for an expected number of fidalwords
+	 * and Tids, e.g., from a {@link GeTaPreScan}. The index still grows
+	 * beyond the expected sizes if necessary.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 * @param expectedWords The expected number of fidalwords
+	 * @param expectedTids The expected number of distinct Tids
+	 */
+	public GeTaTidIndex(List<SToken> tokens, int expectedWords, int expectedTids) {
+		int wordCapacity = Math.max(expectedWords, INITIAL_CAPACITY);
+		int tidCapacity = Math.max(expectedTids, INITIAL_CAPACITY);
+		this.tokenIndex = new GeTaTokenIndex(tokens, tidCapacity, tidCapacity);
+		this.irregularIndex = new GeTaTokenIndex(tokens);
+		this.wordIndices = Maps.newHashMapWithExpectedSize(wordCapacity);
+		this.wordIds = new String[wordCapacity];
+		this.wordSlotStarts = new int[wordCapacity];
+		this.wordSlotCounts = new int[wordCapacity];
+		this.slots = new int[tidCapacity];
+	}
+
+	/**
+	 * Starts a new fidalword, to which all Tids added subsequently
+	 * are expected to belong.
+	 *
+	 * @param wordId The `Id` of the fidalword
+	 */
+	public void startWord(String wordId) {
+		currentWordId = wordId;
+		currentWordTokens = 0;
+		lastTid = null;
+		if (wordId == null || wordIndices.containsKey(wordId)) {
+			logger.warn("Fidalword Id \"{}\" is missing or not unique, linking its tokens by full Tid.", wordId);
+			currentWord = NONE;
+			return;
+		}
+		if (wordCount == wordSlotStarts.length) {
+			int capacity = grow(wordCount);
+			wordSlotStarts = Arrays.copyOf(wordSlotStarts, capacity);
+			wordSlotCounts = Arrays.copyOf(wordSlotCounts, capacity);
+			wordIds = Arrays.copyOf(wordIds, capacity);
+		}
+		currentWord = wordCount++;
+		wordIds[currentWord] = wordId;
+		wordIndices.put(wordId, currentWord);
+		wordSlotStarts[currentWord] = slotCount;
+		wordSlotCounts[currentWord] = 0;
+	}
+
+	/**
+	 * Adds the token at the given position to a Tid of the current
+	 * fidalword.
+	 *
+	 * @param tid The Tid
+	 * @param position The position of the token in the token list
+	 */
+	public void add(String tid, int position) {
+		currentWordTokens++;
+		if (lastTid == null || !lastTid.equals(tid)) {
+			lastTid = tid;
+			lastId = getId(tid);
+		}
+		if (lastId == NONE) {
+			irregularIndex.add(tid, position);
+		}
+		else {
+			tokenIndex.add(lastId, position);
+		}
+	}
+
+	/**
+	 * Returns the id in the token index for a Tid of the current
+	 * fidalword, assigning a new one if necessary.
+	 *
+	 * @param tid The Tid
+	 * @return The id, or `-1` if the Tid must be kept in the fallback index
+	 */
+	private int getId(String tid) {
+		int ordinal = GeTaTid.parseOrdinal(tid);
+		if (ordinal == GeTaTid.MALFORMED) {
+			if (irregularIndex.findId(tid) == NONE) {
+				logger.warn("{} Found in fidalword {}.", GeTaTid.describe(tid), currentWordId);
+			}
+			return NONE;
+		}
+		if (currentWord == NONE) {
+			return NONE;
+		}
+		if (!GeTaTid.isInWord(tid, currentWordId)) {
+			if (irregularIndex.findId(tid) == NONE) {
+				logger.warn("Tid \"{}\" doesn't belong to the fidalword {} it occurs in.", tid, currentWordId);
+			}
+			return NONE;
+		}
+		if (ordinal >= MAX_SLOTS_PER_WORD || ordinal >= currentWordTokens + MAX_ORDINAL_GAP) {
+			if (irregularIndex.findId(tid) == NONE) {
+				logger.warn("Tid \"{}\" has an ordinal far beyond the tokens of fidalword {}, linking it by full Tid.", tid, currentWordId);
+			}
+			return NONE;
+		}
+		// Tids which went to the fallback index before stay there
+		if (irregularIndex.size() > 0 && irregularIndex.findId(tid) != NONE) {
+			return NONE;
+		}
+		// The slots of the current word are the last ones, so they can grow
+		int slotStart = wordSlotStarts[currentWord];
+		while (wordSlotCounts[currentWord] <= ordinal) {
+			if (slotCount == slots.length) {
+				slots = Arrays.copyOf(slots, grow(slotCount));
+			}
+			slots[slotCount++] = NONE;
+			wordSlotCounts[currentWord]++;
+		}
+		int slot = slotStart + ordinal;
+		if (slots[slot] == NONE) {
+			slots[slot] = tokenIndex.newId();
+		}
+		return slots[slot];
+	}
+
+	/**
+	 * Returns a grown capacity for an array, without overflowing.
+	 *
+	 * @param length The current length of the array
+	 * @return The new length
+	 */
+	private static int grow(int length) {
+		int grown = length + (length >> 1) + 1;
+		return grown < 0 ? Integer.MAX_VALUE - 8 : grown;
+	}
+
+	/**
+	 * @param wordId The `Id` of a fidalword
+	 * @return The index of the fidalword, or `-1` if it is unknown
+	 */
+	public int findWord(String wordId) {
+		Integer word = wordIndices.get(wordId);
+		return word == null ? NONE : word;
+	}
+
+	/**
+	 * Returns the tokens of a Tid in the order they were added.
+	 *
+	 * @param tid The Tid
+	 * @return A new list of the tokens, or `null` if the Tid is unknown
+	 */
+	public ArrayList<SToken> getTokens(String tid) {
+		int ordinal = GeTaTid.parseOrdinal(tid);
+		int word = ordinal == GeTaTid.MALFORMED ? NONE : findWord(GeTaTid.getWordId(tid));
+		return getTokens(word, ordinal, tid);
+	}
+
+	/**
+	 * Returns the tokens of a Tid in a known fidalword in the order
+	 * they were added, e.g., for the TIDs of an NEA `ref` whose `WId`
+	 * has been resolved with {@link #findWord(String)}.
+	 *
+	 * @param word The index of the fidalword
+	 * @param tid The Tid
+	 * @return A new list of the tokens, or `null` if the Tid is unknown
+	 */
+	public ArrayList<SToken> getTokens(int word, String tid) {
+		int ordinal = GeTaTid.parseOrdinal(tid);
+		if (ordinal != GeTaTid.MALFORMED && (word == NONE || !GeTaTid.isInWord(tid, wordIds[word]))) {
+			return getTokens(tid);
+		}
+		return getTokens(word, ordinal, tid);
+	}
+
+	/**
+	 * Adds the token ranges of a Tid in a known fidalword to a list
+	 * of ranges, e.g., for the TIDs of an NEA `ref`. The Tid is
+	 * resolved as in {@link #getTokens(int, String)}, but its tokens
+	 * are not materialised. If the fidalword is unknown, or the Tid
+	 * doesn't belong to it, the word is resolved from the Tid itself.
+	 *
+	 * @param word The index of the fidalword, or `-1` if it is unknown
+	 * @param tid The Tid
+	 * @param ranges The ranges to add to
+	 * @return Whether the Tid is known
+	 */
+	public boolean addRanges(int word, String tid, GeTaTokenRanges ranges) {
+		int ordinal = GeTaTid.parseOrdinal(tid);
+		if (ordinal != GeTaTid.MALFORMED && (word == NONE || !GeTaTid.isInWord(tid, wordIds[word]))) {
+			// The word is unknown or not the Tid's own, so resolve it from the Tid
+			word = resolveWord(tid);
+		}
+		return addRanges(word, ordinal, tid, ranges);
+	}
+
+	/**
+	 * Adds the token ranges of a Tid to a list of ranges, e.g., for
+	 * the `Id` of a TEA object. The Tid is parsed once, and its word
+	 * is resolved via the word resolved last where possible.
+	 *
+	 * @param tid The Tid
+	 * @param ranges The ranges to add to
+	 * @return Whether the Tid is known
+	 */
+	public boolean addRanges(String tid, GeTaTokenRanges ranges) {
+		int ordinal = GeTaTid.parseOrdinal(tid);
+		int word = ordinal == GeTaTid.MALFORMED ? NONE : resolveWord(tid);
+		return addRanges(word, ordinal, tid, ranges);
+	}
+
+	private boolean addRanges(int word, int ordinal, String tid, GeTaTokenRanges ranges) {
+		boolean found = false;
+		if (word != NONE && ordinal != GeTaTid.MALFORMED && ordinal < wordSlotCounts[word]) {
+			int id = slots[wordSlotStarts[word] + ordinal];
+			if (id != NONE) {
+				tokenIndex.addRanges(id, ranges);
+				found = true;
+			}
+		}
+		if (irregularIndex.size() > 0) {
+			int id = irregularIndex.findId(tid);
+			if (id != NONE) {
+				irregularIndex.addRanges(id, ranges);
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Resolves the word of a well-formed Tid, trying the word resolved
+	 * last and the one after it before looking the word id up.
+	 *
+	 * @param tid The Tid, well-formed as per {@link GeTaTid#parseOrdinal(String)}
+	 * @return The index of the word, or `-1` if it is unknown
+	 */
+	private int resolveWord(String tid) {
+		int word = lastResolvedWord;
+		if (word != NONE) {
+			if (GeTaTid.isInWord(tid, wordIds[word])) {
+				return word;
+			}
+			if (word + 1 < wordCount && GeTaTid.isInWord(tid, wordIds[word + 1])) {
+				lastResolvedWord = word + 1;
+				return lastResolvedWord;
+			}
+		}
+		word = findWord(GeTaTid.getWordId(tid));
+		if (word != NONE) {
+			lastResolvedWord = word;
+		}
+		return word;
+	}
+
+	private ArrayList<SToken> getTokens(int word, int ordinal, String tid) {
+		ArrayList<SToken> tokens = null;
+		if (word != NONE && ordinal != GeTaTid.MALFORMED && ordinal < wordSlotCounts[word]) {
+			int id = slots[wordSlotStarts[word] + ordinal];
+			if (id != NONE) {
+				tokens = tokenIndex.getTokens(id);
+			}
+		}
+		if (irregularIndex.size() > 0) {
+			ArrayList<SToken> irregularTokens = irregularIndex.getTokens(tid);
+			if (irregularTokens != null) {
+				if (tokens == null) {
+					return irregularTokens;
+				}
+				tokens.addAll(irregularTokens);
+			}
+		}
+		return tokens;
+	}
+
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.corpus_tools.salt.common.SToken;
+
+import com.google.common.collect.Maps;
+
+/**
+ * An index from GeTa ids (Tids, Sids, NE ids) to the tokens
+ * they contain.
+ * 
+ * Each id is assigned a dense `int` once. Tokens are referenced by
+ * their position in a token list shared between indices, and the
+ * tokens of an id are stored as contiguous ranges of positions in
+ * primitive arrays. As the tokens of an id are usually adjacent in
+ * the document, most ids need a single range, regardless of how many
+ * tokens they contain.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaTokenIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NONE = -1;
+
+	private final List<SToken> tokens;
+	private final Map<String, Integer> ids;
+	// First and last range per id
+	private int[] heads;
+	private int[] tails;
+	// Ranges of token positions, [start, end), linked per id
+	private int[] starts;
+	private int[] ends;
+	private int[] nexts;
+	private int idCount = 0;
+	private int rangeCount = 0;
+
+	/**
+	 * Constructor setting the token list whose positions are indexed.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 */
+	public GeTaTokenIndex(List<SToken> tokens) {
+		this(tokens, INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor setting the token list whose positions are indexed,
+	 * and pre-sizing the index for an expected number of ids and
+	 * ranges, e.g., from a {@link GeTaPreScan}. The index still grows
+	 * beyond the expected sizes if necessary.
+	 *
+	 * @param tokens The token list, shared between indices and only ever appended to
+	 * @param expectedIds The expected number of ids
+	 * @param expectedRanges The expected number of ranges
+	 */
+	public GeTaTokenIndex(List<SToken> tokens, int expectedIds, int expectedRanges) {
+		this.tokens = tokens;
+		int idCapacity = Math.max(expectedIds, INITIAL_CAPACITY);
+		int rangeCapacity = Math.max(expectedRanges, INITIAL_CAPACITY);
+		this.ids = Maps.newHashMapWithExpectedSize(idCapacity);
+		this.heads = new int[idCapacity];
+		this.tails = new int[idCapacity];
+		this.starts = new int[rangeCapacity];
+		this.ends = new int[rangeCapacity];
+		this.nexts = new int[rangeCapacity];
+	}
+
+	/**
+	 * Returns the `int` id for a key, assigning the next free id if
+	 * the key hasn't been seen before.
+	 *
+	 * @param key The key, e.g., a Tid
+	 * @return The id for the key
+	 */
+	public int getId(String key) {
+		Integer id = ids.get(key);
+		if (id == null) {
+			id = newId();
+			ids.put(key, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Assigns the next free id without a key, for callers which
+	 * keep their own mapping from keys to ids.
+	 *
+	 * @return The new id
+	 */
+	public int newId() {
+		if (idCount == heads.length) {
+			heads = Arrays.copyOf(heads, idCount * 2);
+			tails = Arrays.copyOf(tails, idCount * 2);
+		}
+		heads[idCount] = NONE;
+		tails[idCount] = NONE;
+		return idCount++;
+	}
+
+	/**
+	 * @param key The key, e.g., a Tid
+	 * @return The id for the key, or `-1` if the key is unknown
+	 */
+	public int findId(String key) {
+		Integer id = ids.get(key);
+		return id == null ? NONE : id;
+	}
+
+	/**
+	 * Adds the token at the given position to the given key.
+	 *
+	 * @param key The key, e.g., a Tid
+	 * @param position The position of the token in the token list
+	 */
+	public void add(String key, int position) {
+		add(getId(key), position);
+	}
+
+	/**
+	 * Adds the token at the given position to the given id. Positions
+	 * must be added in ascending order; adding the position directly
+	 * after an id's last position extends its last range.
+	 *
+	 * @param id The id, see {@link #getId(String)}
+	 * @param position The position of the token in the token list
+	 */
+	public void add(int id, int position) {
+		add(id, position, position + 1);
+	}
+
+	/**
+	 * Adds the tokens in a range of positions to the given id, e.g.,
+	 * all tokens of a fidalword at once. Ranges must be added in
+	 * ascending order; a range starting directly after an id's last
+	 * position extends its last range.
+	 *
+	 * @param id The id, see {@link #getId(String)}
+	 * @param start The position of the first token in the token list
+	 * @param end The position after the last token
+	 */
+	public void add(int id, int start, int end) {
+		int tail = tails[id];
+		if (tail != NONE && ends[tail] == start) {
+			ends[tail] = end;
+			return;
+		}
+		if (rangeCount == starts.length) {
+			starts = Arrays.copyOf(starts, rangeCount * 2);
+			ends = Arrays.copyOf(ends, rangeCount * 2);
+			nexts = Arrays.copyOf(nexts, rangeCount * 2);
+		}
+		starts[rangeCount] = start;
+		ends[rangeCount] = end;
+		nexts[rangeCount] = NONE;
+		if (tail == NONE) {
+			heads[id] = rangeCount;
+		}
+		else {
+			nexts[tail] = rangeCount;
+		}
+		tails[id] = rangeCount;
+		rangeCount++;
+	}
+
+	/**
+	 * Returns the tokens of a key in the order they were added.
+	 *
+	 * @param key The key, e.g., a Tid
+	 * @return A new list of the tokens, or `null` if the key is unknown
+	 */
+	public ArrayList<SToken> getTokens(String key) {
+		int id = findId(key);
+		return id == NONE ? null : getTokens(id);
+	}
+
+	/**
+	 * Returns the tokens of an id in the order they were added.
+	 *
+	 * @param id The id, see {@link #getId(String)}
+	 * @return A new list of the tokens
+	 */
+	public ArrayList<SToken> getTokens(int id) {
+		int head = heads[id];
+		if (head != NONE && nexts[head] == NONE) {
+			return new ArrayList<>(tokens.subList(starts[head], ends[head]));
+		}
+		ArrayList<SToken> idTokens = new ArrayList<>();
+		for (int range = head; range != NONE; range = nexts[range]) {
+			idTokens.addAll(tokens.subList(starts[range], ends[range]));
+		}
+		return idTokens;
+	}
+
+	/**
+	 * Adds the ranges of an id to a list of ranges, without
+	 * materialising its tokens.
+	 *
+	 * @param id The id, see {@link #getId(String)}
+	 * @param ranges The ranges to add to
+	 */
+	public void addRanges(int id, GeTaTokenRanges ranges) {
+		for (int range = heads[id]; range != NONE; range = nexts[range]) {
+			ranges.add(starts[range], ends[range]);
+		}
+	}
+
+	/**
+	 * @return the number of ids in the index
+	 */
+	public int size() {
+		return idCount;
+	}
+
+	/**
+	 * @return the number of ranges stored for all ids
+	 */
+	int getRangeCount() {
+		return rangeCount;
+	}
+
+}
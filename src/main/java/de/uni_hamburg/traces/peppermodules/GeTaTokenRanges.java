@@ -0,0 +1,103 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of ranges of positions in a token list, e.g.,
+ * the tokens referenced by the Tids of an NEA `ref`.
+ * 
+ * A range starting directly after the last range extends it, so
+ * that the tokens of adjacent Tids end up in a single range.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public final class GeTaTokenRanges {
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	// Ranges of token positions, [start, end)
+	private int[] starts = new int[INITIAL_CAPACITY];
+	private int[] ends = new int[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Adds a range of token positions.
+	 *
+	 * @param start The position of the first token
+	 * @param end The position after the last token
+	 */
+	public void add(int start, int end) {
+		if (start >= end) {
+			return;
+		}
+		if (size > 0 && ends[size - 1] == start) {
+			ends[size - 1] = end;
+			return;
+		}
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+		}
+		starts[size] = start;
+		ends[size] = end;
+		size++;
+	}
+
+	/**
+	 * Removes all ranges.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return whether there are no ranges
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the number of ranges
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param range The index of a range
+	 * @return The position of the first token of the range
+	 */
+	public int getStart(int range) {
+		return starts[range];
+	}
+
+	/**
+	 * @param range The index of a range
+	 * @return The position after the last token of the range
+	 */
+	public int getEnd(int range) {
+		return ends[range];
+	}
+
+}
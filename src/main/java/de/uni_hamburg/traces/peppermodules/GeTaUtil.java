@@ -21,6 +21,8 @@ package de.uni_hamburg.traces.peppermodules;
 
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -32,6 +34,18 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class GeTaUtil {
 
+	/**
+	 * Maximum number of entries in each of the corpus-wide caches.
+	 */
+	public static final int CACHE_SIZE = 8192;
+
+	// Memo of URL validity per raw value
+	private static final ConcurrentMap<String, Boolean> URL_VALIDITY = new ConcurrentHashMap<>();
+	// Memo of generated HTML links per URL and label
+	private static final ConcurrentMap<LinkKey, String> LINKS = new ConcurrentHashMap<>();
+	// Normalised annotation keys per raw key, interned once per JVM
+	private static final ConcurrentMap<String, String> NORMALISED_KEYS = new ConcurrentHashMap<>();
+
 	/**
 	 * Joins a list of strings.
 	 *
@@ -44,23 +58,156 @@ public class GeTaUtil {
 
 	/**
 	 * Tests whether a string represents a valid {@link java.net.URL}.
+	 * 
+	 * Strings without a `:` can't have a protocol and are rejected
+	 * without constructing a {@link java.net.URL}. Results for all
+	 * other strings are memoized corpus-wide, as the same lexicon
+	 * and authority URLs recur throughout a corpus.
 	 *
 	 * @param rawValue THe raw string to check for validity
 	 * @return Whether the string represents a valid {@link java.net.URL}
 	 */
 	public static boolean isValidJavaNetURL(String rawValue) {
-		if (rawValue != null) {
-			try {
-				new URL(rawValue);
-				return true;
+		if (rawValue == null || rawValue.indexOf(':') < 0) {
+			return false;
+		}
+		Boolean isValid = URL_VALIDITY.get(rawValue);
+		if (isValid == null) {
+			isValid = putIfAbsent(URL_VALIDITY, CACHE_SIZE, rawValue, parseJavaNetURL(rawValue));
+		}
+		return isValid;
+	}
+
+	/**
+	 * Tests whether a string can be parsed as a {@link java.net.URL}.
+	 *
+	 * @param rawValue The raw string to parse
+	 * @return Whether the string could be parsed
+	 */
+	private static boolean parseJavaNetURL(String rawValue) {
+		try {
+			new URL(rawValue);
+			return true;
+		}
+		catch (Exception e) {
+			// R value is not a valid URL, so leave as is.
+			return false;
+		}
+	}
+
+	/**
+	 * Returns an HTML link, i.e., `<a href="url">label</a>`. Links
+	 * are memoized corpus-wide, so that annotations linking to the
+	 * same lemma or authority share a single string.
+	 *
+	 * @param url The URL to link to
+	 * @param label The label of the link
+	 * @return The HTML link
+	 */
+	public static String createLink(String url, String label) {
+		LinkKey key = new LinkKey(url, label);
+		String link = LINKS.get(key);
+		if (link == null) {
+			link = putIfAbsent(LINKS, CACHE_SIZE, key, "<a href=\"" + url + "\">" + label + "</a>");
+		}
+		return link;
+	}
+
+	/**
+	 * Normalises an annotation key by replacing each whitespace
+	 * character with `-`, i.e., `key.replaceAll("\\s", "-")`,
+	 * without compiling a regular expression.
+	 * 
+	 * The key vocabulary (GeTa field names and AL attribute names)
+	 * is small, so normalised keys are interned and cached once
+	 * per JVM, up to {@link #CACHE_SIZE} keys.
+	 *
+	 * @param key The key to normalise, not `null`
+	 * @return The interned normalised key
+	 */
+	public static String normaliseKey(String key) {
+		String normalised = NORMALISED_KEYS.get(key);
+		if (normalised == null) {
+			normalised = replaceWhitespace(key);
+			if (NORMALISED_KEYS.size() < CACHE_SIZE) {
+				normalised = normalised.intern();
+				NORMALISED_KEYS.putIfAbsent(key, normalised);
 			}
-			catch (Exception e) {
-				// R value is not a valid URL, so leave as is.
-				return false;
+		}
+		return normalised;
+	}
+
+	/**
+	 * Replaces each character matched by the regular expression
+	 * `\s` with `-`.
+	 *
+	 * @param key The string to replace whitespace in
+	 * @return The string without whitespace, or `key` if it contains none
+	 */
+	private static String replaceWhitespace(String key) {
+		char[] chars = null;
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+				if (chars == null) {
+					chars = key.toCharArray();
+				}
+				chars[i] = '-';
 			}
 		}
-		else {
-			return false;
+		return chars == null ? key : new String(chars);
+	}
+
+	/**
+	 * Adds a value to a corpus-wide cache unless the cache already
+	 * holds a value for the key, and returns the cached value.
+	 * 
+	 * Lookups on a {@link ConcurrentHashMap} don't lock, so the
+	 * cache doesn't serialise the threads parsing in parallel. The
+	 * cache is bounded by clearing it once it holds `capacity`
+	 * entries rather than by evicting single entries, as only misses
+	 * pay for the size check and entries are cheap to recompute.
+	 *
+	 * @param cache The cache to add the value to
+	 * @param capacity The maximum number of entries in the cache
+	 * @param key The key
+	 * @param value The value to add if the key isn't cached yet
+	 * @return The cached value for the key
+	 */
+	public static <K, V> V putIfAbsent(ConcurrentMap<K, V> cache, int capacity, K key, V value) {
+		if (cache.size() >= capacity) {
+			cache.clear();
+		}
+		V existing = cache.putIfAbsent(key, value);
+		return existing == null ? value : existing;
+	}
+
+	/**
+	 * Key for memoized links.
+	 */
+	private static final class LinkKey {
+
+		private final String url;
+		private final String label;
+
+		private LinkKey(String url, String label) {
+			this.url = url;
+			this.label = label;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (url == null ? 0 : url.hashCode()) + (label == null ? 0 : label.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof LinkKey)) {
+				return false;
+			}
+			LinkKey other = (LinkKey) obj;
+			return (url == null ? other.url == null : url.equals(other.url))
+					&& (label == null ? other.label == null : label.equals(other.label));
 		}
 	}
 
@@ -19,14 +19,11 @@
  */
 package de.uni_hamburg.traces.peppermodules.model.dea;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 
 /**
@@ -35,9 +32,26 @@ import de.uni_hamburg.traces.peppermodules.GeTaMapper;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaDEA {
+public class GeTaDEA extends GeTaAnnotatedBase<String> {
 	
-	final Map<String, String> annotations = new HashMap<>();
+	private static final String[] ANNOTATION_KEYS = {
+			GeTaMapper.Id,
+			GeTaMapper.WB,
+			GeTaMapper.WE,
+			GeTaMapper.NRI,
+			GeTaMapper.NR,
+			GeTaMapper.LE,
+			GeTaMapper.G,
+			GeTaMapper.C,
+			GeTaMapper.DP,
+			GeTaMapper.NA,
+			GeTaMapper.CR,
+			GeTaMapper.HWB,
+			GeTaMapper.HWE };
+	// Indices of the slots in ANNOTATION_KEYS which are used for linking
+	private static final int WB_INDEX = 1;
+	private static final int WE_INDEX = 2;
+	private static final int DP_INDEX = 8;
 	private String id;
 	private List<String> dc;
 	
@@ -76,39 +90,41 @@ public class GeTaDEA {
 			@JsonProperty(GeTaMapper.HWB) String hwb, 
 			@JsonProperty(GeTaMapper.HWE) String hwe, 
 			@JsonProperty(GeTaMapper.DC) List<String> dc) {
+		super(ANNOTATION_KEYS, new String[] { id, wb, we, nri, nr, le, g, c, dp, na, cr, hwb, hwe });
 		this.id = id;
 		this.dc = dc;
-		annotations.put(GeTaMapper.Id, id);
-		annotations.put(GeTaMapper.WB, wb);
-		annotations.put(GeTaMapper.WE, we);
-		annotations.put(GeTaMapper.NRI, nri);
-		annotations.put(GeTaMapper.NR, nr);
-		annotations.put(GeTaMapper.LE, le);
-		annotations.put(GeTaMapper.G, g);
-		annotations.put(GeTaMapper.C, c);
-		annotations.put(GeTaMapper.DP, dp);
-		annotations.put(GeTaMapper.NA, na);
-		annotations.put(GeTaMapper.CR, cr);
-		annotations.put(GeTaMapper.HWB, hwb);
-		annotations.put(GeTaMapper.HWE, hwe);
-		// Remove null values from map
-		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
 	}
 
 
 	/**
-	 * @return the annotations
+	 * @return the id
 	 */
-	public final Map<String, String> getAnnotations() {
-		return annotations;
+	public final String getId() {
+		return id;
 	}
 
 
 	/**
-	 * @return the id
+	 * @return the `Id` of the first fidalword in the division
 	 */
-	public final String getId() {
-		return id;
+	public final String getWb() {
+		return getAnnotationValue(WB_INDEX);
+	}
+
+
+	/**
+	 * @return the `Id` of the last fidalword in the division
+	 */
+	public final String getWe() {
+		return getAnnotationValue(WE_INDEX);
+	}
+
+
+	/**
+	 * @return the `Id` of the parent division
+	 */
+	public final String getDp() {
+		return getAnnotationValue(DP_INDEX);
 	}
 
 
@@ -19,6 +19,8 @@
  */
 package de.uni_hamburg.traces.peppermodules.model.ea;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -41,7 +43,8 @@ public class GeTaEA {
 
 	/**
 	 * This is a constructor working as a {@link JsonCreator}, i.e.,
-	 * the mapping of {@link GeTaEA} objects starts here.
+	 * the mapping of {@link GeTaEA} objects starts here. `null`
+	 * elements of the fidalwords list are dropped.
 	 * 
 	 * @param scr
 	 * @param tr
@@ -54,6 +57,10 @@ public class GeTaEA {
 			@JsonProperty(GeTaMapper.FIDALWORDS) List<GeTaFidalword> fidalwords) {
 		this.scr = scr;
 		this.tr = tr;
+		if (fidalwords != null && fidalwords.contains(null)) {
+			fidalwords = new ArrayList<>(fidalwords);
+			fidalwords.removeAll(Collections.singleton(null));
+		}
 		this.fidalwords = fidalwords;
 	}
 
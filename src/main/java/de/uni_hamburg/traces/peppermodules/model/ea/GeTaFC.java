@@ -21,14 +21,12 @@ package de.uni_hamburg.traces.peppermodules.model.ea;
 
 import java.util.HashMap; 
 import java.util.List;
-import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 
 /**
@@ -37,9 +35,14 @@ import de.uni_hamburg.traces.peppermodules.GeTaMapper;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaFC {
+public class GeTaFC extends GeTaAnnotatedBase<Object> {
 	
-	private final Map<String, Object> annotations = new HashMap<>();
+	private static final String[] ANNOTATION_KEYS = {
+			GeTaMapper.FIDLET,
+			GeTaMapper.FIDLETED,
+			GeTaMapper.TRFID,
+			GeTaMapper.pLB,
+			GeTaMapper.pPB };
 	private List<GeTaLL> ll;
 	private GeTaEd ed;
 
@@ -63,15 +66,9 @@ public class GeTaFC {
 			@JsonProperty(GeTaMapper.pPB) Integer ppb,
 			@JsonProperty(GeTaMapper.Ed) GeTaEd ed,
 			@JsonProperty(GeTaMapper.LL) List<GeTaLL> ll) {
+				super(ANNOTATION_KEYS, new Object[] { fidlet, fidleted, trfid, plb, ppb });
 				this.ll = ll;
 				this.ed = ed;
-				annotations.put(GeTaMapper.FIDLET, fidlet);
-				annotations.put(GeTaMapper.FIDLETED, fidleted);
-				annotations.put(GeTaMapper.TRFID, trfid);
-				annotations.put(GeTaMapper.pLB, plb);
-				annotations.put(GeTaMapper.pPB, ppb);
-				// Remove null values from map
-				Iterables.removeIf(annotations.keySet(), Predicates.isNull());
 	}
 
 	/**
@@ -81,13 +78,6 @@ public class GeTaFC {
 		return ll;
 	}
 
-	/**
-	 * @return the annotations
-	 */
-	public final Map<String, Object> getAnnotations() {
-		return annotations;
-	}
-
 	/**
 	 * @return the ed
 	 */
@@ -21,14 +21,12 @@ package de.uni_hamburg.traces.peppermodules.model.ea;
 
 import java.util.HashMap; 
 import java.util.List;
-import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 import de.uni_hamburg.traces.peppermodules.GeTaUtil;
 
@@ -38,7 +36,7 @@ import de.uni_hamburg.traces.peppermodules.GeTaUtil;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaFidalword {
+public class GeTaFidalword extends GeTaAnnotatedBase<String> {
 
 	private String id;
 	private String fid;
@@ -51,7 +49,16 @@ public class GeTaFidalword {
 	private String comm;
 	private List<GeTaFC> fc;
 
-	private final Map<String, String> annotations = new HashMap<>();
+	// Exclude TR otherwise it'll be duplicated in ANNIS grid
+	private static final String[] ANNOTATION_KEYS = {
+			GeTaMapper.Id,
+			GeTaMapper.FID,
+			GeTaMapper.FIDED,
+			GeTaMapper.Sid,
+			GeTaMapper.Qid,
+			GeTaMapper.Tid,
+			GeTaMapper.NE,
+			GeTaMapper.Comm };
 
 	/**
 	 * Constructor creating a JSON representation.
@@ -79,31 +86,30 @@ public class GeTaFidalword {
 			@JsonProperty(GeTaMapper.NE) String ne,
 			@JsonProperty(GeTaMapper.Comm) String comm, 
 			@JsonProperty(GeTaMapper.FC) List<GeTaFC> fc) {
+		super(ANNOTATION_KEYS, new String[] {
+				id,
+				fid,
+				fided,
+				GeTaUtil.join(sid),
+				GeTaUtil.join(qid),
+				GeTaUtil.join(tid),
+				ne,
+				comm });
 		this.id = id;
+		this.fid = fid;
 		this.sid = sid;
 		this.qid = qid;
 		this.tid = tid;
 		this.fc = fc;
 		this.fided = fided;
 		this.ne = ne;
+		this.comm = comm;
 		/* 
 		 * Treat TR extra, as it will have to be applied
 		 * to its own span to make multiple segmentation
 		 * visualization work.
 		 */
 		this.tr = tr;
-		annotations.put(GeTaMapper.Id, id);
-		annotations.put(GeTaMapper.FID, fid);
-		annotations.put(GeTaMapper.FIDED, fided);
-		// Exclude TR otherwise it'll be duplicated in ANNIS grid
-//		annotations.put(GeTaMapper.TR, tr);
-		annotations.put(GeTaMapper.Sid, GeTaUtil.join(sid));
-		annotations.put(GeTaMapper.Qid, GeTaUtil.join(qid));
-		annotations.put(GeTaMapper.Tid, GeTaUtil.join(tid));
-		annotations.put(GeTaMapper.NE, ne);
-		annotations.put(GeTaMapper.Comm, comm);
-		// Remove null values from map
-		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
 	}
 
 	/**
@@ -176,11 +182,4 @@ public class GeTaFidalword {
 		return fc;
 	}
 
-	/**
-	 * @return the annotations
-	 */
-	public final Map<String, String> getAnnotations() {
-		return annotations;
-	}
-
 }
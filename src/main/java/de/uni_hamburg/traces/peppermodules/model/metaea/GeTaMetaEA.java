@@ -19,16 +19,13 @@
  */
 package de.uni_hamburg.traces.peppermodules.model.metaea;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 
 /**
@@ -38,9 +35,16 @@ import de.uni_hamburg.traces.peppermodules.GeTaMapper;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaMetaEA {
+public class GeTaMetaEA extends GeTaAnnotatedBase<Object> {
 	
-	private final Map<String, Object> annotations = new HashMap<>();
+	private static final String[] ANNOTATION_KEYS = {
+			GeTaMapper.ANNOT,
+			GeTaMapper.SOFT,
+			GeTaMapper.NAME,
+			GeTaMapper.LANG,
+			GeTaMapper.DATE,
+			GeTaMapper.EDITION,
+			GeTaMapper.Comm };
 	private String id;
 	private List<String> parts;
 	
@@ -72,24 +76,9 @@ public class GeTaMetaEA {
 			@JsonProperty(GeTaMapper.TR) Integer tr,
 			@JsonProperty(GeTaMapper.SCR) Integer scr,
 			@JsonProperty(GeTaMapper.Comm) String comm) {
+		super(ANNOTATION_KEYS, new Object[] { annot, soft, name, lang, date, edition, comm });
 		this.id = id;
 		this.parts = parts;
-		annotations.put(GeTaMapper.ANNOT, annot);
-		annotations.put(GeTaMapper.SOFT, soft);
-		annotations.put(GeTaMapper.NAME, name);
-		annotations.put(GeTaMapper.LANG, lang);
-		annotations.put(GeTaMapper.DATE, date);
-		annotations.put(GeTaMapper.EDITION, edition);
-		annotations.put(GeTaMapper.Comm, comm);
-		// Remove null values from map
-		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
-	}
-
-	/**
-	 * @return the annotations
-	 */
-	public final Map<String, Object> getAnnotations() {
-		return annotations;
 	}
 
 	/**
@@ -21,13 +21,11 @@ package de.uni_hamburg.traces.peppermodules.model.nea;
 
 import java.util.HashMap; 
 import java.util.List;
-import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 import de.uni_hamburg.traces.peppermodules.model.tea.GeTaAL;
 
@@ -37,10 +35,10 @@ import de.uni_hamburg.traces.peppermodules.model.tea.GeTaAL;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaNEA {
+public class GeTaNEA extends GeTaAnnotatedBase<String> {
 	
 	private String id;
-	private final Map<String, String> annotations = new HashMap<>();
+	private static final String[] ANNOTATION_KEYS = { GeTaMapper.T, GeTaMapper.R };
 	private List<GeTaRef> ref;
 	private List<GeTaAL> feat;
 	private String r;
@@ -60,14 +58,11 @@ public class GeTaNEA {
 			@JsonProperty(GeTaMapper.T) String t,
 			@JsonProperty(GeTaMapper.ref) List<GeTaRef> ref,
 			@JsonProperty(GeTaMapper.feat) List<GeTaAL> feat) {
+		super(ANNOTATION_KEYS, new String[] { t, r });
 		this.id = id;
 		this.ref = ref;
 		this.feat = feat;
 		this.r = r;
-		annotations.put(GeTaMapper.T, t);
-		annotations.put(GeTaMapper.R, r);
-		// Remove null values from map
-		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
 	}
 
 	/**
@@ -77,13 +72,6 @@ public class GeTaNEA {
 		return id;
 	}
 
-	/**
-	 * @return the annotations
-	 */
-	public final Map<String, String> getAnnotations() {
-		return annotations;
-	}
-
 	/**
 	 * @return the ref
 	 */
@@ -19,6 +19,7 @@
  */
 package de.uni_hamburg.traces.peppermodules.model.tea;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,21 +28,32 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotations;
+import de.uni_hamburg.traces.peppermodules.GeTaInterner;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
+import de.uni_hamburg.traces.peppermodules.GeTaUtil;
 
 /**
  * A bean representing an **AL** section in GeTa data.
+ * 
+ * ALs are immutable, and identical ALs are shared: Jackson creates
+ * them via {@link #create(String, String, String, String, String, String, String, String)},
+ * which returns a canonical instance from a corpus-wide cache.
  *
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
 public class GeTaAL {
 
-	private final Map<String, String> annotations = new HashMap<>();
+	// Canonical ALs by their raw property values
+	private static final GeTaInterner<GeTaAL> CANONICAL_ALS = new GeTaInterner<>(8, GeTaUtil.CACHE_SIZE);
 
+	private final Map<String, String> annotations;
+	private final GeTaAnnotations bundle;
+	private final int hash;
 
 	/**
-	 * Constructor creating a JSON representation.
+	 * Constructor creating an AL from the property names and values.
 	 * 
 	 * @param n1
 	 * @param v1
@@ -52,17 +64,44 @@ public class GeTaAL {
 	 * @param n
 	 * @param v
 	 */
-	@JsonCreator
-	public GeTaAL(@JsonProperty(GeTaMapper.N1) String n1, @JsonProperty(GeTaMapper.V1) String v1,
-			@JsonProperty(GeTaMapper.N2) String n2, @JsonProperty(GeTaMapper.V2) String v2,
-			@JsonProperty(GeTaMapper.N3) String n3, @JsonProperty(GeTaMapper.V3) String v3,
-			@JsonProperty(GeTaMapper.N) String n, @JsonProperty(GeTaMapper.V) String v) {
+	public GeTaAL(String n1, String v1, String n2, String v2, String n3, String v3, String n, String v) {
+		Map<String, String> annotations = new HashMap<>();
 		annotations.put(n1, v1);
 		annotations.put(n2, v2);
 		annotations.put(n3, v3);
 		annotations.put(n, v);
 		// Remove null values from map
 		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
+		this.annotations = Collections.unmodifiableMap(annotations);
+		this.bundle = GeTaAnnotations.of(annotations);
+		this.hash = annotations.hashCode();
+	}
+
+	/**
+	 * Factory method creating a JSON representation, returning
+	 * the canonical instance for the property names and values.
+	 * 
+	 * @param n1
+	 * @param v1
+	 * @param n2
+	 * @param v2
+	 * @param n3
+	 * @param v3
+	 * @param n
+	 * @param v
+	 * @return The canonical AL
+	 */
+	@JsonCreator
+	public static GeTaAL create(@JsonProperty(GeTaMapper.N1) String n1, @JsonProperty(GeTaMapper.V1) String v1,
+			@JsonProperty(GeTaMapper.N2) String n2, @JsonProperty(GeTaMapper.V2) String v2,
+			@JsonProperty(GeTaMapper.N3) String n3, @JsonProperty(GeTaMapper.V3) String v3,
+			@JsonProperty(GeTaMapper.N) String n, @JsonProperty(GeTaMapper.V) String v) {
+		GeTaInterner.Key key = CANONICAL_ALS.newKey().set(0, n1).set(1, v1).set(2, n2).set(3, v2).set(4, n3).set(5, v3).set(6, n).set(7, v);
+		GeTaAL al = CANONICAL_ALS.get(key);
+		if (al == null) {
+			al = CANONICAL_ALS.intern(key, new GeTaAL(n1, v1, n2, v2, n3, v3, n, v));
+		}
+		return al;
 	}
 
 	/**
@@ -72,4 +111,28 @@ public class GeTaAL {
 		return annotations;
 	}
 
+	/**
+	 * @return the annotations as a pre-normalised bundle
+	 */
+	public final GeTaAnnotations getBundle() {
+		return bundle;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GeTaAL)) {
+			return false;
+		}
+		GeTaAL other = (GeTaAL) obj;
+		return hash == other.hash && annotations.equals(other.annotations);
+	}
+
 }
@@ -24,30 +24,56 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import de.uni_hamburg.traces.peppermodules.GeTaInterner;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
+import de.uni_hamburg.traces.peppermodules.GeTaUtil;
 
 /**
  * A bean representing an **LT** section in GeTa data.
+ * 
+ * LTs are immutable, and identical LTs are shared: Jackson creates
+ * them via {@link #create(String, List)}, which returns a canonical
+ * instance from a corpus-wide cache.
  *
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
 public class GeTaLT {
 	
-	private String nt;
-	private List<GeTaAL> al;
+	// Canonical LTs by their NT and (canonical) ALs
+	private static final GeTaInterner<GeTaLT> CANONICAL_LTS = new GeTaInterner<>(2, GeTaUtil.CACHE_SIZE);
+
+	private final String nt;
+	private final List<GeTaAL> al;
 
 	/**
-	 * Constructor creating a JSON representation.
+	 * Constructor creating an LT from its NT and ALs.
 	 * 
 	 * @param nt
 	 * @param al
 	 */
+	public GeTaLT(String nt, List<GeTaAL> al) {
+		this.nt = nt;
+		this.al = al;
+	}
+
+	/**
+	 * Factory method creating a JSON representation, returning
+	 * the canonical instance for the NT and ALs.
+	 * 
+	 * @param nt
+	 * @param al
+	 * @return The canonical LT
+	 */
 	@JsonCreator
-	public GeTaLT(@JsonProperty(GeTaMapper.NT) String nt,
+	public static GeTaLT create(@JsonProperty(GeTaMapper.NT) String nt,
 			@JsonProperty(GeTaMapper.AL) List<GeTaAL> al) {
-				this.nt = nt;
-				this.al = al;
+		GeTaInterner.Key key = CANONICAL_LTS.newKey().set(0, nt).set(1, al);
+		GeTaLT lt = CANONICAL_LTS.get(key);
+		if (lt == null) {
+			lt = CANONICAL_LTS.intern(key, new GeTaLT(nt, al));
+		}
+		return lt;
 	}
 
 	/**
@@ -63,4 +89,23 @@ public class GeTaLT {
 	public final List<GeTaAL> getAl() {
 		return al;
 	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (nt == null ? 0 : nt.hashCode()) + (al == null ? 0 : al.hashCode());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GeTaLT)) {
+			return false;
+		}
+		GeTaLT other = (GeTaLT) obj;
+		return (nt == null ? other.nt == null : nt.equals(other.nt))
+				&& (al == null ? other.al == null : al.equals(other.al));
+	}
+
 }
@@ -24,32 +24,58 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import de.uni_hamburg.traces.peppermodules.GeTaInterner;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
+import de.uni_hamburg.traces.peppermodules.GeTaUtil;
 
 /**
  * A bean representing an **M** section in GeTa data.
+ * 
+ * Ms are immutable, and identical Ms are shared: Jackson creates
+ * them via {@link #create(Boolean, List)}, which returns a canonical
+ * instance from a corpus-wide cache.
  *
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
 public class GeTaM {
 	
-	private Boolean ne;
-	private List<GeTaLT> lt;
+	// Canonical Ms by their ne value and (canonical) LTs
+	private static final GeTaInterner<GeTaM> CANONICAL_MS = new GeTaInterner<>(2, GeTaUtil.CACHE_SIZE);
+
+	private final Boolean ne;
+	private final List<GeTaLT> lt;
 
 	/**
-	 * Constructor creating a JSON representation.
+	 * Constructor creating an M from its ne value and LTs.
 	 * 
 	 * @param ne
 	 * @param lt
 	 */
-	@JsonCreator
-	public GeTaM(@JsonProperty(GeTaMapper.ne) Boolean ne,
-			@JsonProperty(GeTaMapper.LT) List<GeTaLT> lt) {
+	public GeTaM(Boolean ne, List<GeTaLT> lt) {
 		this.ne = ne;
 		this.lt = lt;
 	}
 
+	/**
+	 * Factory method creating a JSON representation, returning
+	 * the canonical instance for the ne value and LTs.
+	 * 
+	 * @param ne
+	 * @param lt
+	 * @return The canonical M
+	 */
+	@JsonCreator
+	public static GeTaM create(@JsonProperty(GeTaMapper.ne) Boolean ne,
+			@JsonProperty(GeTaMapper.LT) List<GeTaLT> lt) {
+		GeTaInterner.Key key = CANONICAL_MS.newKey().set(0, ne).set(1, lt);
+		GeTaM m = CANONICAL_MS.get(key);
+		if (m == null) {
+			m = CANONICAL_MS.intern(key, new GeTaM(ne, lt));
+		}
+		return m;
+	}
+
 	/**
 	 * @return the ne
 	 */
@@ -64,4 +90,22 @@ public class GeTaM {
 		return lt;
 	}
 
+	@Override
+	public int hashCode() {
+		return 31 * (ne == null ? 0 : ne.hashCode()) + (lt == null ? 0 : lt.hashCode());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GeTaM)) {
+			return false;
+		}
+		GeTaM other = (GeTaM) obj;
+		return (ne == null ? other.ne == null : ne.equals(other.ne))
+				&& (lt == null ? other.lt == null : lt.equals(other.lt));
+	}
+
 }
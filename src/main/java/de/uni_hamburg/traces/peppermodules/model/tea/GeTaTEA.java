@@ -19,13 +19,10 @@
  */
 package de.uni_hamburg.traces.peppermodules.model.tea;
 
-import java.util.HashMap;
-import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotatedBase;
 import de.uni_hamburg.traces.peppermodules.GeTaMapper;
 
 /**
@@ -34,11 +31,11 @@ import de.uni_hamburg.traces.peppermodules.GeTaMapper;
  * @author Stephan Druskat <mail@sdruskat.net>
  *
  */
-public class GeTaTEA {
+public class GeTaTEA extends GeTaAnnotatedBase<String> {
 	
 	
 	private String id;
-	private final Map<String, String> annotations = new HashMap<>();
+	private static final String[] ANNOTATION_KEYS = { GeTaMapper.TOKL, GeTaMapper.NEId };
 	private GeTaM m;
 
 	/**
@@ -54,12 +51,9 @@ public class GeTaTEA {
 			@JsonProperty(GeTaMapper.TOKL) String tokl,
 			@JsonProperty(GeTaMapper.NEId) String neid,
 			@JsonProperty(GeTaMapper.M) GeTaM m) {
+		super(ANNOTATION_KEYS, new String[] { tokl, neid });
 		this.id = id;
 		this.m = m;
-		annotations.put(GeTaMapper.TOKL, tokl);
-		annotations.put(GeTaMapper.NEId, neid);
-		// Remove null values from map
-		Iterables.removeIf(annotations.keySet(), Predicates.isNull());
 	}
 
 
@@ -70,13 +64,6 @@ public class GeTaTEA {
 		return id;
 	}
 
-	/**
-	 * @return the annotations
-	 */
-	public final Map<String, String> getAnnotations() {
-		return annotations;
-	}
-
 	/**
 	 * @return the m
 	 */
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+
+/**
+ * Unit tests for {@link GeTaAnnotatedBase}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaAnnotatedBaseTest {
+
+	/**
+	 * Test method for {@link GeTaAnnotatedBase#getAnnotations()},
+	 * testing that the map view holds all slots.
+	 */
+	@Test
+	public void testGetAnnotations() {
+		GeTaNEA nea = new GeTaNEA("N1", "ref", "person", null, null);
+		assertEquals(2, nea.getAnnotationCount());
+		Map<String, String> annotations = nea.getAnnotations();
+		assertEquals(2, annotations.size());
+		for (int i = 0; i < nea.getAnnotationCount(); i++) {
+			assertEquals(nea.getAnnotationValue(i), annotations.get(nea.getAnnotationKey(i)));
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaDEA#getWb()}, {@link GeTaDEA#getWe()}
+	 * and {@link GeTaDEA#getDp()}, testing that they read the slots
+	 * of their keys.
+	 */
+	@Test
+	public void testDEASlots() {
+		GeTaDEA dea = new GeTaDEA("D1", "W1", "W2", null, null, null, null, null, "D0", null, null, null, null, Arrays.asList("D2"));
+		Map<String, String> annotations = dea.getAnnotations();
+		assertEquals(annotations.get(GeTaMapper.WB), dea.getWb());
+		assertEquals(annotations.get(GeTaMapper.WE), dea.getWe());
+		assertEquals(annotations.get(GeTaMapper.DP), dea.getDp());
+		assertEquals("W1", dea.getWb());
+		assertEquals("W2", dea.getWe());
+		assertEquals("D0", dea.getDp());
+		assertNull(annotations.get(GeTaMapper.NR));
+	}
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SSpan;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.GeTaAnnotationWriter.MergePolicy;
+
+/**
+ * Unit tests for {@link GeTaAnnotationWriter}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaAnnotationWriterTest {
+
+	private static final String NS = "GeTa_NEA";
+	private static final String NET = "NET";
+
+	private SSpan span = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		span = SaltFactory.createSSpan();
+	}
+
+	/**
+	 * Test method for {@link GeTaAnnotationWriter#annotate(SSpan, String, String, Object)},
+	 * testing the {@link MergePolicy#SKIP} policy.
+	 */
+	@Test
+	public void testSkip() {
+		GeTaAnnotationWriter fixture = new GeTaAnnotationWriter(MergePolicy.SKIP);
+		fixture.annotate(span, NS, NET, "a");
+		fixture.annotate(span, NS, NET, "b");
+		assertEquals("a", span.getAnnotation(NS, NET).getValue());
+		assertEquals(1, span.getAnnotations().size());
+		assertEquals(1, fixture.getDuplicateCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaAnnotationWriter#annotate(SSpan, String, String, Object)},
+	 * testing the {@link MergePolicy#CONCATENATE} policy.
+	 */
+	@Test
+	public void testConcatenate() {
+		GeTaAnnotationWriter fixture = new GeTaAnnotationWriter(MergePolicy.CONCATENATE);
+		fixture.annotate(span, NS, NET, "a");
+		fixture.annotate(span, NS, NET, "b");
+		fixture.annotate(span, NS, NET, "a");
+		fixture.annotate(span, NS, NET, "c");
+		fixture.annotate(span, NS, NET, "b");
+		assertEquals("a; b; c", span.getAnnotation(NS, NET).getValue());
+		assertEquals(4, fixture.getDuplicateCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaAnnotationWriter#annotate(SSpan, String, String, Object)},
+	 * testing the {@link MergePolicy#COUNT} policy.
+	 */
+	@Test
+	public void testCount() {
+		GeTaAnnotationWriter fixture = new GeTaAnnotationWriter(MergePolicy.COUNT);
+		fixture.annotate(span, NS, NET, "a");
+		assertNull(span.getAnnotation(NS, NET + GeTaAnnotationWriter.COUNT_SUFFIX));
+		fixture.annotate(span, NS, NET, "b");
+		fixture.annotate(span, NS, NET, "a");
+		assertEquals("a", span.getAnnotation(NS, NET).getValue());
+		assertEquals(3, span.getAnnotation(NS, NET + GeTaAnnotationWriter.COUNT_SUFFIX).getValue());
+	}
+
+	/**
+	 * Test method for {@link MergePolicy#forName(String)}.
+	 */
+	@Test
+	public void testForName() {
+		assertEquals(MergePolicy.SKIP, MergePolicy.forName(null));
+		assertEquals(MergePolicy.CONCATENATE, MergePolicy.forName("concatenate"));
+		assertEquals(MergePolicy.COUNT, MergePolicy.forName(" Count "));
+		assertEquals(MergePolicy.SKIP, new GeTaImporterProperties().getDuplicateAnnotations());
+	}
+
+	/**
+	 * Test method for {@link MergePolicy#forName(String)},
+	 * testing that unknown policies are rejected.
+	 */
+	@Test
+	public void testForNameUnknown() {
+		try {
+			MergePolicy.forName("merge");
+			fail("Expected a PepperModuleException.");
+		}
+		catch (PepperModuleException e) {
+			assertTrue(e.getMessage().contains("'merge'"));
+		}
+	}
+
+}
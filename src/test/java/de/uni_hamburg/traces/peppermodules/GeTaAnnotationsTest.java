@@ -0,0 +1,86 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Unit tests for {@link GeTaAnnotations} and the canonical
+ * morphology beans.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaAnnotationsTest {
+
+	/**
+	 * Test method for {@link GeTaAnnotations#of(Map)}, testing
+	 * that entries are checked and keys normalised.
+	 */
+	@Test
+	public void testOf() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("gender nature", "Masculine");
+		map.put("", "x");
+		map.put(null, "x");
+		map.put("empty", "");
+		map.put("null", null);
+		map.put("number", 1);
+		GeTaAnnotations bundle = GeTaAnnotations.of(map);
+		assertEquals(2, bundle.getAnnotationCount());
+		assertEquals("gender-nature", bundle.getAnnotationKey(0));
+		assertEquals("Masculine", bundle.getAnnotationValue(0));
+		assertEquals("number", bundle.getAnnotationKey(1));
+		assertEquals(1, bundle.getAnnotationValue(1));
+		map.remove("empty");
+		assertEquals(bundle, GeTaAnnotations.of(map));
+		map.clear();
+		assertSame(GeTaAnnotations.EMPTY, GeTaAnnotations.of(map));
+	}
+
+	/**
+	 * Tests that identical morphology objects are shared between
+	 * tokens and between parses.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testCanonicalMorphology() throws IOException {
+		String m = "\"M\":{\"ne\":\"false\",\"LT\":[{\"NT\":\"Verb\",\"AL\":[{\"N\":\"gender nature\",\"V\":\"Masculine\"},{\"N1\":\"number pattern\",\"V1\":\"Singular\"}]}]}";
+		String json = "[{\"Id\":\"T0>W1\"," + m + "},{\"Id\":\"T0>W2\"," + m + "}]";
+		List<GeTaTEA> first = GeTaReaders.getTEAReader().readValue(json);
+		List<GeTaTEA> second = GeTaReaders.getTEAReader().readValue(json);
+		assertSame(first.get(0).getM(), first.get(1).getM());
+		assertSame(first.get(0).getM(), second.get(0).getM());
+		assertSame(first.get(0).getM().getLt().get(0).getAl().get(1), second.get(1).getM().getLt().get(0).getAl().get(1));
+		assertEquals("gender-nature", first.get(0).getM().getLt().get(0).getAl().get(0).getBundle().getAnnotationKey(0));
+	}
+
+}
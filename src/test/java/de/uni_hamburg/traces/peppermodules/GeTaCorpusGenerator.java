@@ -0,0 +1,614 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A deterministic generator for synthetic GeTa document sets, i.e.,
+ * consistent *EA.json, *TEA.ann, *DEA.ann, *NEA.ann and *MetaEA.ann
+ * files for scale and load testing.
+ * 
+ * The generator is seedable: the same seed and configuration always
+ * produce byte-identical files. All cross-references are consistent:
+ * 
+ * - every LL `Tid` has a matching TEA object,
+ * - every fidalword `Sid` is the id of a DEA division containing
+ *   the word, and divisions nest via `DP`/`DC` and `WB`/`WE`,
+ * - every fidalword `NE` is the id of an NEA object whose `ref`s
+ *   point to the word (`WId`) and its tokens (`TID`).
+ * 
+ * Files are written in a streaming fashion, so that document sets
+ * with millions of LL objects can be generated in constant memory.
+ * Run {@link #main(String[])} to generate a document set from the
+ * command line.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaCorpusGenerator {
+
+	private static final String LETTERS = "abgdhwzṭyklmnsʿfṣqrštḫḥǝ";
+	private static final String[] FIDALS = { "በ", "ስ", "መ", "ሀ", "ለ", "ሐ", "ሠ", "ረ" };
+	private static final String[] TAGS = { "Common Noun", "Verb", "Preposition", "Proper Noun", "Adjective" };
+	private static final String[] GENDERS = { "Masculine", "Feminine", "Unmarked" };
+	private static final String[] NUMBERS = { "Singular", "Plural" };
+	private static final String[] CASES = { "Nominative", "Accusative" };
+	private static final String[] STATES = { "Absolute state", "Construct state", "Nominal state" };
+	private static final String[] EDITORIAL_TAGS = { "Correction", "Addition", "Omission" };
+	private static final String[] NE_TYPES = { "pers", "place", "ethnic" };
+	private static final String[] DIVISION_NAMES = { "Part", "Book", "Chapter", "Verse" };
+	private static final int LEXICON_SIZE = 500;
+	private static final int AUTHORITY_SIZE = 200;
+
+	private static final long WORD = 1;
+	private static final long DIVISION = 2;
+	private static final long NAMED_ENTITY = 3;
+
+	private final JsonFactory factory = new JsonFactory();
+
+	private long seed = 42;
+	private int wordCount = 100;
+	private int maxTokensPerWord = 3;
+	private int maxFcsPerToken = 2;
+	private int lettersPerFC = 2;
+	private double morphologyDensity = 1.0;
+	private int maxAttributesPerTag = 4;
+	private double editorialDensity = 0.1;
+	private int divisionDepth = 2;
+	private int divisionFanOut = 10;
+	private int wordsPerDivision = 20;
+	private double namedEntityDensity = 0.05;
+	private int maxWordsPerNamedEntity = 2;
+
+	/**
+	 * Generates a document set from the command line.
+	 * 
+	 * Usage: `GeTaCorpusGenerator <directory> <stem> <wordCount> [seed]`
+	 *
+	 * @param args The command line arguments
+	 * @throws IOException if the files cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: GeTaCorpusGenerator <directory> <stem> <wordCount> [seed]");
+			System.exit(1);
+		}
+		GeTaCorpusGenerator generator = new GeTaCorpusGenerator();
+		generator.setWordCount(Integer.parseInt(args[2]));
+		if (args.length > 3) {
+			generator.setSeed(Long.parseLong(args[3]));
+		}
+		File eaFile = generator.write(new File(args[0]), args[1]);
+		System.out.println("Written " + eaFile.getAbsolutePath());
+	}
+
+	/**
+	 * Writes a document set to a directory. The files are named
+	 * `<stem>EA.json`, `<stem>TEA.ann`, `<stem>DEA.ann`,
+	 * `<stem>NEA.ann` and `<stem>MetaEA.ann`.
+	 *
+	 * @param directory The directory to write to, created if necessary
+	 * @param stem The common file name stem
+	 * @return The *EA.json file
+	 * @throws IOException if the files cannot be written
+	 */
+	public File write(File directory, String stem) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create directory " + directory + ".");
+		}
+		File eaFile = new File(directory, stem + "EA.json");
+		Random random = new Random(seed);
+		try (JsonGenerator ea = factory.createGenerator(eaFile, JsonEncoding.UTF8);
+				JsonGenerator tea = factory.createGenerator(new File(directory, stem + "TEA.ann"), JsonEncoding.UTF8);
+				JsonGenerator nea = factory.createGenerator(new File(directory, stem + "NEA.ann"), JsonEncoding.UTF8)) {
+			ea.writeStartObject();
+			ea.writeNumberField(GeTaMapper.TR, 0);
+			ea.writeNumberField(GeTaMapper.SCR, 0);
+			ea.writeArrayFieldStart(GeTaMapper.FIDALWORDS);
+			tea.writeStartArray();
+			nea.writeStartArray();
+			int namedEntityCount = 0;
+			int namedEntityWordsLeft = 0;
+			List<String> namedEntityWords = new ArrayList<>();
+			List<List<String>> namedEntityTids = new ArrayList<>();
+			for (int w = 0; w < wordCount; w++) {
+				if (namedEntityWordsLeft == 0 && random.nextDouble() < namedEntityDensity) {
+					namedEntityWordsLeft = 1 + random.nextInt(maxWordsPerNamedEntity);
+				}
+				String neId = namedEntityWordsLeft > 0 ? id('N', NAMED_ENTITY, namedEntityCount) : null;
+				List<String> tids = writeFidalword(ea, tea, random, w, neId);
+				if (neId != null) {
+					namedEntityWords.add(id('W', WORD, w));
+					namedEntityTids.add(tids);
+					namedEntityWordsLeft--;
+					if (namedEntityWordsLeft == 0 || w == wordCount - 1) {
+						writeNamedEntity(nea, random, neId, namedEntityWords, namedEntityTids);
+						namedEntityWords.clear();
+						namedEntityTids.clear();
+						namedEntityWordsLeft = 0;
+						namedEntityCount++;
+					}
+				}
+			}
+			nea.writeEndArray();
+			tea.writeEndArray();
+			ea.writeEndArray();
+			ea.writeEndObject();
+		}
+		writeDivisions(new File(directory, stem + "DEA.ann"));
+		writeMetadata(new File(directory, stem + "MetaEA.ann"));
+		return eaFile;
+	}
+
+	/**
+	 * Writes a single fidalword and the TEA objects for its tokens.
+	 *
+	 * @return The Tids of the fidalword
+	 */
+	private List<String> writeFidalword(JsonGenerator ea, JsonGenerator tea, Random random, int w, String neId)
+			throws IOException {
+		String wid = id('W', WORD, w);
+		int tokenCount = 1 + random.nextInt(maxTokensPerWord);
+		List<String> tids = new ArrayList<>(tokenCount);
+		StringBuilder fid = new StringBuilder();
+		StringBuilder tr = new StringBuilder();
+		ea.writeStartObject();
+		ea.writeStringField(GeTaMapper.Id, wid);
+		ea.writeArrayFieldStart(GeTaMapper.FC);
+		for (int t = 0; t < tokenCount; t++) {
+			String tid = "T" + t + ">" + wid;
+			tids.add(tid);
+			if (t > 0) {
+				tr.append('-');
+			}
+			int fcCount = 1 + random.nextInt(maxFcsPerToken);
+			for (int f = 0; f < fcCount; f++) {
+				String fidal = FIDALS[random.nextInt(FIDALS.length)];
+				fid.append(fidal);
+				StringBuilder trfid = new StringBuilder();
+				ea.writeStartObject();
+				ea.writeArrayFieldStart(GeTaMapper.LL);
+				for (int l = 0; l < lettersPerFC; l++) {
+					char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+					trfid.append(letter);
+					ea.writeStartObject();
+					ea.writeStringField(GeTaMapper.LAT, String.valueOf(letter));
+					ea.writeStringField(GeTaMapper.Tid, tid);
+					ea.writeEndObject();
+				}
+				ea.writeEndArray();
+				tr.append(trfid);
+				ea.writeStringField(GeTaMapper.TRFID, trfid.toString());
+				ea.writeStringField(GeTaMapper.FIDLETED, fidal);
+				ea.writeStringField(GeTaMapper.FIDLET, fidal);
+				if (random.nextInt(30) == 0) {
+					ea.writeNumberField(GeTaMapper.pLB, random.nextInt(30) + 1);
+				}
+				if (random.nextDouble() < editorialDensity) {
+					ea.writeObjectFieldStart(GeTaMapper.Ed);
+					ea.writeArrayFieldStart(GeTaMapper.LT);
+					ea.writeStartObject();
+					ea.writeStringField(GeTaMapper.NT, EDITORIAL_TAGS[random.nextInt(EDITORIAL_TAGS.length)]);
+					ea.writeArrayFieldStart(GeTaMapper.AL);
+					writeAttribute(ea, GeTaMapper.N, "hand", GeTaMapper.V, String.valueOf(random.nextInt(3) + 1));
+					ea.writeEndArray();
+					ea.writeEndObject();
+					ea.writeEndArray();
+					ea.writeEndObject();
+				}
+				ea.writeEndObject();
+			}
+			writeToken(tea, random, tid, neId);
+		}
+		ea.writeEndArray();
+		ea.writeStringField(GeTaMapper.FID, fid.toString());
+		ea.writeStringField(GeTaMapper.FIDED, fid + "<font color='black'>፡</font><font color='blue'></font>");
+		ea.writeStringField(GeTaMapper.TR, tr.toString());
+		ea.writeArrayFieldStart(GeTaMapper.Tid);
+		for (String tid : tids) {
+			ea.writeString(tid);
+		}
+		ea.writeEndArray();
+		ea.writeArrayFieldStart(GeTaMapper.Sid);
+		for (int level = 1; level <= divisionDepth; level++) {
+			ea.writeString(id('D', DIVISION + level, w / getWordsPerDivision(level)));
+		}
+		ea.writeEndArray();
+		if (neId != null) {
+			ea.writeStringField(GeTaMapper.NE, neId);
+		}
+		ea.writeEndObject();
+		return tids;
+	}
+
+	/**
+	 * Writes a TEA object for a token.
+	 */
+	private void writeToken(JsonGenerator tea, Random random, String tid, String neId) throws IOException {
+		tea.writeStartObject();
+		tea.writeStringField(GeTaMapper.NEId, neId == null ? "" : neId);
+		tea.writeStringField(GeTaMapper.Id, tid);
+		tea.writeStringField(GeTaMapper.TOKL, tid.substring(0, tid.indexOf('>')).toLowerCase());
+		if (random.nextDouble() < morphologyDensity) {
+			tea.writeObjectFieldStart(GeTaMapper.M);
+			tea.writeStringField(GeTaMapper.ne, String.valueOf(neId != null));
+			tea.writeArrayFieldStart(GeTaMapper.LT);
+			tea.writeStartObject();
+			tea.writeStringField(GeTaMapper.NT, TAGS[random.nextInt(TAGS.length)]);
+			tea.writeArrayFieldStart(GeTaMapper.AL);
+			int attributes = random.nextInt(maxAttributesPerTag + 1);
+			if (attributes > 0) {
+				writeAttribute(tea, GeTaMapper.N, "lex", GeTaMapper.V, "ሀ    http://betamasaheft.eu/api/Dillmann/L"
+						+ random.nextInt(LEXICON_SIZE) + "/teientry");
+			}
+			if (attributes > 1) {
+				writeAttribute(tea, GeTaMapper.N3, "gender nature", GeTaMapper.V3, GENDERS[random.nextInt(GENDERS.length)]);
+			}
+			if (attributes > 2) {
+				writeAttribute(tea, GeTaMapper.N1, "number pattern", GeTaMapper.V1, NUMBERS[random.nextInt(NUMBERS.length)]);
+			}
+			if (attributes > 3) {
+				writeAttribute(tea, GeTaMapper.N, "case", GeTaMapper.V, CASES[random.nextInt(CASES.length)]);
+			}
+			if (attributes > 4) {
+				writeAttribute(tea, GeTaMapper.N, "state", GeTaMapper.V, STATES[random.nextInt(STATES.length)]);
+			}
+			tea.writeEndArray();
+			tea.writeEndObject();
+			tea.writeEndArray();
+			tea.writeEndObject();
+		}
+		tea.writeEndObject();
+	}
+
+	/**
+	 * Writes an attribute object with a single name/value pair.
+	 */
+	private static void writeAttribute(JsonGenerator generator, String nameKey, String name, String valueKey,
+			String value) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField(nameKey, name);
+		generator.writeStringField(valueKey, value);
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Writes an NEA object referencing the given words and tokens.
+	 */
+	private void writeNamedEntity(JsonGenerator nea, Random random, String neId, List<String> wids,
+			List<List<String>> tids) throws IOException {
+		nea.writeStartObject();
+		nea.writeStringField(GeTaMapper.Id, neId);
+		int authority = random.nextInt(AUTHORITY_SIZE);
+		nea.writeStringField(GeTaMapper.R,
+				random.nextBoolean() ? "http://betamasaheft.eu/PRS" + authority : "LOC" + authority);
+		nea.writeStringField(GeTaMapper.T, NE_TYPES[random.nextInt(NE_TYPES.length)]);
+		nea.writeArrayFieldStart(GeTaMapper.ref);
+		for (int i = 0; i < wids.size(); i++) {
+			nea.writeStartObject();
+			nea.writeStringField(GeTaMapper.WId, wids.get(i));
+			nea.writeArrayFieldStart(GeTaMapper.TID);
+			for (String tid : tids.get(i)) {
+				nea.writeString(tid);
+			}
+			nea.writeEndArray();
+			nea.writeEndObject();
+		}
+		nea.writeEndArray();
+		nea.writeArrayFieldStart(GeTaMapper.feat);
+		writeAttribute(nea, GeTaMapper.N, "role", GeTaMapper.V, random.nextBoolean() ? "king" : "saint");
+		nea.writeEndArray();
+		nea.writeEndObject();
+	}
+
+	/**
+	 * Writes the DEA file. Divisions on level 1 are the largest, each
+	 * division on level `n` contains up to {@link #getDivisionFanOut()}
+	 * divisions on level `n + 1`.
+	 */
+	private void writeDivisions(File deaFile) throws IOException {
+		try (JsonGenerator dea = factory.createGenerator(deaFile, JsonEncoding.UTF8)) {
+			dea.writeStartArray();
+			for (int level = 1; level <= divisionDepth; level++) {
+				int size = getWordsPerDivision(level);
+				int count = getDivisionCount(level);
+				for (int d = 0; d < count; d++) {
+					dea.writeStartObject();
+					dea.writeStringField(GeTaMapper.Id, id('D', DIVISION + level, d));
+					dea.writeStringField(GeTaMapper.WB, id('W', WORD, d * size));
+					dea.writeStringField(GeTaMapper.WE, id('W', WORD, Math.min(wordCount, (d + 1) * size) - 1));
+					dea.writeStringField(GeTaMapper.NRI, String.valueOf(d + 1));
+					dea.writeStringField(GeTaMapper.NR, String.valueOf(d + 1));
+					dea.writeStringField(GeTaMapper.LE, String.valueOf(level));
+					dea.writeStringField(GeTaMapper.NA, DIVISION_NAMES[(level - 1) % DIVISION_NAMES.length]);
+					dea.writeStringField(GeTaMapper.CR, "Edition");
+					if (level > 1) {
+						dea.writeStringField(GeTaMapper.DP, id('D', DIVISION + level - 1, d / divisionFanOut));
+					}
+					if (level < divisionDepth) {
+						dea.writeArrayFieldStart(GeTaMapper.DC);
+						int children = getDivisionCount(level + 1);
+						for (int c = d * divisionFanOut; c < Math.min(children, (d + 1) * divisionFanOut); c++) {
+							dea.writeString(id('D', DIVISION + level + 1, c));
+						}
+						dea.writeEndArray();
+					}
+					dea.writeEndObject();
+				}
+			}
+			dea.writeEndArray();
+		}
+	}
+
+	/**
+	 * Writes the MetaEA file.
+	 */
+	private void writeMetadata(File metaeaFile) throws IOException {
+		try (JsonGenerator metaea = factory.createGenerator(metaeaFile, JsonEncoding.UTF8)) {
+			metaea.writeStartObject();
+			metaea.writeStringField(GeTaMapper.ID, "http://betamasaheft.eu/LIT" + (seed & 0xffff));
+			metaea.writeStringField(GeTaMapper.ANNOT, "GeTaCorpusGenerator");
+			metaea.writeStringField(GeTaMapper.SOFT, "GeTaCorpusGenerator");
+			metaea.writeStringField(GeTaMapper.NAME, "Synthetic document " + seed);
+			metaea.writeStringField(GeTaMapper.LANG, "gez");
+			metaea.writeStringField(GeTaMapper.DATE, "2016");
+			metaea.writeNumberField(GeTaMapper.TR, 0);
+			metaea.writeNumberField(GeTaMapper.SCR, 0);
+			metaea.writeArrayFieldStart(GeTaMapper.PARTS);
+			if (divisionDepth > 0) {
+				for (int d = 0; d < getDivisionCount(1); d++) {
+					metaea.writeString(id('D', DIVISION + 1, d));
+				}
+			}
+			metaea.writeEndArray();
+			metaea.writeEndObject();
+		}
+	}
+
+	/**
+	 * @return the number of words covered by a division on the given level
+	 */
+	private int getWordsPerDivision(int level) {
+		long size = wordsPerDivision;
+		for (int l = level; l < divisionDepth; l++) {
+			size *= divisionFanOut;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, size);
+	}
+
+	/**
+	 * @return the number of divisions on the given level
+	 */
+	private int getDivisionCount(int level) {
+		int size = getWordsPerDivision(level);
+		return (wordCount + size - 1) / size;
+	}
+
+	/**
+	 * Creates a deterministic, UUID-shaped id, e.g., for a word,
+	 * division or named entity, from the seed, a kind and an index.
+	 */
+	private String id(char prefix, long kind, int index) {
+		long base = mix(seed ^ (kind << 56) ^ index);
+		return prefix + new UUID(base, mix(base)).toString();
+	}
+
+	/**
+	 * SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed the seed to set
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return the number of fidalwords
+	 */
+	public int getWordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * @param wordCount the number of fidalwords to set
+	 */
+	public void setWordCount(int wordCount) {
+		this.wordCount = wordCount;
+	}
+
+	/**
+	 * @return the maximum number of tokens per fidalword
+	 */
+	public int getMaxTokensPerWord() {
+		return maxTokensPerWord;
+	}
+
+	/**
+	 * @param maxTokensPerWord the maximum number of tokens per fidalword to set
+	 */
+	public void setMaxTokensPerWord(int maxTokensPerWord) {
+		this.maxTokensPerWord = maxTokensPerWord;
+	}
+
+	/**
+	 * @return the maximum number of FC objects per token
+	 */
+	public int getMaxFcsPerToken() {
+		return maxFcsPerToken;
+	}
+
+	/**
+	 * @param maxFcsPerToken the maximum number of FC objects per token to set
+	 */
+	public void setMaxFcsPerToken(int maxFcsPerToken) {
+		this.maxFcsPerToken = maxFcsPerToken;
+	}
+
+	/**
+	 * @return the number of LL objects per FC object
+	 */
+	public int getLettersPerFC() {
+		return lettersPerFC;
+	}
+
+	/**
+	 * @param lettersPerFC the number of LL objects per FC object to set
+	 */
+	public void setLettersPerFC(int lettersPerFC) {
+		this.lettersPerFC = lettersPerFC;
+	}
+
+	/**
+	 * @return the share of tokens (0-1) with a morphological annotation object
+	 */
+	public double getMorphologyDensity() {
+		return morphologyDensity;
+	}
+
+	/**
+	 * @param morphologyDensity the share of tokens (0-1) with a morphological annotation object to set
+	 */
+	public void setMorphologyDensity(double morphologyDensity) {
+		this.morphologyDensity = morphologyDensity;
+	}
+
+	/**
+	 * @return the maximum number of AL objects per morphological tag (0-5)
+	 */
+	public int getMaxAttributesPerTag() {
+		return maxAttributesPerTag;
+	}
+
+	/**
+	 * @param maxAttributesPerTag the maximum number of AL objects per morphological tag (0-5) to set
+	 */
+	public void setMaxAttributesPerTag(int maxAttributesPerTag) {
+		this.maxAttributesPerTag = maxAttributesPerTag;
+	}
+
+	/**
+	 * @return the share of FC objects (0-1) with editorial annotations
+	 */
+	public double getEditorialDensity() {
+		return editorialDensity;
+	}
+
+	/**
+	 * @param editorialDensity the share of FC objects (0-1) with editorial annotations to set
+	 */
+	public void setEditorialDensity(double editorialDensity) {
+		this.editorialDensity = editorialDensity;
+	}
+
+	/**
+	 * @return the number of nested division levels (0-4)
+	 */
+	public int getDivisionDepth() {
+		return divisionDepth;
+	}
+
+	/**
+	 * @param divisionDepth the number of nested division levels (0-4) to set
+	 */
+	public void setDivisionDepth(int divisionDepth) {
+		this.divisionDepth = divisionDepth;
+	}
+
+	/**
+	 * @return the number of child divisions per division
+	 */
+	public int getDivisionFanOut() {
+		return divisionFanOut;
+	}
+
+	/**
+	 * @param divisionFanOut the number of child divisions per division to set
+	 */
+	public void setDivisionFanOut(int divisionFanOut) {
+		this.divisionFanOut = divisionFanOut;
+	}
+
+	/**
+	 * @return the number of fidalwords per division on the lowest level
+	 */
+	public int getWordsPerDivision() {
+		return wordsPerDivision;
+	}
+
+	/**
+	 * @param wordsPerDivision the number of fidalwords per division on the lowest level to set
+	 */
+	public void setWordsPerDivision(int wordsPerDivision) {
+		this.wordsPerDivision = wordsPerDivision;
+	}
+
+	/**
+	 * @return the probability (0-1) for a fidalword to start a named entity
+	 */
+	public double getNamedEntityDensity() {
+		return namedEntityDensity;
+	}
+
+	/**
+	 * @param namedEntityDensity the probability (0-1) for a fidalword to start a named entity to set
+	 */
+	public void setNamedEntityDensity(double namedEntityDensity) {
+		this.namedEntityDensity = namedEntityDensity;
+	}
+
+	/**
+	 * @return the maximum number of fidalwords per named entity
+	 */
+	public int getMaxWordsPerNamedEntity() {
+		return maxWordsPerNamedEntity;
+	}
+
+	/**
+	 * @param maxWordsPerNamedEntity the maximum number of fidalwords per named entity to set
+	 */
+	public void setMaxWordsPerNamedEntity(int maxWordsPerNamedEntity) {
+		this.maxWordsPerNamedEntity = maxWordsPerNamedEntity;
+	}
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
+import de.uni_hamburg.traces.peppermodules.model.metaea.GeTaMetaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaRef;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Unit tests for {@link GeTaCorpusGenerator}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaCorpusGeneratorTest {
+
+	private GeTaCorpusGenerator fixture = null;
+	private File directory = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		fixture = new GeTaCorpusGenerator();
+		fixture.setWordCount(500);
+		fixture.setDivisionDepth(3);
+		fixture.setDivisionFanOut(4);
+		fixture.setWordsPerDivision(10);
+		fixture.setNamedEntityDensity(0.1);
+		directory = Files.createTempDirectory("geta-generator").toFile();
+		directory.deleteOnExit();
+	}
+
+	/**
+	 * Test method for {@link GeTaCorpusGenerator#write(File, String)}.
+	 * 
+	 * Tests that Tids, Sids and WIds cross-reference correctly.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testCrossReferences() throws IOException {
+		File eaFile = fixture.write(directory, "gen");
+		GeTaEA ea = GeTaReaders.getEAReader().readValue(eaFile);
+		List<GeTaTEA> tea = GeTaReaders.getTEAReader().readValue(new File(directory, "genTEA.ann"));
+		List<GeTaDEA> dea = GeTaReaders.getDEAReader().readValue(new File(directory, "genDEA.ann"));
+		List<GeTaNEA> nea = GeTaReaders.getNEAReader().readValue(new File(directory, "genNEA.ann"));
+		GeTaMetaEA metaea = GeTaReaders.getMetaEAReader().readValue(new File(directory, "genMetaEA.ann"));
+		assertEquals(500, ea.getFidalwords().size());
+
+		Set<String> teaIds = new HashSet<>();
+		for (GeTaTEA t : tea) {
+			teaIds.add(t.getId());
+		}
+		Set<String> deaIds = new HashSet<>();
+		for (GeTaDEA d : dea) {
+			deaIds.add(d.getId());
+		}
+		Map<String, GeTaFidalword> words = new HashMap<>();
+		Set<String> neIds = new HashSet<>();
+		for (GeTaFidalword word : ea.getFidalwords()) {
+			words.put(word.getId(), word);
+			assertEquals(3, word.getSid().size());
+			assertTrue(deaIds.containsAll(word.getSid()));
+			assertTrue(teaIds.containsAll(word.getTid()));
+			for (GeTaFC fc : word.getFc()) {
+				for (GeTaLL ll : fc.getLl()) {
+					assertTrue(word.getTid().contains(ll.getTid()));
+				}
+			}
+			if (word.getNe() != null) {
+				neIds.add(word.getNe());
+			}
+		}
+		assertEquals(teaIds.size(), tea.size());
+		assertFalse(nea.isEmpty());
+		assertEquals(neIds.size(), nea.size());
+		for (GeTaNEA ne : nea) {
+			assertTrue(neIds.contains(ne.getId()));
+			for (GeTaRef ref : ne.getRef()) {
+				GeTaFidalword word = words.get(ref.getWid());
+				assertEquals(ne.getId(), word.getNe());
+				assertEquals(word.getTid(), ref.getTid());
+			}
+		}
+		for (GeTaDEA d : dea) {
+			assertTrue(words.containsKey(d.getAnnotations().get(GeTaMapper.WB)));
+			assertTrue(words.containsKey(d.getAnnotations().get(GeTaMapper.WE)));
+			if (d.getDc() != null) {
+				assertTrue(deaIds.containsAll(d.getDc()));
+			}
+		}
+		assertTrue(deaIds.containsAll(metaea.getParts()));
+	}
+
+	/**
+	 * Test method for {@link GeTaCorpusGenerator#write(File, String)}.
+	 * 
+	 * Tests that the same seed produces identical files.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testDeterminism() throws IOException {
+		File first = fixture.write(directory, "first");
+		File second = fixture.write(directory, "second");
+		assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+		fixture.setSeed(43);
+		File third = fixture.write(directory, "third");
+		assertFalse(new String(Files.readAllBytes(first.toPath()), "UTF-8")
+				.equals(new String(Files.readAllBytes(third.toPath()), "UTF-8")));
+	}
+
+}
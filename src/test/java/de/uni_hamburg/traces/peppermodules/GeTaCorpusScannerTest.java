@@ -0,0 +1,275 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
+import org.corpus_tools.salt.SALT_TYPE;
+import org.corpus_tools.salt.common.SCorpus;
+import org.corpus_tools.salt.common.SDocument;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaCorpusScanner}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaCorpusScannerTest {
+
+	private File root = null;
+
+	/**
+	 * Set up the fixture, a corpus with nested, empty and linked
+	 * directories, documents and their companions.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		root = Files.createTempDirectory("geta-scan").toFile();
+		root.deleteOnExit();
+		File a = createDirectory(root, "a");
+		File b = createDirectory(a, "b");
+		createDirectory(root, "empty");
+		createFile(root, "rootEA.json");
+		createFile(root, "notes.txt");
+		for (String stem : new String[] { "docA1", "docA2" }) {
+			createFile(a, stem + "EA.json");
+			createFile(a, stem + "TEA.json");
+			createFile(a, stem + "TEA.ann");
+			createFile(a, stem + "DEA.ann");
+		}
+		createFile(b, "docBEA.json");
+		createFile(b, "docBMetaEA.json");
+		createFile(b, "docBNEA.json");
+		createFile(b, "docBQEA.json");
+		createFile(b, "docBDEA.json");
+		try {
+			Files.createSymbolicLink(new File(root, "link").toPath(), b.toPath());
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			// Links aren't supported on all file systems
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaImporter#importCorpusStructureRec(URI, SCorpus)},
+	 * testing that the scanned corpus structure is the same as the one
+	 * discovered by walking the directory tree with {@link File#listFiles()},
+	 * both sequentially and in parallel.
+	 */
+	@Test
+	public void testSameStructure() {
+		List<String> expected = importCorpusStructure(new ListFilesImporter(), 1);
+		assertTrue(expected.contains("D docBEA"));
+		assertTrue(expected.contains("C " + root.getName() + "/empty"));
+		assertEquals(expected, importCorpusStructure(new GeTaImporter(), 1));
+		assertEquals(expected, importCorpusStructure(new GeTaImporter(), 4));
+	}
+
+	/**
+	 * Test method for {@link GeTaImporter#importCorpusStructureRec(URI, SCorpus)},
+	 * testing that directories which {@link GeTaImporter#setTypeOfResource(URI)}
+	 * types as documents become documents, without their contents
+	 * being scanned, like when walking the directory tree with
+	 * {@link File#listFiles()}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testDirectoryDocuments() throws IOException {
+		File folderDoc = createDirectory(new File(root, "a"), "folderDoc");
+		createFile(folderDoc, "innerEA.json");
+		File nestedDoc = createDirectory(createDirectory(createDirectory(root, "c"), "d"), "nestedDoc");
+		createDirectory(nestedDoc, "e");
+		List<String> expected = importCorpusStructure(new ListFilesFolderDocumentImporter(), 1);
+		assertTrue(expected.contains("D folderDoc"));
+		assertTrue(expected.contains("D nestedDoc"));
+		assertFalse(expected.contains("D innerEA"));
+		assertEquals(expected, importCorpusStructure(new FolderDocumentImporter(), 1));
+		assertEquals(expected, importCorpusStructure(new FolderDocumentImporter(), 4));
+	}
+
+	/**
+	 * Test method for {@link GeTaCorpusScanner#scan(URI)}, testing
+	 * single-document corpora and ignored roots.
+	 */
+	@Test
+	public void testScanFile() {
+		final GeTaImporter importer = new GeTaImporter();
+		GeTaCorpusScanner.ResourceClassifier classifier = new GeTaCorpusScanner.ResourceClassifier() {
+			@Override
+			public SALT_TYPE classify(URI uri) {
+				return importer.setTypeOfResource(uri);
+			}
+		};
+		GeTaCorpusScanner scanner = new GeTaCorpusScanner(classifier, Collections.<String> emptySet(), 2);
+		GeTaCorpusScanner.Entry entry = scanner.scan(URI.createFileURI(new File(root, "rootEA.json").getAbsolutePath()));
+		assertEquals(SALT_TYPE.SDOCUMENT, entry.getType());
+		assertTrue(entry.getChildren().isEmpty());
+		assertNull(scanner.scan(URI.createFileURI(new File(root, "notes.txt").getAbsolutePath())));
+		assertNull(scanner.scan(URI.createFileURI(new File(new File(root, "a"), "docA1TEA.json").getAbsolutePath())));
+		assertNull(new GeTaCorpusScanner(classifier, Collections.singleton("a"), 2)
+				.scan(URI.createFileURI(new File(root, "a").getAbsolutePath())));
+	}
+
+	/**
+	 * Imports the corpus structure and lists the corpora and documents
+	 * with their resources in the order they have been created.
+	 */
+	private List<String> importCorpusStructure(GeTaImporter importer, int threads) {
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		properties.setPropertyValue(GeTaImporterProperties.PROP_SCAN_THREADS, threads);
+		importer.setProperties(properties);
+		assertTrue(importer.importCorpusStructureRec(URI.createFileURI(root.getAbsolutePath()), null));
+		List<String> structure = new ArrayList<>();
+		structure.add("G " + importer.getCorpusGraph().getName());
+		for (SCorpus corpus : importer.getCorpusGraph().getCorpora()) {
+			structure.add("C " + path(corpus));
+			structure.add("R " + importer.getIdentifier2ResourceTable().get(corpus.getIdentifier()));
+		}
+		for (SDocument document : importer.getCorpusGraph().getDocuments()) {
+			structure.add("D " + document.getName());
+			structure.add("P " + path(importer.getCorpusGraph().getCorpus(document)));
+			structure.add("R " + importer.getIdentifier2ResourceTable().get(document.getIdentifier()));
+		}
+		return structure;
+	}
+
+	private static String path(SCorpus corpus) {
+		String id = corpus.getIdentifier().getId();
+		return id.substring(id.indexOf(":/") + 2);
+	}
+
+	private static File createDirectory(File parent, String name) {
+		File directory = new File(parent, name);
+		assertTrue(directory.mkdir());
+		return directory;
+	}
+
+	private static void createFile(File parent, String name) throws IOException {
+		Files.write(new File(parent, name).toPath(), "{}".getBytes("UTF-8"));
+	}
+
+	/**
+	 * Types directories whose name ends with "Doc" as documents.
+	 */
+	private static SALT_TYPE getFolderDocumentType(URI uri, SALT_TYPE type) {
+		return SALT_TYPE.SCORPUS.equals(type) && uri.lastSegment().endsWith("Doc") ? SALT_TYPE.SDOCUMENT : type;
+	}
+
+	/**
+	 * An importer typing directories whose name ends with "Doc" as documents.
+	 */
+	private static final class FolderDocumentImporter extends GeTaImporter {
+
+		@Override
+		public SALT_TYPE setTypeOfResource(URI resource) {
+			return getFolderDocumentType(resource, super.setTypeOfResource(resource));
+		}
+
+	}
+
+	/**
+	 * A {@link ListFilesImporter} typing directories whose name ends
+	 * with "Doc" as documents.
+	 */
+	private static final class ListFilesFolderDocumentImporter extends ListFilesImporter {
+
+		@Override
+		public SALT_TYPE setTypeOfResource(URI resource) {
+			return getFolderDocumentType(resource, super.setTypeOfResource(resource));
+		}
+
+	}
+
+	/**
+	 * Discovers the corpus structure by walking the directory tree
+	 * recursively with {@link File#listFiles()}, like the importer
+	 * did before the {@link GeTaCorpusScanner}.
+	 */
+	private static class ListFilesImporter extends GeTaImporter {
+
+		@Override
+		protected Boolean importCorpusStructureRec(URI currURI, SCorpus parent) {
+			Boolean retVal = false;
+			if ((this.getCorpusGraph().getName() == null) || (this.getCorpusGraph().getName().isEmpty())) {
+				this.getCorpusGraph().setName(currURI.lastSegment());
+			}
+			boolean ignoreAnnotationFile = currURI.toString().endsWith("TEA.json")
+					|| currURI.toString().endsWith("DEA.json")
+					|| currURI.toString().endsWith("NEA.json")
+					|| currURI.toString().endsWith("QEA.json")
+					|| currURI.toString().endsWith("MetaEA.json");
+			if ((currURI.lastSegment() != null) && (!this.getIgnoreEndings().contains(currURI.lastSegment())) && !ignoreAnnotationFile) {
+				SALT_TYPE type = this.setTypeOfResource(currURI);
+				File currFile = new File(currURI.toFileString());
+				if (SALT_TYPE.SCORPUS.equals(type)) {
+					SCorpus sCorpus = getCorpusGraph().createCorpus(parent, currURI.lastSegment());
+					this.getIdentifier2ResourceTable().put(sCorpus.getIdentifier(), currURI);
+					File[] files = currFile.isDirectory() ? currFile.listFiles() : null;
+					if (files != null) {
+						for (File file : files) {
+							try {
+								Boolean containsDocuments = importCorpusStructureRec(URI.createFileURI(file.getCanonicalPath()), sCorpus);
+								retVal = (retVal || containsDocuments);
+							}
+							catch (IOException e) {
+								throw new PepperModuleException("Cannot canonicalize " + file, e);
+							}
+						}
+					}
+				}
+				else if (SALT_TYPE.SDOCUMENT.equals(type)) {
+					retVal = true;
+					if (parent == null) {
+						parent = getCorpusGraph().createCorpus(null, currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
+						this.getIdentifier2ResourceTable().put(parent.getIdentifier(), currURI);
+					}
+					SDocument sDocument = null;
+					if (currFile.isDirectory()) {
+						sDocument = getCorpusGraph().createDocument(parent, currURI.lastSegment());
+					}
+					else {
+						sDocument = getCorpusGraph().createDocument(parent, currURI.lastSegment().replace("." + currURI.fileExtension(), ""));
+					}
+					this.getIdentifier2ResourceTable().put(sDocument.getIdentifier(), currURI);
+				}
+			}
+			return retVal;
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SToken;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+
+/**
+ * Unit tests for {@link GeTaDivisionIndex}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaDivisionIndexTest {
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
+	private List<SToken> tokens = null;
+	private GeTaDivisionIndex fixture = null;
+
+	/**
+	 * Set up the fixture with four words W1-W4 of two tokens each.
+	 * W1 and W2 are in Sid D1, W3 and W4 in Sid D2.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		tokens = new ArrayList<>();
+		fixture = new GeTaDivisionIndex(tokens);
+		for (int w = 1; w <= 4; w++) {
+			int start = tokens.size();
+			tokens.add(SaltFactory.createSToken());
+			tokens.add(SaltFactory.createSToken());
+			fixture.addWord("W" + w, Arrays.asList(w <= 2 ? "D1" : "D2"), start, tokens.size());
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaDivisionIndex#resolve(List)},
+	 * testing divisions with `WB`/`WE`.
+	 */
+	@Test
+	public void testResolveWords() {
+		fixture.resolve(Arrays.asList(division("D1", "W1", "W2", null, null), division("D2", "W2", "W4", null, null),
+				division("D3", "W4", "W1", null, null), division("D4", "W1", "W9", null, null)));
+		assertTrue(fixture.isResolved(0));
+		assertEquals(0, fixture.getStart(0));
+		assertEquals(4, fixture.getEnd(0));
+		assertTrue(fixture.isResolved(1));
+		assertEquals(2, fixture.getStart(1));
+		assertEquals(8, fixture.getEnd(1));
+		assertFalse(fixture.isResolved(2));
+		assertFalse(fixture.isResolved(3));
+	}
+
+	/**
+	 * Test method for {@link GeTaDivisionIndex#resolve(List)},
+	 * testing divisions resolved via their children, with the
+	 * hierarchy given by `DP` and by `DC`.
+	 */
+	@Test
+	public void testResolveHierarchy() {
+		fixture.resolve(Arrays.asList(division("P1", null, null, null, null),
+				division("C1", "W1", "W1", "P1", null),
+				division("P2", null, null, "P1", Arrays.asList("C2", "C3")),
+				division("C2", "W3", "W3", null, null),
+				division("C3", "W4", "W4", null, null),
+				division("X1", null, null, "X2", null),
+				division("X2", null, null, "X1", null)));
+		assertEquals(4, fixture.getStart(2));
+		assertEquals(8, fixture.getEnd(2));
+		assertEquals(0, fixture.getStart(0));
+		assertEquals(8, fixture.getEnd(0));
+		assertFalse(fixture.isResolved(5));
+		assertFalse(fixture.isResolved(6));
+	}
+
+	/**
+	 * Test method for {@link GeTaDivisionIndex#getTokens(String)},
+	 * testing the fallback to the Sids of the fidalwords.
+	 */
+	@Test
+	public void testGetTokens() {
+		fixture.resolve(Arrays.asList(division("D2", null, null, null, null)));
+		assertFalse(fixture.isResolved(0));
+		assertEquals(tokens.subList(4, 8), fixture.getTokens("D2"));
+		assertNull(fixture.getTokens("D3"));
+	}
+
+	/**
+	 * Test method for {@link GeTaDivisionIndex#resolve(List)},
+	 * testing that on a generated corpus, the ranges resolved via
+	 * `WB`/`WE` cover the same tokens as the Sids.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeneratedCorpus() throws IOException {
+		GeTaCorpusGenerator generator = corpus.getGenerator();
+		generator.setWordCount(500);
+		generator.setDivisionDepth(3);
+		generator.setDivisionFanOut(4);
+		GeTaEA ea = GeTaReaders.getEAReader().readValue(corpus.write("gen"));
+		List<GeTaDEA> dea = GeTaReaders.getDEAReader().readValue(new File(corpus.getRoot(), "genDEA.ann"));
+		tokens = new ArrayList<>();
+		fixture = new GeTaDivisionIndex(tokens);
+		for (GeTaFidalword word : ea.getFidalwords()) {
+			int start = tokens.size();
+			for (GeTaFC fc : word.getFc()) {
+				for (int i = 0; i < fc.getLl().size(); i++) {
+					tokens.add(SaltFactory.createSToken());
+				}
+			}
+			fixture.addWord(word.getId(), word.getSid(), start, tokens.size());
+		}
+		fixture.resolve(dea);
+		for (int i = 0; i < dea.size(); i++) {
+			assertTrue(fixture.isResolved(i));
+			assertEquals(fixture.getTokens(dea.get(i).getId()), tokens.subList(fixture.getStart(i), fixture.getEnd(i)));
+		}
+	}
+
+	private static GeTaDEA division(String id, String wb, String we, String dp, List<String> dc) {
+		return new GeTaDEA(id, wb, we, null, null, null, null, null, dp, null, null, null, null, dc);
+	}
+
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.core.SMetaAnnotation;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaDocumentCache}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaDocumentCacheTest {
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
+	private File corpusDirectory = null;
+	private File cacheDirectory = null;
+	private File eaFile = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		corpusDirectory = corpus.newFolder("corpus");
+		cacheDirectory = corpus.newFolder("cache");
+		corpus.getGenerator().setWordCount(200);
+		eaFile = corpus.write(corpusDirectory, "doc");
+	}
+
+	/**
+	 * Test method for {@link GeTaDocumentCache#restore(File, String, SDocument)},
+	 * testing that an unchanged document is restored from the cache
+	 * in a later import, and that changed files or settings cause it
+	 * to be mapped again.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testIncrementalMapping() throws IOException {
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		GeTaMapper mapper = createMapper(new GeTaImporterProperties(), new GeTaDocumentCache(cacheDirectory), metrics);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, mapper.mapSDocument());
+		assertEquals(1, metrics.getDocumentCount());
+		assertEquals(0, metrics.getRestoredDocumentCount());
+
+		// A new import restores the unchanged document
+		GeTaDocumentCache cache = new GeTaDocumentCache(cacheDirectory);
+		assertNotNull(cache.getFingerprint(eaFile));
+		GeTaMapper restoringMapper = createMapper(new GeTaImporterProperties(), cache, metrics);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, restoringMapper.mapSDocument());
+		assertEquals(1, metrics.getDocumentCount());
+		assertEquals(1, metrics.getRestoredDocumentCount());
+		assertNotNull(restoringMapper.getDocument().getDocumentGraph());
+		assertEquals(getMetaAnnotations(mapper.getDocument()), getMetaAnnotations(restoringMapper.getDocument()));
+
+		// Different settings change the mapped result
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		properties.setPropertyValue(GeTaImporterProperties.PROP_MAP_TR, false);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, createMapper(properties, cache, metrics).mapSDocument());
+		assertEquals(2, metrics.getDocumentCount());
+
+		// A changed sibling file changes the mapped result
+		String fingerprint = cache.getFingerprint(eaFile);
+		Files.write(new File(corpusDirectory, "docTEA.ann").toPath(), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, createMapper(properties, cache, metrics).mapSDocument());
+		assertEquals(3, metrics.getDocumentCount());
+		assertEquals(1, metrics.getRestoredDocumentCount());
+		assertFalse(fingerprint.equals(cache.getFingerprint(eaFile)));
+	}
+
+	/**
+	 * Test method for {@link GeTaDocumentCache#restore(File, String, SDocument)},
+	 * testing that a restored document has the same graph and the
+	 * same meta annotations, including their types, as a freshly
+	 * mapped one.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testRestoredDocument() throws IOException {
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		assertEquals(DOCUMENT_STATUS.COMPLETED, createMapper(properties, new GeTaDocumentCache(cacheDirectory), metrics).mapSDocument());
+		GeTaMapper restoringMapper = createMapper(properties, new GeTaDocumentCache(cacheDirectory), metrics);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, restoringMapper.mapSDocument());
+		assertEquals(1, metrics.getRestoredDocumentCount());
+		GeTaMapper mapper = createMapper(properties, null, metrics);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, mapper.mapSDocument());
+
+		assertEquals(GeTaMapperTest.dump(mapper.getDocument().getDocumentGraph()), GeTaMapperTest.dump(restoringMapper.getDocument().getDocumentGraph()));
+		Map<String, Object> metaAnnotations = getMetaAnnotations(mapper.getDocument());
+		assertTrue(metaAnnotations.containsKey("GeTa_META::" + GeTaMapper.PARTS));
+		assertEquals(metaAnnotations, getMetaAnnotations(restoringMapper.getDocument()));
+	}
+
+	/**
+	 * Test method for {@link GeTaDocumentCache#store(File, String, SDocument)},
+	 * testing that meta annotation values keep their types, and that
+	 * a document with a value which cannot be cached is left uncached.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testMetaAnnotationTypes() throws IOException {
+		GeTaDocumentCache cache = new GeTaDocumentCache(cacheDirectory);
+		SDocument document = SaltFactory.createSDocument();
+		document.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		document.createMetaAnnotation("GeTa", "string", "1");
+		document.createMetaAnnotation("GeTa", "boolean", true);
+		document.createMetaAnnotation("GeTa", "integer", 1);
+		document.createMetaAnnotation("GeTa", "long", 1L);
+		document.createMetaAnnotation("GeTa", "float", 1.5f);
+		document.createMetaAnnotation("GeTa", "double", 1.5d);
+		document.createMetaAnnotation("GeTa", "bigInteger", new BigInteger("123456789012345678901234567890"));
+		document.createMetaAnnotation("GeTa", "bigDecimal", new BigDecimal("1.50"));
+		document.createMetaAnnotation("GeTa", "null", null);
+		cache.store(eaFile, "a", document);
+		SDocument restored = SaltFactory.createSDocument();
+		assertTrue(cache.restore(eaFile, "a", restored));
+		Map<String, Object> metaAnnotations = getMetaAnnotations(restored);
+		assertEquals(getMetaAnnotations(document), metaAnnotations);
+		assertEquals(Integer.class, metaAnnotations.get("GeTa::integer").getClass());
+		assertEquals(Long.class, metaAnnotations.get("GeTa::long").getClass());
+
+		document.createMetaAnnotation("GeTa", "list", Arrays.asList("a", "b"));
+		cache.store(eaFile, "b", document);
+		assertEquals("a", cache.getFingerprint(eaFile));
+		restored = SaltFactory.createSDocument();
+		assertTrue(cache.restore(eaFile, "a", restored));
+		assertEquals(metaAnnotations, getMetaAnnotations(restored));
+	}
+
+	/**
+	 * Test method for {@link GeTaDocumentCache#fingerprint(List, String)}.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testFingerprint() throws IOException {
+		File teaFile = new File(corpusDirectory, "docTEA.ann");
+		String fingerprint = fingerprint(teaFile, "settings");
+		assertEquals(fingerprint, fingerprint(teaFile, "settings"));
+		assertFalse(fingerprint.equals(fingerprint(teaFile, "other settings")));
+		assertFalse(fingerprint.equals(fingerprint(new File(corpusDirectory, "missingTEA.ann"), "settings")));
+		byte[] content = Files.readAllBytes(teaFile.toPath());
+		content[content.length / 2] ^= 1;
+		Files.write(teaFile.toPath(), content);
+		assertFalse(fingerprint.equals(fingerprint(teaFile, "settings")));
+	}
+
+	/**
+	 * Test method for {@link GeTaDocumentCache#store(File, String, SDocument)},
+	 * testing that the manifest keeps the last fingerprint of a
+	 * document, and is compacted when the cache is opened.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testManifest() throws IOException {
+		GeTaDocumentCache cache = new GeTaDocumentCache(cacheDirectory);
+		SDocument document = SaltFactory.createSDocument();
+		document.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		document.createMetaAnnotation("GeTa", "SCR", "Ge'ez");
+		document.createMetaAnnotation("GeTa_META", "Comm", null);
+		cache.store(eaFile, "a", document);
+		cache.store(eaFile, "b", document);
+		File manifest = new File(cacheDirectory, GeTaDocumentCache.MANIFEST);
+		assertEquals(2, Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8).size());
+		cache = new GeTaDocumentCache(cacheDirectory);
+		assertEquals(1, Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8).size());
+		assertEquals("b", cache.getFingerprint(eaFile));
+		SDocument restored = SaltFactory.createSDocument();
+		assertFalse(cache.restore(eaFile, "a", restored));
+		assertTrue(cache.restore(eaFile, "b", restored));
+		assertEquals(getMetaAnnotations(document), getMetaAnnotations(restored));
+	}
+
+	private String fingerprint(File teaFile, String settings) throws IOException {
+		return GeTaDocumentCache.fingerprint(Arrays.asList(GeTaInput.open(eaFile), GeTaInput.open(teaFile)), settings);
+	}
+
+	private GeTaMapper createMapper(GeTaImporterProperties properties, GeTaDocumentCache cache, GeTaImporterMetrics metrics) {
+		GeTaMapper mapper = new GeTaMapper();
+		mapper.setResourceURI(URI.createFileURI(eaFile.getAbsolutePath()));
+		mapper.setDocument(SaltFactory.createSDocument());
+		mapper.setProperties(properties);
+		mapper.setDocumentCache(cache);
+		mapper.setMetrics(metrics);
+		return mapper;
+	}
+
+	private static Map<String, Object> getMetaAnnotations(SDocument document) {
+		Map<String, Object> metaAnnotations = new HashMap<>();
+		for (SMetaAnnotation meta : document.getMetaAnnotations()) {
+			metaAnnotations.put(meta.getNamespace() + "::" + meta.getName(), meta.getValue());
+		}
+		return metaAnnotations;
+	}
+
+}
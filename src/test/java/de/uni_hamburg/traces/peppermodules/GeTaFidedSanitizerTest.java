@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaFidedSanitizer}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaFidedSanitizerTest {
+
+	/**
+	 * FIDED values using the GeTa markup vocabulary, i.e., `<font>`
+	 * tags with colour attributes around word separators and
+	 * editorial marks.
+	 */
+	private static final String[] GETA_FIDED = {
+			"በስመ<font color='black'>፡</font><font color='blue'></font>",
+			"አብ<font color='black'>፡</font><font color='blue'></font>",
+			"ወወልድ<font color='black'>።</font><font color='blue'>፩</font>",
+			"<font color='red'>ቅዱስ</font><font color='black'>፡</font>",
+			"<font color=\"blue\">[</font>ወ<font color=\"blue\">]</font>መንፈስ",
+			"<FONT COLOR='black'>፤</FONT>",
+			"<font color=black>፡</font>",
+			"<font color = 'black' size='2'>፡</font>",
+			"<font>፡</font><font/>",
+			"<font color='a>b'>ሀ</font>",
+			"ሀ<font color='black'> ፡ </font>ለ",
+			"  ሐ \t\n ሠ  ",
+			"ረ ሰ",
+			"ሀ\u200Bለ\u00ADሐ",
+			"\u00A0ሀ\u00A0\u00A0ለ\u00A0",
+			"",
+			"ሀ > ለ",
+			"በስመ",
+	};
+
+	/**
+	 * FIDED values with markup outside the GeTa vocabulary, which
+	 * must be handled by the Jsoup fallback.
+	 */
+	private static final String[] OTHER_FIDED = {
+			"ሀ&amp;ለ",
+			"ሀ&nbsp;ለ",
+			"ሀ<br>ለ",
+			"ሀ<p>ለ</p>ሐ",
+			"ሀ<b>ለ</b>",
+			"ሀ<!-- comment -->ለ",
+			"ሀ < ለ",
+			"ሀ<font",
+			"ሀ<font color='black>ለ",
+			"ሀ<fonts>ለ</fonts>",
+			"ሀ\u0000ለ",
+			"ሀ\u000Bለ",
+	};
+
+	/**
+	 * Test method for {@link GeTaFidedSanitizer#sanitize(String)},
+	 * testing that GeTa FIDED values are stripped without Jsoup, and
+	 * that the result is identical to Jsoup's.
+	 */
+	@Test
+	public void testSanitizeGeTaMarkup() {
+		for (String fided : GETA_FIDED) {
+			assertNotNull(fided, GeTaFidedSanitizer.strip(fided));
+			assertEquals(fided, Jsoup.parse(fided).text(), GeTaFidedSanitizer.sanitize(fided));
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaFidedSanitizer#sanitize(String)},
+	 * testing random combinations of the GeTa markup vocabulary,
+	 * text and whitespace against Jsoup.
+	 */
+	@Test
+	public void testSanitizeRandomGeTaMarkup() {
+		String[] parts = { "ሀ", "ለሐ", "፡", "።", " ", "  ", "\t", "\n", "\r\n", "\u00A0", "\u200B", ">",
+				"<font color='black'>", "<font color='blue'>", "<font color=\"red\">", "</font>" };
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			StringBuilder fided = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int j = 0; j < length; j++) {
+				fided.append(parts[random.nextInt(parts.length)]);
+			}
+			String value = fided.toString();
+			assertEquals(value, Jsoup.parse(value).text(), GeTaFidedSanitizer.sanitize(value));
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaFidedSanitizer#sanitize(String)},
+	 * testing that other markup falls back to Jsoup.
+	 */
+	@Test
+	public void testSanitizeOtherMarkup() {
+		for (String fided : OTHER_FIDED) {
+			assertNull(fided, GeTaFidedSanitizer.strip(fided));
+			assertEquals(fided, Jsoup.parse(fided).text(), GeTaFidedSanitizer.sanitize(fided));
+		}
+	}
+
+}
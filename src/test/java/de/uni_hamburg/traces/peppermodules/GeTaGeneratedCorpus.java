@@ -0,0 +1,73 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A JUnit rule providing a {@link GeTaCorpusGenerator} together with
+ * a temporary folder to write its document sets to. The folder and
+ * all generated files are deleted after each test.
+ * 
+ * Configure the generator via {@link #getGenerator()} before writing
+ * a document set via {@link #write(String)}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaGeneratedCorpus extends TemporaryFolder {
+
+	private final GeTaCorpusGenerator generator = new GeTaCorpusGenerator();
+
+	/**
+	 * @return the generator
+	 */
+	public GeTaCorpusGenerator getGenerator() {
+		return generator;
+	}
+
+	/**
+	 * Writes a document set to the root of the temporary folder.
+	 *
+	 * @param stem The name of the document set
+	 * @return The *EA.json file of the document set
+	 * @throws IOException if a file cannot be written
+	 */
+	public File write(String stem) throws IOException {
+		return write(getRoot(), stem);
+	}
+
+	/**
+	 * Writes a document set to a directory, e.g., a folder created
+	 * via {@link #newFolder(String)}.
+	 *
+	 * @param directory The directory to write to
+	 * @param stem The name of the document set
+	 * @return The *EA.json file of the document set
+	 * @throws IOException if a file cannot be written
+	 */
+	public File write(File directory, String stem) throws IOException {
+		return generator.write(directory, stem);
+	}
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.GeTaImporterMetrics.Stage;
+
+/**
+ * Unit tests for {@link GeTaImporterMetrics} and {@link GeTaStageMetrics}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaImporterMetricsTest {
+
+	/**
+	 * Test method for {@link GeTaStageMetrics#record(long)},
+	 * testing that run times are counted in logarithmic buckets.
+	 */
+	@Test
+	public void testHistogram() {
+		assertEquals(0, GeTaStageMetrics.bucket(0));
+		assertEquals(0, GeTaStageMetrics.bucket(1));
+		assertEquals(1, GeTaStageMetrics.bucket(2));
+		assertEquals(1, GeTaStageMetrics.bucket(3));
+		assertEquals(10, GeTaStageMetrics.bucket(1024));
+		assertEquals(62, GeTaStageMetrics.bucket(Long.MAX_VALUE));
+		GeTaStageMetrics stage = new GeTaStageMetrics();
+		for (int i = 0; i < 98; i++) {
+			stage.record(1000);
+		}
+		stage.record(1000000);
+		stage.record(1000000000);
+		long[] histogram = stage.getHistogram();
+		assertEquals(98, histogram[9]);
+		assertEquals(1, histogram[19]);
+		assertEquals(1, histogram[29]);
+		assertEquals(100, stage.getCount());
+		assertEquals(1000.0, stage.getMaxMillis(), 0);
+		assertEquals((98 * 1000 + 1000000 + 1000000000) / 1e6 / 100, stage.getMeanMillis(), 1e-9);
+		// Percentiles are the upper bounds of their buckets
+		assertEquals(1023, stage.percentileNanos(50));
+		assertEquals(1023, stage.percentileNanos(98));
+		assertEquals((1L << 20) - 1, stage.percentileNanos(99));
+		assertEquals((1L << 30) - 1, stage.percentileNanos(100));
+		assertEquals(0, new GeTaStageMetrics().percentileNanos(50));
+	}
+
+	/**
+	 * Test method for {@link GeTaImporterMetrics#recordDocument(long, long, long)}.
+	 */
+	@Test
+	public void testCounters() {
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		metrics.recordDocument(10, 20, 30);
+		metrics.recordDocument(1, 2, 3);
+		metrics.recordFailure();
+		metrics.recordBytesRead(100);
+		metrics.record(Stage.TEA, 5);
+		assertEquals(2, metrics.getDocumentCount());
+		assertEquals(1, metrics.getFailedDocumentCount());
+		assertEquals(11, metrics.getTokenCount());
+		assertEquals(22, metrics.getSpanCount());
+		assertEquals(33, metrics.getAnnotationCount());
+		assertEquals(100, metrics.getBytesRead());
+		assertTrue(metrics.getTokensPerSecond() > 0);
+		assertEquals(1, metrics.getStage(Stage.TEA).getCount());
+		assertEquals(0, metrics.getStage(Stage.DEA).getCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaImporterMetrics#register(String)},
+	 * testing that the importer and stage metrics are published
+	 * on the platform MBean server and can be removed again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testRegister() throws Exception {
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		metrics.recordDocument(10, 20, 30);
+		metrics.register("test-importer");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			List<ObjectName> names = metrics.getRegisteredNames();
+			assertEquals(1 + Stage.values().length, names.size());
+			ObjectName importerName = new ObjectName(GeTaImporterMetrics.DOMAIN + ":type=GeTaImporter,name=\"test-importer\"");
+			assertEquals(10L, server.getAttribute(importerName, "TokenCount"));
+			ObjectName stageName = new ObjectName(GeTaImporterMetrics.DOMAIN + ":type=GeTaImporter,name=\"test-importer\",stage=parse");
+			assertEquals(0L, server.getAttribute(stageName, "Count"));
+		}
+		finally {
+			metrics.unregister();
+		}
+		assertTrue(metrics.getRegisteredNames().isEmpty());
+		assertFalse(server.queryNames(new ObjectName(GeTaImporterMetrics.DOMAIN + ":name=\"test-importer\",*"), null).iterator().hasNext());
+	}
+
+	/**
+	 * Test method for {@link GeTaImporter#end()}, testing that
+	 * the importer removes its metrics MBeans when the import ends.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testEndReleasesMetrics() throws Exception {
+		GeTaImporter importer = new GeTaImporter();
+		GeTaImporterMetrics metrics = importer.getMetrics();
+		List<ObjectName> names = metrics.getRegisteredNames();
+		assertFalse(names.isEmpty());
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertTrue(server.isRegistered(names.get(0)));
+		importer.end();
+		assertFalse(server.isRegistered(names.get(0)));
+		assertTrue(metrics.getRegisteredNames().isEmpty());
+		assertFalse(metrics == importer.getMetrics());
+		importer.releaseMetrics();
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.GeTaEAStreamParser.FidalwordHandler;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Unit tests for {@link GeTaInput}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaInputTest {
+
+	/**
+	 * Test method for {@link GeTaInput#read(com.fasterxml.jackson.databind.ObjectReader)},
+	 * testing that binding from the contents yields the same objects
+	 * as binding from the file.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testRead() throws IOException {
+		File eaFile = getResource("testEA.json");
+		GeTaInput eaInput = GeTaInput.open(eaFile);
+		assertTrue(eaInput.exists());
+		assertFalse(eaInput.isLoaded());
+		GeTaEA expected = GeTaReaders.getEAReader().readValue(eaFile);
+		GeTaEA actual = eaInput.read(GeTaReaders.getEAReader());
+		assertEquals(expected.getFidalwords().size(), actual.getFidalwords().size());
+		assertEquals(expected.getTR(), actual.getTR());
+		assertTrue(eaInput.isLoaded());
+		// Contents are read again after they have been released
+		eaInput.release();
+		assertFalse(eaInput.isLoaded());
+		GeTaEA again = eaInput.read(GeTaReaders.getEAReader());
+		assertEquals(actual.getFidalwords().size(), again.getFidalwords().size());
+		List<GeTaTEA> tea = GeTaInput.open(getResource("testTEA.ann")).read(GeTaReaders.getTEAReader());
+		List<GeTaTEA> expectedTEA = GeTaReaders.getTEAReader().readValue(getResource("testTEA.ann"));
+		assertEquals(expectedTEA.size(), tea.size());
+	}
+
+	/**
+	 * Test method for {@link GeTaInput#setStreaming(boolean)}, testing
+	 * that a streaming input is hashed and parsed like any other,
+	 * without ever holding its contents in memory.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testStreaming() throws IOException, NoSuchAlgorithmException {
+		File eaFile = getResource("testEA.json");
+		MessageDigest expected = MessageDigest.getInstance("SHA-256");
+		GeTaInput.open(eaFile).digest(expected);
+		GeTaInput eaInput = GeTaInput.open(eaFile);
+		eaInput.getFirstByte();
+		assertTrue(eaInput.isLoaded());
+		eaInput.setStreaming(true);
+		assertFalse(eaInput.isLoaded());
+		assertEquals('{', eaInput.getFirstByte());
+		MessageDigest actual = MessageDigest.getInstance("SHA-256");
+		eaInput.digest(actual);
+		assertTrue(Arrays.equals(expected.digest(), actual.digest()));
+		final List<GeTaFidalword> fidalwords = new ArrayList<>();
+		new GeTaEAStreamParser(GeTaReaders.getFidalwordReader()).parse(eaInput, new FidalwordHandler() {
+			@Override
+			public void handle(GeTaFidalword fidalword) {
+				fidalwords.add(fidalword);
+			}
+		});
+		assertEquals(GeTaReaders.getEAReader().<GeTaEA> readValue(eaFile).getFidalwords().size(), fidalwords.size());
+		assertFalse(eaInput.isLoaded());
+	}
+
+	/**
+	 * Test method for {@link GeTaInput#getFirstByte()}, testing
+	 * missing, empty and blank-first-line files.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGetFirstByte() throws IOException {
+		File directory = Files.createTempDirectory("geta-input").toFile();
+		File missing = new File(directory, "missingTEA.ann");
+		assertFalse(GeTaInput.open(missing).exists());
+		assertEquals(-1, GeTaInput.open(missing).getFirstByte());
+		File empty = new File(directory, "emptyTEA.ann");
+		Files.write(empty.toPath(), new byte[0]);
+		assertTrue(GeTaInput.open(empty).exists());
+		assertEquals(-1, GeTaInput.open(empty).getFirstByte());
+		assertEquals('\n', GeTaInput.open(getResource("testDEA.ann")).getFirstByte());
+		assertEquals('[', GeTaInput.open(getResource("testTEA.ann")).getFirstByte());
+		empty.delete();
+		directory.delete();
+	}
+
+	private File getResource(String name) {
+		return new File(this.getClass().getClassLoader().getResource(name).getFile());
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaAL;
+
+/**
+ * Unit tests for {@link GeTaInterner}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaInternerTest {
+
+	/**
+	 * Test method for {@link GeTaInterner#get(GeTaInterner.Key)} and
+	 * {@link GeTaInterner#intern(GeTaInterner.Key, Object)}, testing
+	 * that equal keys return the canonical instance.
+	 */
+	@Test
+	public void testIntern() {
+		GeTaInterner<String> interner = new GeTaInterner<>(2, 16);
+		GeTaInterner.Key key = interner.newKey().set(0, "a").set(1, 1);
+		assertNull(interner.get(key));
+		String a = interner.intern(key, new String("a1"));
+		key = interner.newKey().set(0, "b").set(1, 1);
+		assertNull(interner.get(key));
+		interner.intern(key, "b1");
+		key = interner.newKey().set(0, "a").set(1, new Integer(1));
+		assertSame(a, interner.get(key));
+		assertSame(a, interner.intern(key, new String("a1")));
+		assertEquals(2, interner.size());
+	}
+
+	/**
+	 * Test method for {@link GeTaInterner#intern(GeTaInterner.Key, Object)},
+	 * testing that the interner is bounded.
+	 */
+	@Test
+	public void testBounded() {
+		GeTaInterner<Integer> interner = new GeTaInterner<>(1, 4);
+		for (int i = 0; i < 100; i++) {
+			GeTaInterner.Key key = interner.newKey().set(0, i);
+			assertEquals(Integer.valueOf(i), interner.intern(key, i));
+		}
+		assertTrue(interner.size() <= 4);
+	}
+
+	/**
+	 * Test method for {@link GeTaAL#create(String, String, String, String, String, String, String, String)},
+	 * testing that ALs created concurrently are canonical.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testConcurrentALs() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<GeTaAL>> futures = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				futures.add(executor.submit(new Callable<GeTaAL>() {
+					@Override
+					public GeTaAL call() {
+						return GeTaAL.create("lex", new String("x"), null, null, null, null, "pos", "noun");
+					}
+				}));
+			}
+			GeTaAL first = futures.get(0).get();
+			for (Future<GeTaAL> future : futures) {
+				assertSame(first, future.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -22,14 +22,44 @@ package de.uni_hamburg.traces.peppermodules;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
 import org.corpus_tools.salt.SaltFactory;
 import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.SToken;
+import org.corpus_tools.salt.core.SAnnotation;
 import org.eclipse.emf.common.util.URI;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaRef;
+
 /**
  * Unit tests for {@link GeTaMapper}.
  *
@@ -37,7 +67,13 @@ import org.junit.Test;
  *
  */
 public class GeTaMapperTest {
-	
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
 	private GeTaMapper fixture = null;
 	
 	/**
@@ -47,13 +83,27 @@ public class GeTaMapperTest {
 	 */
 	@Before
 	public void setUp() throws Exception {
+		setFixture(createMapper(new GeTaImporterProperties()));
+	}
+
+	/**
+	 * Creates a mapper for the test document with the given properties.
+	 *
+	 * @param properties The properties to set on the mapper
+	 * @return The mapper
+	 */
+	private GeTaMapper createMapper(GeTaImporterProperties properties) {
+		return createMapper(new File(this.getClass().getClassLoader().getResource("testEA.json").getFile()), properties);
+	}
+
+	private GeTaMapper createMapper(File eaFile, GeTaImporterProperties properties) {
 		GeTaMapper mapper = new GeTaMapper();
-		File file = new File(this.getClass().getClassLoader().getResource("testEA.json").getFile());
-		String path = file.getAbsolutePath();
+		String path = eaFile.getAbsolutePath();
 		mapper.setResourceURI(URI.createFileURI(path));
 		SDocument doc = SaltFactory.createSDocument();
 		mapper.setDocument(doc);
-		setFixture(mapper);
+		mapper.setProperties(properties);
+		return mapper;
 	}
 
 	/**
@@ -85,6 +135,341 @@ public class GeTaMapperTest {
 		assertEquals("vocalized", getFixture().getDocument().getMetaAnnotation("GeTa::TR").getValue());
 	}
 
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that streaming the main file yields the same graph as
+	 * binding it completely, i.e., the same spans with the same
+	 * annotations over the same tokens.
+	 */
+	@Test
+	public void testStreamEA() {
+		getFixture().mapSDocument();
+		SDocumentGraph expected = getFixture().getDocument().getDocumentGraph();
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		properties.setPropertyValue(GeTaImporterProperties.PROP_STREAM_EA, true);
+		GeTaMapper streamingMapper = createMapper(properties);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, streamingMapper.mapSDocument());
+		SDocumentGraph actual = streamingMapper.getDocument().getDocumentGraph();
+		assertEquals(expected.getTextualDSs().get(0).getText(), actual.getTextualDSs().get(0).getText());
+		assertEquals(dump(expected), dump(actual));
+		assertEquals("vocalized", streamingMapper.getDocument().getMetaAnnotation("GeTa::TR").getValue());
+	}
+
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that `null` elements of the fidalwords array are skipped
+	 * when binding, streaming and pre-scanning the main file, and that
+	 * any other non-object element fails the document.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testNullFidalwords() throws IOException {
+		corpus.getGenerator().setWordCount(50);
+		File eaFile = corpus.write("gen");
+		GeTaMapper mapper = createMapper(eaFile, new GeTaImporterProperties());
+		assertEquals(DOCUMENT_STATUS.COMPLETED, mapper.mapSDocument());
+		List<String> expected = dump(mapper.getDocument().getDocumentGraph());
+
+		ObjectMapper json = new ObjectMapper();
+		ObjectNode root = (ObjectNode) json.readTree(eaFile);
+		ArrayNode fidalwords = (ArrayNode) root.get(GeTaMapper.FIDALWORDS);
+		fidalwords.insertNull(0);
+		fidalwords.insertNull(fidalwords.size() / 2);
+		fidalwords.addNull();
+		json.writeValue(eaFile, root);
+		for (boolean streamEA : new boolean[] { false, true }) {
+			GeTaImporterProperties properties = new GeTaImporterProperties();
+			properties.setPropertyValue(GeTaImporterProperties.PROP_STREAM_EA, streamEA);
+			properties.setPropertyValue(GeTaImporterProperties.PROP_PRE_SCAN, true);
+			mapper = createMapper(eaFile, properties);
+			assertEquals(DOCUMENT_STATUS.COMPLETED, mapper.mapSDocument());
+			assertEquals(expected, dump(mapper.getDocument().getDocumentGraph()));
+		}
+
+		fidalwords.set(fidalwords.size() / 2, fidalwords.numberNode(1));
+		json.writeValue(eaFile, root);
+		for (boolean streamEA : new boolean[] { false, true }) {
+			GeTaImporterProperties properties = new GeTaImporterProperties();
+			properties.setPropertyValue(GeTaImporterProperties.PROP_STREAM_EA, streamEA);
+			assertEquals(DOCUMENT_STATUS.FAILED, createMapper(eaFile, properties).mapSDocument());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that parsing the files concurrently yields the same
+	 * graph as parsing them one after another, i.e., the same spans
+	 * with the same annotations over the same tokens.
+	 */
+	@Test
+	public void testParallelParsing() {
+		getFixture().mapSDocument();
+		SDocumentGraph expected = getFixture().getDocument().getDocumentGraph();
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		properties.setPropertyValue(GeTaImporterProperties.PROP_PARSE_THREADS, 4);
+		GeTaImporter importer = new GeTaImporter();
+		importer.setProperties(properties);
+		GeTaMapper parallelMapper = createMapper(properties);
+		parallelMapper.setParseExecutor(importer.getParseExecutor());
+		assertNotNull(importer.getParseExecutor());
+		assertEquals(DOCUMENT_STATUS.COMPLETED, parallelMapper.mapSDocument());
+		SDocumentGraph actual = parallelMapper.getDocument().getDocumentGraph();
+		assertEquals(expected.getTextualDSs().get(0).getText(), actual.getTextualDSs().get(0).getText());
+		assertEquals(dump(expected), dump(actual));
+		assertEquals("vocalized", parallelMapper.getDocument().getMetaAnnotation("GeTa::TR").getValue());
+	}
+
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that switched-off span layers are neither built nor
+	 * annotated, in both binding and streaming mode, while the
+	 * tokens and fidalword spans are unaffected.
+	 */
+	@Test
+	public void testSpanLayers() {
+		getFixture().mapSDocument();
+		SDocumentGraph expected = getFixture().getDocument().getDocumentGraph();
+		int actualSpans = -1;
+		for (boolean streamEA : new boolean[] { false, true }) {
+			GeTaImporterProperties properties = new GeTaImporterProperties();
+			properties.setPropertyValue(GeTaImporterProperties.PROP_STREAM_EA, streamEA);
+			properties.setPropertyValue(GeTaImporterProperties.PROP_MAP_FC, false);
+			properties.setPropertyValue(GeTaImporterProperties.PROP_MAP_ED, false);
+			properties.setPropertyValue(GeTaImporterProperties.PROP_MAP_TR, false);
+			properties.setPropertyValue(GeTaImporterProperties.PROP_MAP_FIDEDH, false);
+			GeTaMapper layerMapper = createMapper(properties);
+			assertEquals(DOCUMENT_STATUS.COMPLETED, layerMapper.mapSDocument());
+			SDocumentGraph actual = layerMapper.getDocument().getDocumentGraph();
+			assertEquals(expected.getTextualDSs().get(0).getText(), actual.getTextualDSs().get(0).getText());
+			assertEquals(expected.getTokens().size(), actual.getTokens().size());
+			assertTrue(actual.getSpans().size() < expected.getSpans().size());
+			if (actualSpans != -1) {
+				assertEquals(actualSpans, actual.getSpans().size());
+			}
+			actualSpans = actual.getSpans().size();
+			int fidalwordSpans = 0;
+			for (SSpan span : actual.getSpans()) {
+				assertNull(span.getAnnotation("GeTa::TR"));
+				assertNull(span.getAnnotation("GeTa::FIDEDh"));
+				assertNull(span.getAnnotation("GeTa::FIDLET"));
+				assertNull(span.getAnnotation("GeTa::NT"));
+				if (span.getAnnotation("GeTa::FIDED") != null) {
+					fidalwordSpans++;
+				}
+			}
+			assertTrue(fidalwordSpans > 0);
+		}
+	}
+
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that stage timings and document counts are recorded
+	 * with the importer metrics.
+	 */
+	@Test
+	public void testMetrics() {
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		getFixture().setMetrics(metrics);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, getFixture().mapSDocument());
+		SDocumentGraph graph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(1, metrics.getDocumentCount());
+		assertEquals(graph.getTokens().size(), metrics.getTokenCount());
+		assertEquals(graph.getSpans().size(), metrics.getSpanCount());
+		assertTrue(metrics.getAnnotationCount() > metrics.getSpanCount());
+		long annotationCount = 0;
+		for (SSpan span : graph.getSpans()) {
+			annotationCount += span.getAnnotations().size();
+		}
+		assertEquals(annotationCount, metrics.getAnnotationCount());
+		assertTrue(metrics.getBytesRead() > 0);
+		for (GeTaImporterMetrics.Stage stage : new GeTaImporterMetrics.Stage[] { GeTaImporterMetrics.Stage.PARSE,
+				GeTaImporterMetrics.Stage.FIDALWORDS, GeTaImporterMetrics.Stage.DOCUMENT }) {
+			assertEquals(1, metrics.getStage(stage).getCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.uni_hamburg.traces.peppermodules.GeTaMapper#mapSDocument()},
+	 * testing that a document whose parse fails with an unchecked
+	 * exception is recorded as failed.
+	 */
+	@Test
+	public void testMetricsFailure() {
+		GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+		getFixture().setMetrics(metrics);
+		ExecutorService parseExecutor = Executors.newSingleThreadExecutor();
+		parseExecutor.shutdown();
+		getFixture().setParseExecutor(parseExecutor);
+		try {
+			getFixture().mapSDocument();
+			fail("Expected a RejectedExecutionException.");
+		}
+		catch (RejectedExecutionException e) {
+			// Expected
+		}
+		assertEquals(1, metrics.getFailedDocumentCount());
+		assertEquals(0, metrics.getDocumentCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#mapNEA(List)},
+	 * testing that unresolvable Tids and WIds in NEA refs are
+	 * skipped and counted rather than failing the document.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testUnresolvedNEAReferences() throws IOException {
+		corpus.getGenerator().setWordCount(100);
+		corpus.getGenerator().setNamedEntityDensity(0.2);
+		GeTaEA ea = GeTaReaders.getEAReader().readValue(corpus.write("gen"));
+		List<GeTaNEA> nea = GeTaReaders.getNEAReader().readValue(new File(corpus.getRoot(), "genNEA.ann"));
+		getFixture().initGraph();
+		getFixture().mapFidalwords(ea.getFidalwords());
+		getFixture().mapNEA(nea);
+		int spanCount = getFixture().getDocument().getDocumentGraph().getSpans().size();
+		assertEquals(0, getFixture().getUnresolvedReferenceCount());
+
+		String wid = ea.getFidalwords().get(0).getId();
+		List<GeTaNEA> brokenNEA = new ArrayList<>(nea);
+		brokenNEA.add(new GeTaNEA("N0", null, null,
+				Arrays.asList(new GeTaRef(wid, Arrays.asList("T0>" + wid, "T99>" + wid)),
+						new GeTaRef("W0", Arrays.asList("T0>W0"))),
+				null));
+		getFixture().initGraph();
+		getFixture().mapFidalwords(ea.getFidalwords());
+		getFixture().mapNEA(brokenNEA);
+		assertEquals(spanCount + 1, getFixture().getDocument().getDocumentGraph().getSpans().size());
+		assertEquals(3, getFixture().getUnresolvedReferenceCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#mapNEA(List)}, testing that
+	 * a valid Tid in a `ref` whose `WId` is missing or unknown is
+	 * resolved from the Tid itself, so that the NE span still covers
+	 * its tokens, while the missing fidalword is counted.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	public void testNEAReferenceWithoutWId() throws IOException {
+		corpus.getGenerator().setWordCount(20);
+		GeTaEA ea = GeTaReaders.getEAReader().readValue(corpus.write("gen"));
+		GeTaFidalword word = ea.getFidalwords().get(3);
+		String wid = word.getId();
+		String tid = word.getFc().get(0).getLl().get(0).getTid();
+		GeTaNEA ne = new GeTaNEA("N0", "probe", "pers", Arrays.asList(new GeTaRef(wid, Arrays.asList(tid)),
+				new GeTaRef(null, Arrays.asList(tid)), new GeTaRef("W-unknown", Arrays.asList(tid))), null);
+		getFixture().initGraph();
+		getFixture().mapFidalwords(ea.getFidalwords());
+		getFixture().mapNEA(Collections.singletonList(ne));
+		SDocumentGraph graph = getFixture().getDocument().getDocumentGraph();
+		List<List<SToken>> covered = new ArrayList<>();
+		for (SSpan span : graph.getSpans()) {
+			SAnnotation r = span.getAnnotation("GeTa_NEA", "R");
+			if (r != null && "probe".equals(r.getValue())) {
+				covered.add(graph.getOverlappedTokens(span));
+			}
+		}
+		assertEquals(3, covered.size());
+		assertFalse(covered.get(0).isEmpty());
+		assertEquals(covered.get(0), covered.get(1));
+		assertEquals(covered.get(0), covered.get(2));
+		// Only the word spans of the missing and unknown WIds are unresolved
+		assertEquals(2, getFixture().getUnresolvedReferenceCount());
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#buildPrimaryText(List)},
+	 * testing that the primary text is built correctly.
+	 */
+	@Test
+	public void testBuildPrimaryText() {
+		List<GeTaFidalword> words = createFidalwords(2, 3);
+		assertEquals("aaa aaa ", GeTaMapper.buildPrimaryText(words));
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#appendPrimaryText(StringBuilder, List)},
+	 * testing that the text is appended letter by letter to a buffer
+	 * which isn't resized if it has been pre-sized to the text length.
+	 * The time taken for large texts is measured by the JMH benchmarks.
+	 */
+	@Test
+	public void testAppendPrimaryTextPreSized() {
+		List<GeTaLL> lls = Arrays.asList(new GeTaLL("a", "T0>W"), new GeTaLL("bc", "T1>W"), new GeTaLL("", "T2>W"), new GeTaLL("def", "T3>W"));
+		GeTaFC fc = new GeTaFC(null, null, null, null, null, null, lls);
+		List<GeTaFidalword> words = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			words.add(new GeTaFidalword("W", null, null, null, null, null, null, null, null, Collections.singletonList(fc)));
+		}
+		String word = "abcdef" + GeTaMapper.WORD_SEPARATOR;
+		int length = words.size() * word.length();
+		StringBuilder builder = new StringBuilder(length);
+		GeTaMapper.appendPrimaryText(builder, words);
+		assertEquals(length, builder.length());
+		assertEquals(length, builder.capacity());
+		for (int i = 0; i < words.size(); i++) {
+			assertEquals(word, builder.substring(i * word.length(), (i + 1) * word.length()));
+		}
+		assertEquals(builder.toString(), GeTaMapper.buildPrimaryText(words));
+	}
+
+	/**
+	 * Dumps a document graph for comparison: the text of each token
+	 * in order, followed by one line per span with the indices of the
+	 * tokens it covers and its annotations. The span lines are sorted,
+	 * as spans may be created in a different order.
+	 *
+	 * @param graph The graph to dump
+	 * @return The lines of the dump
+	 */
+	static List<String> dump(SDocumentGraph graph) {
+		List<String> lines = new ArrayList<>();
+		Map<SToken, Integer> tokenIndices = new HashMap<>();
+		for (SToken token : graph.getTokens()) {
+			tokenIndices.put(token, tokenIndices.size());
+			lines.add(graph.getText(token));
+		}
+		List<String> spanLines = new ArrayList<>();
+		for (SSpan span : graph.getSpans()) {
+			List<Integer> covered = new ArrayList<>();
+			for (SToken token : graph.getOverlappedTokens(span)) {
+				covered.add(tokenIndices.get(token));
+			}
+			Collections.sort(covered);
+			List<String> annotations = new ArrayList<>();
+			for (SAnnotation annotation : span.getAnnotations()) {
+				annotations.add(annotation.getQName() + "=" + annotation.getValue());
+			}
+			Collections.sort(annotations);
+			spanLines.add(covered + " " + annotations);
+		}
+		Collections.sort(spanLines);
+		lines.addAll(spanLines);
+		return lines;
+	}
+
+	/**
+	 * Creates a list of fidalwords with one FC each, containing
+	 * the given number of LL objects with LAT value "a".
+	 *
+	 * @param wordCount The number of fidalwords to create
+	 * @param lettersPerWord The number of LL objects per fidalword
+	 * @return The list of fidalwords
+	 */
+	private List<GeTaFidalword> createFidalwords(int wordCount, int lettersPerWord) {
+		List<GeTaLL> lls = Collections.nCopies(lettersPerWord, new GeTaLL("a", "T0>W"));
+		GeTaFC fc = new GeTaFC(null, null, null, null, null, null, lls);
+		List<GeTaFidalword> words = new ArrayList<>(wordCount);
+		for (int i = 0; i < wordCount; i++) {
+			words.add(new GeTaFidalword("W", null, null, null, null, null, null, null, null,
+					Collections.singletonList(fc)));
+		}
+		return words;
+	}
+
 	/**
 	 * @return the fixture
 	 */
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.uni_hamburg.traces.peppermodules.model.dea.GeTaDEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.metaea.GeTaMetaEA;
+import de.uni_hamburg.traces.peppermodules.model.nea.GeTaNEA;
+import de.uni_hamburg.traces.peppermodules.model.tea.GeTaTEA;
+
+/**
+ * Unit tests for {@link GeTaModelSnapshot}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaModelSnapshotTest {
+
+	private static final String SETTINGS = "settings";
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
+	private File directory = null;
+	private File eaFile = null;
+	private File snapshotFile = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		directory = corpus.getRoot();
+		corpus.getGenerator().setWordCount(300);
+		eaFile = corpus.write("doc");
+		snapshotFile = new File(directory, "docEA." + GeTaModelSnapshot.FILE_ENDING);
+	}
+
+	/**
+	 * Test method for {@link GeTaModelSnapshot#write(File, List, String)}
+	 * and {@link GeTaModelSnapshot#read(File, List, String)}, testing
+	 * that the snapshot yields the same models as parsing the JSON.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<GeTaInput> sources = getSources();
+		GeTaEA ea = sources.get(0).read(GeTaReaders.getEAReader());
+		List<GeTaTEA> tea = sources.get(1).read(GeTaReaders.getTEAReader());
+		List<GeTaDEA> dea = sources.get(2).read(GeTaReaders.getDEAReader());
+		List<GeTaNEA> nea = sources.get(3).read(GeTaReaders.getNEAReader());
+		GeTaMetaEA metaea = sources.get(4).read(GeTaReaders.getMetaEAReader());
+		new GeTaModelSnapshot(ea, tea, dea, nea, metaea).write(snapshotFile, sources, SETTINGS);
+		assertTrue(snapshotFile.length() < eaFile.length());
+
+		GeTaModelSnapshot snapshot = GeTaModelSnapshot.read(snapshotFile, getSources(), SETTINGS);
+		assertNotNull(snapshot);
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals(mapper.valueToTree(ea), mapper.valueToTree(snapshot.getEA()));
+		assertEquals(mapper.valueToTree(tea), mapper.valueToTree(snapshot.getTEA()));
+		assertEquals(mapper.valueToTree(dea), mapper.valueToTree(snapshot.getDEA()));
+		assertEquals(mapper.valueToTree(nea), mapper.valueToTree(snapshot.getNEA()));
+		assertEquals(mapper.valueToTree(metaea), mapper.valueToTree(snapshot.getMetaEA()));
+		// Shared morphology is restored through the canonical instances
+		assertSame(tea.get(0).getM(), snapshot.getTEA().get(0).getM());
+	}
+
+	/**
+	 * Test method for {@link GeTaModelSnapshot#read(File, List, String)},
+	 * testing that snapshots are rejected when a source or the
+	 * settings have changed.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testStaleSnapshot() throws IOException {
+		List<GeTaInput> sources = getSources();
+		GeTaEA ea = sources.get(0).read(GeTaReaders.getEAReader());
+		GeTaModelSnapshot snapshot = new GeTaModelSnapshot(ea, null, null, null, null);
+		snapshot.write(snapshotFile, sources, SETTINGS);
+		assertNotNull(GeTaModelSnapshot.read(snapshotFile, getSources(), SETTINGS));
+		assertNull(GeTaModelSnapshot.read(snapshotFile, getSources(), "other settings"));
+		assertNull(GeTaModelSnapshot.read(new File(directory, "missing." + GeTaModelSnapshot.FILE_ENDING), getSources(), SETTINGS));
+
+		// Same timestamp and length, different content
+		File deaFile = new File(directory, "docDEA.ann");
+		long lastModified = deaFile.lastModified();
+		byte[] content = Files.readAllBytes(deaFile.toPath());
+		content[content.length - 2] = content[content.length - 2] == ' ' ? (byte) '\n' : (byte) ' ';
+		Files.write(deaFile.toPath(), content);
+		assertTrue(deaFile.setLastModified(lastModified));
+		assertNull(GeTaModelSnapshot.read(snapshotFile, getSources(), SETTINGS));
+
+		// Same content, different timestamp
+		snapshot.write(snapshotFile, getSources(), SETTINGS);
+		assertTrue(deaFile.setLastModified(lastModified - 10000));
+		assertNull(GeTaModelSnapshot.read(snapshotFile, getSources(), SETTINGS));
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#mapSDocument()}, testing
+	 * that a document mapped from its snapshot yields the same graph
+	 * as one mapped from its JSON, in both binding and streaming
+	 * mode.
+	 */
+	@Test
+	public void testMapping() {
+		GeTaMapper jsonMapper = createMapper(false, false);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, jsonMapper.mapSDocument());
+		assertFalse(snapshotFile.exists());
+		assertEquals(DOCUMENT_STATUS.COMPLETED, createMapper(true, false).mapSDocument());
+		assertTrue(snapshotFile.isFile());
+		SDocumentGraph expected = jsonMapper.getDocument().getDocumentGraph();
+		for (boolean streamEA : new boolean[] { false, true }) {
+			GeTaMapper snapshotMapper = createMapper(true, streamEA);
+			GeTaImporterMetrics metrics = new GeTaImporterMetrics();
+			snapshotMapper.setMetrics(metrics);
+			assertEquals(DOCUMENT_STATUS.COMPLETED, snapshotMapper.mapSDocument());
+			assertEquals(snapshotFile.length(), metrics.getBytesRead());
+			SDocumentGraph actual = snapshotMapper.getDocument().getDocumentGraph();
+			assertEquals(expected.getTextualDSs().get(0).getText(), actual.getTextualDSs().get(0).getText());
+			assertEquals(expected.getTokens().size(), actual.getTokens().size());
+			assertEquals(expected.getSpans().size(), actual.getSpans().size());
+			assertEquals(expected.getRelations().size(), actual.getRelations().size());
+			assertEquals(jsonMapper.getDocument().getMetaAnnotations().size(), snapshotMapper.getDocument().getMetaAnnotations().size());
+		}
+	}
+
+	private List<GeTaInput> getSources() {
+		return Arrays.asList(GeTaInput.open(eaFile), GeTaInput.open(new File(directory, "docTEA.ann")), GeTaInput.open(new File(directory, "docDEA.ann")),
+				GeTaInput.open(new File(directory, "docNEA.ann")), GeTaInput.open(new File(directory, "docMetaEA.ann")));
+	}
+
+	private GeTaMapper createMapper(boolean modelSnapshot, boolean streamEA) {
+		GeTaImporterProperties properties = new GeTaImporterProperties();
+		properties.setPropertyValue(GeTaImporterProperties.PROP_MODEL_SNAPSHOT, modelSnapshot);
+		properties.setPropertyValue(GeTaImporterProperties.PROP_STREAM_EA, streamEA);
+		GeTaMapper mapper = new GeTaMapper();
+		mapper.setResourceURI(URI.createFileURI(eaFile.getAbsolutePath()));
+		mapper.setDocument(SaltFactory.createSDocument());
+		mapper.setProperties(properties);
+		return mapper;
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaEA;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFC;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaFidalword;
+import de.uni_hamburg.traces.peppermodules.model.ea.GeTaLL;
+
+/**
+ * Unit tests for {@link GeTaPreScan}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaPreScanTest {
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
+	/**
+	 * Test method for {@link GeTaPreScan#scan(GeTaInput, com.fasterxml.jackson.core.JsonFactory)},
+	 * testing that the counts of the test document match those of
+	 * the bound fidalwords.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testScanTestDocument() throws IOException {
+		assertCounts(new File(getClass().getResource("/testEA.json").getFile()));
+	}
+
+	/**
+	 * Test method for {@link GeTaPreScan#scan(GeTaInput, com.fasterxml.jackson.core.JsonFactory)},
+	 * testing that the counts of a generated document match those of
+	 * the bound fidalwords.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testScanGeneratedDocument() throws IOException {
+		GeTaCorpusGenerator generator = corpus.getGenerator();
+		generator.setWordCount(1000);
+		generator.setDivisionDepth(2);
+		generator.setWordsPerDivision(10);
+		generator.setNamedEntityDensity(0.2);
+		assertCounts(corpus.write("gen"));
+	}
+
+	private static void assertCounts(File eaFile) throws IOException {
+		GeTaPreScan scan = GeTaPreScan.scan(GeTaInput.open(eaFile), GeTaReaders.getFidalwordReader().getFactory());
+		GeTaEA ea = GeTaReaders.getEAReader().readValue(eaFile);
+		int llCount = 0;
+		Set<String> tids = new HashSet<>();
+		Set<String> sids = new HashSet<>();
+		Set<String> nes = new HashSet<>();
+		for (GeTaFidalword fidalword : ea.getFidalwords()) {
+			for (GeTaFC fc : fidalword.getFc()) {
+				for (GeTaLL ll : fc.getLl()) {
+					llCount++;
+					tids.add(ll.getTid());
+				}
+			}
+			if (fidalword.getSid() != null) {
+				sids.addAll(fidalword.getSid());
+			}
+			if (fidalword.getNe() != null && !fidalword.getNe().isEmpty()) {
+				nes.add(fidalword.getNe());
+			}
+		}
+		assertEquals(ea.getFidalwords().size(), scan.getFidalwordCount());
+		assertEquals(llCount, scan.getLLCount());
+		assertEquals(tids.size(), scan.getTidCount());
+		assertEquals(sids.size(), scan.getSidCount());
+		assertEquals(nes.size(), scan.getNECount());
+		assertEquals(GeTaMapper.buildPrimaryText(ea.getFidalwords()).length(), scan.getTextLength());
+	}
+
+}
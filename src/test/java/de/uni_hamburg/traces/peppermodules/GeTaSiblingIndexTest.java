@@ -0,0 +1,161 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import de.uni_hamburg.traces.peppermodules.GeTaSiblingIndex.Sibling;
+
+/**
+ * Unit tests for {@link GeTaSiblingIndex}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaSiblingIndexTest {
+
+	/**
+	 * The generator and folder for synthetic documents.
+	 */
+	@Rule
+	public GeTaGeneratedCorpus corpus = new GeTaGeneratedCorpus();
+
+	private File directory = null;
+	private GeTaSiblingIndex fixture = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		directory = corpus.getRoot();
+		setFixture(new GeTaSiblingIndex(directory));
+	}
+
+	/**
+	 * Test method for {@link GeTaSiblingIndex#getSize(String, Sibling)}.
+	 */
+	@Test
+	public void testGetSize() {
+		assertTrue(getFixture().add("docEA.json", 100));
+		assertTrue(getFixture().add("docTEA.ann", 20));
+		assertTrue(getFixture().add("docMetaEA.ann", 0));
+		assertTrue(getFixture().add("otherDEA.ann", 30));
+		assertFalse(getFixture().add("notes.txt", 10));
+		assertEquals(100, getFixture().getSize("doc", Sibling.EA));
+		assertEquals(20, getFixture().getSize("doc", Sibling.TEA));
+		assertEquals(0, getFixture().getSize("doc", Sibling.METAEA));
+		assertEquals(-1, getFixture().getSize("doc", Sibling.DEA));
+		assertEquals(-1, getFixture().getSize("doc", Sibling.NEA));
+		assertEquals(30, getFixture().getSize("other", Sibling.DEA));
+		assertEquals(-1, getFixture().getSize("other", Sibling.EA));
+		assertEquals(-1, getFixture().getSize("missing", Sibling.EA));
+	}
+
+	/**
+	 * Test method for {@link GeTaSiblingIndex#open(String, Sibling)},
+	 * testing that missing and empty siblings are resolved from the
+	 * index alone.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testOpen() throws IOException {
+		getFixture().add("docMetaEA.ann", 0);
+		// Files created after indexing aren't seen
+		Files.write(new File(directory, "docNEA.ann").toPath(), "[]".getBytes("UTF-8"));
+		GeTaInput nea = getFixture().open("doc", Sibling.NEA);
+		assertFalse(nea.exists());
+		assertEquals(new File(directory, "docNEA.ann"), nea.getFile());
+		// Empty files aren't opened, so they needn't exist any more
+		GeTaInput metaea = getFixture().open("doc", Sibling.METAEA);
+		assertTrue(metaea.exists());
+		assertEquals(0, metaea.length());
+		assertEquals(-1, metaea.getFirstByte());
+		// Indexed files which have been deleted since are missing once read
+		getFixture().add("docDEA.ann", 10);
+		GeTaInput dea = getFixture().open("doc", Sibling.DEA);
+		assertEquals(-1, dea.getFirstByte());
+		assertFalse(dea.exists());
+		getFixture().add("docNEA.ann", 2);
+		assertEquals('[', getFixture().open("doc", Sibling.NEA).getFirstByte());
+	}
+
+	/**
+	 * Test method for {@link GeTaMapper#mapSDocument()}, testing that
+	 * a document discovered by the importer is mapped through the
+	 * index of its directory, with the same result as a document
+	 * whose files are found on the file system.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testMapDiscoveredDocument() throws IOException {
+		corpus.getGenerator().setWordCount(100);
+		File eaFile = corpus.write("doc");
+		GeTaImporter importer = new GeTaImporter();
+		importer.setProperties(new GeTaImporterProperties());
+		assertTrue(importer.importCorpusStructureRec(URI.createFileURI(directory.getAbsolutePath()), null));
+		SDocument document = importer.getCorpusGraph().getDocuments().get(0);
+		GeTaMapper indexedMapper = (GeTaMapper) importer.createPepperMapper(document.getIdentifier());
+		indexedMapper.setDocument(document);
+		assertEquals(DOCUMENT_STATUS.COMPLETED, indexedMapper.mapSDocument());
+
+		GeTaMapper mapper = new GeTaMapper();
+		mapper.setResourceURI(URI.createFileURI(eaFile.getCanonicalPath()));
+		mapper.setDocument(SaltFactory.createSDocument());
+		mapper.setProperties(new GeTaImporterProperties());
+		assertEquals(DOCUMENT_STATUS.COMPLETED, mapper.mapSDocument());
+		SDocumentGraph expected = mapper.getDocument().getDocumentGraph();
+		SDocumentGraph actual = indexedMapper.getDocument().getDocumentGraph();
+		assertNotNull(actual);
+		assertEquals(expected.getTextualDSs().get(0).getText(), actual.getTextualDSs().get(0).getText());
+		assertEquals(expected.getTokens().size(), actual.getTokens().size());
+		assertEquals(expected.getSpans().size(), actual.getSpans().size());
+		assertEquals(mapper.getDocument().getMetaAnnotations().size(), indexedMapper.getDocument().getMetaAnnotations().size());
+	}
+
+	private GeTaSiblingIndex getFixture() {
+		return fixture;
+	}
+
+	private void setFixture(GeTaSiblingIndex fixture) {
+		this.fixture = fixture;
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.STextualDS;
+import org.corpus_tools.salt.common.SToken;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaSpanBuilder}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaSpanBuilderTest {
+
+	private SDocumentGraph graph = null;
+	private List<SToken> tokens = null;
+	private GeTaSpanBuilder fixture = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		graph = SaltFactory.createSDocumentGraph();
+		STextualDS text = SaltFactory.createSTextualDS();
+		graph.addNode(text);
+		tokens = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tokens.add(graph.createToken(text, i, i + 1));
+		}
+		fixture = new GeTaSpanBuilder(graph, tokens);
+	}
+
+	/**
+	 * Test method for {@link GeTaSpanBuilder#createSpan(int, int)}.
+	 */
+	@Test
+	public void testCreateSpan() {
+		SSpan span = fixture.createSpan(2, 5);
+		assertEquals(1, graph.getSpans().size());
+		assertEquals(tokens.subList(2, 5), graph.getOverlappedTokens(span));
+		assertEquals(3, graph.getSpanningRelations().size());
+	}
+
+	/**
+	 * Test method for {@link GeTaSpanBuilder#createSpans(int, int, int)},
+	 * testing that all spans cover the same tokens in text order.
+	 */
+	@Test
+	public void testCreateSpans() {
+		SSpan[] spans = fixture.createSpans(0, 4, 3);
+		assertEquals(3, spans.length);
+		assertEquals(3, graph.getSpans().size());
+		for (SSpan span : spans) {
+			assertEquals(tokens.subList(0, 4), graph.getOverlappedTokens(span));
+		}
+		assertEquals(12, graph.getSpanningRelations().size());
+		assertEquals(0, fixture.createSpans(4, 8, 0).length);
+		assertEquals(3, graph.getSpans().size());
+	}
+
+	/**
+	 * Test method for {@link GeTaSpanBuilder#createSpan(GeTaTokenRanges)}.
+	 */
+	@Test
+	public void testCreateSpanFromRanges() {
+		GeTaTokenRanges ranges = new GeTaTokenRanges();
+		ranges.add(1, 3);
+		ranges.add(3, 4);
+		ranges.add(7, 8);
+		assertEquals(2, ranges.size());
+		SSpan span = fixture.createSpan(ranges);
+		List<SToken> expected = new ArrayList<>(tokens.subList(1, 4));
+		expected.add(tokens.get(7));
+		assertEquals(expected, graph.getOverlappedTokens(span));
+	}
+
+	/**
+	 * Test method for {@link GeTaSpanBuilder#createSpans(int, int, int)},
+	 * testing that ranges refer to tokens added after the builder
+	 * has been created.
+	 */
+	@Test
+	public void testAppendedTokens() {
+		tokens.add(SaltFactory.createSToken());
+		graph.addNode(tokens.get(10));
+		SSpan span = fixture.createSpan(9, 11);
+		assertEquals(tokens.subList(9, 11), graph.getOverlappedTokens(span));
+	}
+
+}
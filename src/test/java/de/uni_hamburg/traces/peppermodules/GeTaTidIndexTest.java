@@ -0,0 +1,198 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SToken;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaTidIndex} and {@link GeTaTid}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaTidIndexTest {
+
+	private static final String W1 = "Wf2e5da2f-322e-4eab-94df-19c2487220c3";
+	private static final String W2 = "Wd5067cb3-4640-454a-893f-f1a44e71b26b";
+
+	private List<SToken> tokens = null;
+	private GeTaTidIndex fixture = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		tokens = new ArrayList<>();
+		fixture = new GeTaTidIndex(tokens);
+	}
+
+	/**
+	 * Test method for {@link GeTaTid#parseOrdinal(String)}.
+	 */
+	@Test
+	public void testParseOrdinal() {
+		assertEquals(0, GeTaTid.parseOrdinal("T0>" + W1));
+		assertEquals(12, GeTaTid.parseOrdinal("T12>" + W1));
+		assertEquals(W1, GeTaTid.getWordId("T12>" + W1));
+		assertTrue(GeTaTid.isInWord("T12>" + W1, W1));
+		assertFalse(GeTaTid.isInWord("T12>" + W1, W2));
+		for (String malformed : new String[] { null, "", "0>" + W1, "T>" + W1, "Tx>" + W1, "T0" + W1, "T0>",
+				"T1234567890>" + W1 }) {
+			assertEquals(malformed, GeTaTid.MALFORMED, GeTaTid.parseOrdinal(malformed));
+			assertTrue(GeTaTid.describe(malformed).startsWith("Malformed Tid"));
+		}
+		assertTrue(GeTaTid.describe("T0" + W1).contains("no '>'"));
+	}
+
+	/**
+	 * Test method for {@link GeTaTidIndex#getTokens(String)},
+	 * testing that well-formed Tids are resolved per word and ordinal.
+	 */
+	@Test
+	public void testGetTokens() {
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		add("T0>" + W1);
+		add("T1>" + W1);
+		fixture.startWord(W2);
+		add("T0>" + W2);
+		assertEquals(tokens.subList(0, 2), fixture.getTokens("T0>" + W1));
+		assertEquals(tokens.subList(2, 3), fixture.getTokens("T1>" + W1));
+		assertEquals(tokens.subList(3, 4), fixture.getTokens("T0>" + W2));
+		assertEquals(tokens.subList(2, 3), fixture.getTokens(fixture.findWord(W1), "T1>" + W1));
+		assertNull(fixture.getTokens("T2>" + W1));
+		assertNull(fixture.getTokens("T0>W"));
+	}
+
+	/**
+	 * Test method for {@link GeTaTidIndex#addRanges(int, String, GeTaTokenRanges)},
+	 * testing that the ranges of adjacent Tids are merged, that Tids
+	 * without a known word are resolved by their own word id, and
+	 * that unknown Tids are reported.
+	 */
+	@Test
+	public void testAddRanges() {
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		add("T1>" + W1);
+		add("T2>" + W1);
+		int word = fixture.findWord(W1);
+		GeTaTokenRanges ranges = new GeTaTokenRanges();
+		assertTrue(fixture.addRanges(word, "T0>" + W1, ranges));
+		assertTrue(fixture.addRanges(word, "T1>" + W1, ranges));
+		assertFalse(fixture.addRanges(word, "T5>" + W1, ranges));
+		assertFalse(fixture.addRanges(-1, "T0>W", ranges));
+		// Without a known word, the word is resolved from the Tid
+		assertTrue(fixture.addRanges(-1, "T2>" + W1, ranges));
+		assertEquals(1, ranges.size());
+		assertEquals(0, ranges.getStart(0));
+		assertEquals(3, ranges.getEnd(0));
+		assertTrue(fixture.addRanges(word, "T0>" + W1, ranges));
+		assertEquals(2, ranges.size());
+	}
+
+	/**
+	 * Test method for {@link GeTaTidIndex#addRanges(String, GeTaTokenRanges)},
+	 * testing that Tids are resolved in and out of text order.
+	 */
+	@Test
+	public void testAddRangesByTid() {
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		add("T1>" + W1);
+		fixture.startWord(W2);
+		add("T0>" + W2);
+		add("X0");
+		String[] tids = { "T0>" + W1, "T1>" + W1, "T0>" + W2, "T1>" + W1, "X0" };
+		int[] positions = { 0, 1, 2, 1, 3 };
+		GeTaTokenRanges ranges = new GeTaTokenRanges();
+		for (int i = 0; i < tids.length; i++) {
+			ranges.clear();
+			assertTrue(fixture.addRanges(tids[i], ranges));
+			assertEquals(1, ranges.size());
+			assertEquals(positions[i], ranges.getStart(0));
+			assertEquals(positions[i] + 1, ranges.getEnd(0));
+		}
+		ranges.clear();
+		assertFalse(fixture.addRanges("T2>" + W2, ranges));
+		assertFalse(fixture.addRanges("T0>W", ranges));
+		assertTrue(ranges.isEmpty());
+	}
+
+	/**
+	 * Test method for {@link GeTaTidIndex#getTokens(String)},
+	 * testing that malformed Tids, Tids of other words and Tids of
+	 * duplicate words still link via the fallback index.
+	 */
+	@Test
+	public void testGetTokensIrregular() {
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		add("X0");
+		add("T0>" + W2);
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		assertEquals(Arrays.asList(tokens.get(1)), fixture.getTokens("X0"));
+		assertEquals(Arrays.asList(tokens.get(2)), fixture.getTokens("T0>" + W2));
+		assertEquals(Arrays.asList(tokens.get(0), tokens.get(3)), fixture.getTokens("T0>" + W1));
+		// A ref's TID not matching the ref's WId
+		assertEquals(Arrays.asList(tokens.get(2)), fixture.getTokens(fixture.findWord(W1), "T0>" + W2));
+	}
+
+	/**
+	 * Test method for {@link GeTaTidIndex#getTokens(String)},
+	 * testing that Tids with ordinals far beyond the tokens of their
+	 * word link via the fallback index rather than allocating slots
+	 * up to the ordinal.
+	 */
+	@Test
+	public void testGetTokensHugeOrdinal() {
+		fixture.startWord(W1);
+		add("T0>" + W1);
+		add("T999999999>" + W1);
+		add("T40>" + W1);
+		add("T999999999>" + W1);
+		add("T1>" + W1);
+		assertEquals(Arrays.asList(tokens.get(1), tokens.get(3)), fixture.getTokens("T999999999>" + W1));
+		assertEquals(Arrays.asList(tokens.get(2)), fixture.getTokens("T40>" + W1));
+		assertEquals(Arrays.asList(tokens.get(4)), fixture.getTokens("T1>" + W1));
+	}
+
+	private void add(String tid) {
+		fixture.add(tid, tokens.size());
+		tokens.add(SaltFactory.createSToken());
+	}
+
+}
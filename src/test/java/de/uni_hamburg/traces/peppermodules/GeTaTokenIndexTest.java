@@ -0,0 +1,111 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SToken;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaTokenIndex}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaTokenIndexTest {
+
+	private List<SToken> tokens = null;
+	private GeTaTokenIndex fixture = null;
+
+	/**
+	 * Set up the fixture.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		tokens = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tokens.add(SaltFactory.createSToken());
+		}
+		fixture = new GeTaTokenIndex(tokens);
+	}
+
+	/**
+	 * Test method for {@link GeTaTokenIndex#getTokens(String)},
+	 * testing that adjacent tokens are merged into a single range.
+	 */
+	@Test
+	public void testAdjacentTokens() {
+		for (int i = 0; i < 10; i++) {
+			fixture.add("D1", i);
+			fixture.add(i < 5 ? "T0>W1" : "T0>W2", i);
+		}
+		assertEquals(3, fixture.size());
+		assertEquals(3, fixture.getRangeCount());
+		assertEquals(tokens, fixture.getTokens("D1"));
+		assertEquals(tokens.subList(0, 5), fixture.getTokens("T0>W1"));
+		assertEquals(tokens.subList(5, 10), fixture.getTokens("T0>W2"));
+		assertNull(fixture.getTokens("T1>W1"));
+	}
+
+	/**
+	 * Test method for {@link GeTaTokenIndex#getTokens(String)},
+	 * testing that non-adjacent and repeated tokens are kept in
+	 * the order they have been added.
+	 */
+	@Test
+	public void testNonAdjacentTokens() {
+		fixture.add("N1", 1);
+		fixture.add("N1", 2);
+		fixture.add("N1", 2);
+		fixture.add("N1", 3);
+		fixture.add("N1", 7);
+		assertEquals(Arrays.asList(tokens.get(1), tokens.get(2), tokens.get(2), tokens.get(3), tokens.get(7)),
+				fixture.getTokens("N1"));
+		assertEquals(0, fixture.findId("N1"));
+		assertEquals(-1, fixture.findId("N2"));
+	}
+
+	/**
+	 * Test method for {@link GeTaTokenIndex#add(int, int, int)},
+	 * testing that adjacent ranges are merged.
+	 */
+	@Test
+	public void testAddRange() {
+		int id = fixture.getId("D1");
+		fixture.add(id, 0, 3);
+		fixture.add(id, 3, 5);
+		fixture.add(id, 7, 9);
+		assertEquals(2, fixture.getRangeCount());
+		List<SToken> expected = new ArrayList<>(tokens.subList(0, 5));
+		expected.addAll(tokens.subList(7, 9));
+		assertEquals(expected, fixture.getTokens("D1"));
+	}
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2016ff. Stephan Druskat
+ * All exploitation rights belong exclusively to Universität Hamburg.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *     Stephan Druskat - initial API and implementation
+ */
+package de.uni_hamburg.traces.peppermodules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GeTaUtil}.
+ *
+ * @author Stephan Druskat <mail@sdruskat.net>
+ *
+ */
+public class GeTaUtilTest {
+
+	/**
+	 * Test method for {@link GeTaUtil#isValidJavaNetURL(String)},
+	 * testing that the prefilter and memo agree with {@link URL}.
+	 */
+	@Test
+	public void testIsValidJavaNetURL() {
+		String[] values = { "http://betamasaheft.eu/PRS1234", "https://betamasaheft.eu/api/Dillmann/L123/teientry",
+				"LOC1234", "PRS1234", "", " http://betamasaheft.eu/", "foo:bar", "mailto:mail@sdruskat.net",
+				"http://[::1", "urn:isbn:123", "ሀ    http://betamasaheft.eu/" };
+		for (int i = 0; i < 2; i++) {
+			for (String value : values) {
+				assertEquals(value, isURL(value), GeTaUtil.isValidJavaNetURL(value));
+			}
+		}
+		assertFalse(GeTaUtil.isValidJavaNetURL(null));
+	}
+
+	/**
+	 * Test method for {@link GeTaUtil#createLink(String, String)},
+	 * testing that links are built correctly and shared.
+	 */
+	@Test
+	public void testCreateLink() {
+		String link = GeTaUtil.createLink("http://betamasaheft.eu/PRS1", "PRS1");
+		assertEquals("<a href=\"http://betamasaheft.eu/PRS1\">PRS1</a>", link);
+		assertSame(link, GeTaUtil.createLink(new String("http://betamasaheft.eu/PRS1"), new String("PRS1")));
+	}
+
+	/**
+	 * Test method for {@link GeTaUtil#normaliseKey(String)},
+	 * testing that keys are normalised like `replaceAll("\\s", "-")`
+	 * and shared.
+	 */
+	@Test
+	public void testNormaliseKey() {
+		String[] keys = { "FIDLETED", "gender nature", "number  pattern", "a\tb\nc\u000Bd\fe\rf", " lex ", "ሀ ለ",
+				"a\u00A0b" };
+		for (String key : keys) {
+			assertEquals(key.replaceAll("\\s", "-"), GeTaUtil.normaliseKey(key));
+			assertSame(GeTaUtil.normaliseKey(key), GeTaUtil.normaliseKey(new String(key)));
+		}
+	}
+
+	/**
+	 * Test method for {@link GeTaUtil#putIfAbsent(ConcurrentMap, int, Object, Object)},
+	 * testing that cached values are kept and that the cache is bounded.
+	 */
+	@Test
+	public void testPutIfAbsent() {
+		ConcurrentMap<Integer, String> cache = new ConcurrentHashMap<>();
+		String one = GeTaUtil.putIfAbsent(cache, 2, 1, new String("1"));
+		assertSame(one, GeTaUtil.putIfAbsent(cache, 2, 1, new String("1")));
+		GeTaUtil.putIfAbsent(cache, 2, 2, "2");
+		assertEquals(2, cache.size());
+		assertEquals("3", GeTaUtil.putIfAbsent(cache, 2, 3, "3"));
+		assertTrue(cache.size() <= 2);
+		assertTrue(cache.containsKey(3));
+	}
+
+	private static boolean isURL(String value) {
+		try {
+			new URL(value);
+			return true;
+		}
+		catch (MalformedURLException e) {
+			return false;
+		}
+	}
+
+}